@@ -0,0 +1,164 @@
+//package com.company;
+
+import java.util.Arrays;
+
+/**
+ City priority queue is an indexed binary min heap of city indices
+ * used by the travel assistant to pick the next city [or search state] to visit
+ * every city can be in the queue at most once with its current weight
+ * the weight of a queued city can be lowered in place [decrease key]
+ * cities with the same weight come out in the order of their index
+ * the inserts, decreases and removals since the last clear are counted for the query metrics
+ */
+public class CityPriorityQueue {
+
+    // Private variables
+    private int[] heap;                 // heap of city indices
+    private int[] position;             // position of each city in the heap, -1 when not queued
+    private long[] weights;             // weight of each city while it is queued
+    private int size = 0;               // number of cities in the queue
+    private int operations = 0;         // heap operations since the last clear
+
+    // Constructor that Initializes a queue able to hold the given number of cities
+    public CityPriorityQueue(int numberOfCities) {
+        this.heap = new int[numberOfCities];
+        this.position = new int[numberOfCities];
+        this.weights = new long[numberOfCities];
+        Arrays.fill(this.position, -1);
+    }
+
+    /**
+     * Function that returns true when there are no cities left in the queue
+     * @return True if the queue is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Function that removes all the cities still waiting in the queue
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+        operations = 0;
+    }
+
+    /**
+     * Function that returns the number of inserts, decreases and removals since the last clear
+     * @return heap operations
+     */
+    public int operations() {
+        return operations;
+    }
+
+    /**
+     * Function that returns true if the city is waiting in the queue
+     * @param city
+     * @return True if the city is queued
+     */
+    public boolean contains(int city) {
+        return position[city] != -1;
+    }
+
+    /**
+     * Function that adds a city into the queue or lowers its weight if it is already queued
+     * @param city
+     * @param weight
+     */
+    public void insertOrDecrease(int city, long weight) {
+        operations++;
+        if (position[city] == -1) {
+            heap[size] = city;
+            position[city] = size;
+            weights[city] = weight;
+            size++;
+            siftUp(size - 1);
+        }
+        else if (weight < weights[city]) {
+            weights[city] = weight;
+            siftUp(position[city]);
+        }
+    }
+
+    /**
+     * Function that returns the minimum weight in the queue without removing the city
+     * @return minimum weight, only valid when the queue is not empty
+     */
+    public long minimumWeight() {
+        return weights[heap[0]];
+    }
+
+    /**
+     * Function that removes the city with the minimum weight from the queue
+     * @return index of the minimum weighted city
+     */
+    public int removeMinimum() {
+        int minimum = heap[0];
+        operations++;
+        size--;
+        position[minimum] = -1;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return minimum;
+    }
+
+    /**
+     * Function that returns true if city a has to be visited before city b
+     * @param a
+     * @param b
+     * @return True when a has a lower weight, or the same weight and a lower index
+     */
+    private boolean isBefore(int a, int b) {
+        return weights[a] < weights[b] || (weights[a] == weights[b] && a < b);
+    }
+
+    /**
+     * Function that moves a city up the heap until its parent comes before it
+     * @param index position in the heap
+     */
+    private void siftUp(int index) {
+        int city = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isBefore(city, heap[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            position[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = city;
+        position[city] = index;
+    }
+
+    /**
+     * Function that moves a city down the heap until its children come after it
+     * @param index position in the heap
+     */
+    private void siftDown(int index) {
+        int city = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && isBefore(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!isBefore(heap[child], city)) {
+                break;
+            }
+            heap[index] = heap[child];
+            position[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = city;
+        position[city] = index;
+    }
+}
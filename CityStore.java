@@ -0,0 +1,470 @@
+//package com.company;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ City store holds the cities and paths of a travel assistant as columns instead of one object per city or path
+ * the test requirement of every city is a bit of a bitset
+ * time to test and nightly hotel cost are primitive int arrays indexed by city
+ * every name is kept once, the city index and the compiled snapshots share the same string
+ * every path is a slot of the path columns [start, destination, mode, time, cost, departures]
+ * the slot of a removed path is given to the next added one
+ * the paths leaving a city are an int array of slots that is only created when the city gets its first path
+ * an open addressing table of long keys [start, destination, mode of travel] finds a known path without a scan
+ * a path costs 21 bytes of columns and 24 to 48 bytes of index, against about 120 bytes for a path object,
+ * its empty departures, its boxed key and its hash map entry
+ * the arrays grow by doubling, so adding a city or a path costs no allocation most of the time
+ */
+public class CityStore {
+
+    // Private variables
+    private int size = 0;                                       // number of cities
+    private String[] names = new String[16];                    // city names as they were added
+    private final BitSet testRequired = new BitSet();           // True if testing is required to enter the city
+    private int[] timeToTestDays = new int[16];                 // Testing can be done when Duration >=0
+    private int[] nightlyHotelCosts = new int[16];              // Cost each day while taking test
+
+    // Slots of the paths leaving each city in the order they were added, null for a city without paths
+    private int[][] edges = new int[16][];
+    private int[] edgeCount = new int[16];
+    private int numberOfEdges = 0;
+
+    // Path columns indexed by slot
+    private int numberOfSlots = 0;                              // slots used so far, free ones included
+    private int[] edgeSources = new int[16];                    // start city of each path
+    private int[] edgeTargets = new int[16];                    // destination city of each path
+    private byte[] edgeModes = new byte[16];                    // FLIGHT or TRAIN
+    private int[] edgeTimes = new int[16];                      // time of travel in minutes
+    private int[] edgeCosts = new int[16];                      // cost of travel
+    private int[][] edgeDepartures = new int[16][];             // sorted departure minutes, null for none
+
+    // Slots of the removed paths, reused by the next added ones
+    private int[] freeSlots = new int[16];
+    private int numberOfFreeSlots = 0;
+
+    // Open addressing table from the key of a path to its slot + 1, 0 for an empty entry, linear probing
+    private long[] indexKeys = new long[32];
+    private int[] indexSlots = new int[32];
+
+    /**
+     * Function that adds a city
+     * @param cityName
+     * @param testRequired
+     * @param timeToTest
+     * @param nightlyHotelCost
+     * @return index of the city
+     */
+    public int add(String cityName, boolean testRequired, int timeToTest, int nightlyHotelCost) {
+        if (size == names.length) {
+            int capacity = size * 2;
+            names = Arrays.copyOf(names, capacity);
+            timeToTestDays = Arrays.copyOf(timeToTestDays, capacity);
+            nightlyHotelCosts = Arrays.copyOf(nightlyHotelCosts, capacity);
+            edges = Arrays.copyOf(edges, capacity);
+            edgeCount = Arrays.copyOf(edgeCount, capacity);
+        }
+        names[size] = cityName;
+        this.testRequired.set(size, testRequired);
+        timeToTestDays[size] = timeToTest;
+        nightlyHotelCosts[size] = nightlyHotelCost;
+        return size++;
+    }
+
+    /**
+     * Function that removes the newest city, its paths must already be removed
+     * used to roll back an update that added the city
+     */
+    public void removeLast() {
+        size--;
+        names[size] = null;
+        testRequired.clear(size);
+        timeToTestDays[size] = 0;
+        nightlyHotelCosts[size] = 0;
+        edges[size] = null;
+        edgeCount[size] = 0;
+    }
+
+    /**
+     * Function that returns the number of cities
+     * @return number of cities
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Function that returns the number of paths of all the cities
+     * @return number of paths
+     */
+    public int numberOfEdges() {
+        return numberOfEdges;
+    }
+
+    /**
+     * Getter function that gets the name of a city
+     * @param city
+     * @return city name
+     */
+    public String getCityName(int city) {
+        return names[city];
+    }
+
+    /**
+     * Getter function that gets if testing is required to enter a city
+     * @param city
+     * @return test required
+     */
+    public boolean isTestRequired(int city) {
+        return testRequired.get(city);
+    }
+
+    /**
+     * Getter function that gets the days of testing in a city
+     * @param city
+     * @return time to test, < 0 when the city cannot test
+     */
+    public int getTimeToTest(int city) {
+        return timeToTestDays[city];
+    }
+
+    /**
+     * Getter function that gets the nightly hotel cost of a city
+     * @param city
+     * @return nightly hotel cost
+     */
+    public int getNightlyHotelCosts(int city) {
+        return nightlyHotelCosts[city];
+    }
+
+    /**
+     * Function that returns the number of paths leaving a city
+     * @param city
+     * @return number of paths
+     */
+    public int numberOfEdges(int city) {
+        return edgeCount[city];
+    }
+
+    /**
+     * Getter function that gets a path leaving a city
+     * @param city
+     * @param position 0 for the first path added
+     * @return slot of the path
+     */
+    public int getEdge(int city, int position) {
+        return edges[city][position];
+    }
+
+    /**
+     * Getter function that gets the start city of a path
+     * @param edge slot of the path
+     * @return index of the start city
+     */
+    public int getStartIndex(int edge) {
+        return edgeSources[edge];
+    }
+
+    /**
+     * Getter function that gets the destination city of a path
+     * @param edge slot of the path
+     * @return index of the destination city
+     */
+    public int getDestinationIndex(int edge) {
+        return edgeTargets[edge];
+    }
+
+    /**
+     * Getter function that gets the mode of travel of a path
+     * @param edge slot of the path
+     * @return FLIGHT or TRAIN
+     */
+    public byte getMode(int edge) {
+        return edgeModes[edge];
+    }
+
+    /**
+     * Getter function that gets the time of travel of a path
+     * @param edge slot of the path
+     * @return time in minutes
+     */
+    public int getTimeMinutes(int edge) {
+        return edgeTimes[edge];
+    }
+
+    /**
+     * Getter function that gets the cost of travel of a path
+     * @param edge slot of the path
+     * @return cost
+     */
+    public int getCost(int edge) {
+        return edgeCosts[edge];
+    }
+
+    /**
+     * Setter function that sets the time and cost of travel of a path
+     * @param edge slot of the path
+     * @param timeMinutes
+     * @param cost
+     */
+    public void setTimeAndCost(int edge, int timeMinutes, int cost) {
+        edgeTimes[edge] = timeMinutes;
+        edgeCosts[edge] = cost;
+    }
+
+    /**
+     * Function that adds a path leaving its start city
+     * @param startIndex
+     * @param destinationIndex
+     * @param mode FLIGHT or TRAIN
+     * @param timeMinutes
+     * @param cost
+     * @return slot of the path, -1 if a path with the same cities and mode of travel is already known
+     */
+    public int addEdge(int startIndex, int destinationIndex, byte mode, int timeMinutes, int cost) {
+        long key = edgeKey(startIndex, destinationIndex, mode);
+        int entry = indexEntry(key);
+        if (indexSlots[entry] != 0) {
+            return -1;
+        }
+
+        // take a free slot or a new one and fill its columns
+        int edge;
+        if (numberOfFreeSlots > 0) {
+            edge = freeSlots[--numberOfFreeSlots];
+        }
+        else {
+            if (numberOfSlots == edgeSources.length) {
+                int capacity = numberOfSlots * 2;
+                edgeSources = Arrays.copyOf(edgeSources, capacity);
+                edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+                edgeModes = Arrays.copyOf(edgeModes, capacity);
+                edgeTimes = Arrays.copyOf(edgeTimes, capacity);
+                edgeCosts = Arrays.copyOf(edgeCosts, capacity);
+                edgeDepartures = Arrays.copyOf(edgeDepartures, capacity);
+            }
+            edge = numberOfSlots++;
+        }
+        edgeSources[edge] = startIndex;
+        edgeTargets[edge] = destinationIndex;
+        edgeModes[edge] = mode;
+        edgeTimes[edge] = timeMinutes;
+        edgeCosts[edge] = cost;
+        edgeDepartures[edge] = null;
+
+        // index the path, the table is kept at most half full
+        indexKeys[entry] = key;
+        indexSlots[entry] = edge + 1;
+        if (++numberOfEdges * 2 > indexKeys.length) {
+            growIndex();
+        }
+
+        // append the slot to the paths of its start city
+        int city = startIndex;
+        if (edges[city] == null) {
+            edges[city] = new int[2];
+        }
+        else if (edgeCount[city] == edges[city].length) {
+            edges[city] = Arrays.copyOf(edges[city], edgeCount[city] * 2);
+        }
+        edges[city][edgeCount[city]++] = edge;
+        return edge;
+    }
+
+    /**
+     * Function that puts a removed path back at its old position among the paths of its start city
+     * used to roll back an update that removed the path
+     * @param startIndex
+     * @param destinationIndex
+     * @param mode FLIGHT or TRAIN
+     * @param timeMinutes
+     * @param cost
+     * @param departures sorted departure minutes of the path, null for none
+     * @param position position of the path before it was removed
+     * @return slot of the path
+     */
+    public int insertEdge(int startIndex, int destinationIndex, byte mode, int timeMinutes, int cost,
+                          int[] departures, int position) {
+        int edge = addEdge(startIndex, destinationIndex, mode, timeMinutes, cost);
+        edgeDepartures[edge] = departures;
+        int[] list = edges[startIndex];
+        System.arraycopy(list, position, list, position + 1, edgeCount[startIndex] - position - 1);
+        list[position] = edge;
+        return edge;
+    }
+
+    /**
+     * Function that returns the position of a path among the paths of its start city
+     * @param edge slot of the path
+     * @return position, -1 when the path is not known
+     */
+    public int positionOf(int edge) {
+        int city = edgeSources[edge];
+        for (int i = 0; i < edgeCount[city]; i++) {
+            if (edges[city][i] == edge) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Function that finds the path between 2 cities with a mode of travel
+     * @param startIndex
+     * @param destinationIndex
+     * @param mode FLIGHT or TRAIN
+     * @return slot of the path, -1 when there is no such path
+     */
+    public int findEdge(int startIndex, int destinationIndex, byte mode) {
+        return indexSlots[indexEntry(edgeKey(startIndex, destinationIndex, mode))] - 1;
+    }
+
+    /**
+     * Function that removes a path, the paths after it keep their order and its slot is freed
+     * @param edge slot of the path
+     */
+    public void removeEdge(int edge) {
+        removeFromIndex(indexEntry(edgeKey(edgeSources[edge], edgeTargets[edge], edgeModes[edge])));
+        int city = edgeSources[edge];
+        int[] list = edges[city];
+        for (int i = 0; i < edgeCount[city]; i++) {
+            if (list[i] == edge) {
+                System.arraycopy(list, i + 1, list, i, edgeCount[city] - i - 1);
+                edgeCount[city]--;
+                break;
+            }
+        }
+        edgeDepartures[edge] = null;
+        numberOfEdges--;
+        if (numberOfFreeSlots == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, numberOfFreeSlots * 2);
+        }
+        freeSlots[numberOfFreeSlots++] = edge;
+    }
+
+    /**
+     * Getter function that gets the scheduled departures of a path
+     * @param edge slot of the path
+     * @return sorted departure minutes, null when the path has none, the array is never changed
+     */
+    public int[] getDepartures(int edge) {
+        return edgeDepartures[edge];
+    }
+
+    /**
+     * Function that adds a scheduled departure of a path
+     * @param edge slot of the path
+     * @param departureMinute minute of the timetable the service leaves the start city
+     * @return True if the departure is added, False if it is already known
+     */
+    public boolean addDeparture(int edge, int departureMinute) {
+        int[] departures = edgeDepartures[edge] != null ? edgeDepartures[edge] : new int[0];
+        int position = Arrays.binarySearch(departures, departureMinute);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+        int[] added = new int[departures.length + 1];
+        System.arraycopy(departures, 0, added, 0, position);
+        added[position] = departureMinute;
+        System.arraycopy(departures, position, added, position + 1, departures.length - position);
+        edgeDepartures[edge] = added;
+        return true;
+    }
+
+    /**
+     * Function that removes a scheduled departure of a path
+     * @param edge slot of the path
+     * @param departureMinute
+     * @return True if the departure was removed, False if it is not known
+     */
+    public boolean removeDeparture(int edge, int departureMinute) {
+        int[] departures = edgeDepartures[edge];
+        int position = departures != null ? Arrays.binarySearch(departures, departureMinute) : -1;
+        if (position < 0) {
+            return false;
+        }
+        if (departures.length == 1) {
+            edgeDepartures[edge] = null;
+            return true;
+        }
+        int[] removed = new int[departures.length - 1];
+        System.arraycopy(departures, 0, removed, 0, position);
+        System.arraycopy(departures, position + 1, removed, position, removed.length - position);
+        edgeDepartures[edge] = removed;
+        return true;
+    }
+
+    /**
+     * Function that finds the entry of a key in the index, or the empty entry where it would go
+     * @param key
+     * @return entry of the index
+     */
+    private int indexEntry(long key) {
+        int mask = indexKeys.length - 1;
+        int entry = hash(key) & mask;
+        while (indexSlots[entry] != 0 && indexKeys[entry] != key) {
+            entry = (entry + 1) & mask;
+        }
+        return entry;
+    }
+
+    /**
+     * Function that empties an entry of the index and moves back the entries of its probe run that
+     * would no longer be found after the hole
+     * @param entry entry holding a key
+     */
+    private void removeFromIndex(int entry) {
+        int mask = indexKeys.length - 1;
+        int hole = entry;
+        for (int next = (hole + 1) & mask; indexSlots[next] != 0; next = (next + 1) & mask) {
+            int home = hash(indexKeys[next]) & mask;
+
+            // the entry may fill the hole unless its home lies cyclically after the hole and up to it
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                indexKeys[hole] = indexKeys[next];
+                indexSlots[hole] = indexSlots[next];
+                hole = next;
+            }
+        }
+        indexSlots[hole] = 0;
+    }
+
+    /**
+     * Function that doubles the index and enters every key again
+     */
+    private void growIndex() {
+        long[] oldKeys = indexKeys;
+        int[] oldSlots = indexSlots;
+        indexKeys = new long[oldKeys.length * 2];
+        indexSlots = new int[oldSlots.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSlots[i] != 0) {
+                int entry = indexEntry(oldKeys[i]);
+                indexKeys[entry] = oldKeys[i];
+                indexSlots[entry] = oldSlots[i];
+            }
+        }
+    }
+
+    /**
+     * Function that spreads the bits of a key over the bits of the index
+     * @param key
+     * @return hash of the key
+     */
+    private static int hash(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    /**
+     * Function that returns the key of a path
+     * @param startIndex
+     * @param destinationIndex
+     * @param mode FLIGHT or TRAIN
+     * @return start index in the high half, destination index * 2 + mode in the low half
+     */
+    private static long edgeKey(int startIndex, int destinationIndex, byte mode) {
+        return ((long) startIndex << 32) | ((long) destinationIndex << 1) | mode;
+    }
+}
@@ -0,0 +1,677 @@
+//package com.company;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ Compiled graph is an immutable snapshot of the cities and paths of a travel assistant
+ * stored as compressed sparse rows so that queries only read primitive arrays
+ * the paths leaving city c are the edges offsets[c] .. offsets[c+1]-1
+ * every edge stores its destination city, time, cost and mode of travel
+ * every city stores its name, test requirement, time to test and nightly hotel cost
+ * a reverse index lists the edges entering city c as reverseEdges[reverseOffsets[c] .. reverseOffsets[c+1]-1]
+ * a snapshot can be saved to a binary file and loaded back by bulk copies of its arrays, see save and load
+ * a loaded snapshot lives in heap arrays like a compiled one, queries never read the file itself
+ */
+public class CompiledGraph {
+
+    // Modes of travel stored in the mode array
+    public static final byte FLIGHT = 0;
+    public static final byte TRAIN  = 1;
+
+    // Header of the binary snapshot file
+    private static final int SNAPSHOT_MAGIC = 0x54415347;       // "TASG"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // Number of ints of an edge in the rows rebuilt by withChanges [target, mode, time, cost]
+    private static final int ROW_STRIDE = 4;
+
+    // City arrays indexed by city index
+    private final String[] cityNames;           // city names as they were added
+    private final boolean[] testRequired;       // True if testing is required to enter the city
+    private final int[] timeToTestDays;         // Testing can be done when Duration >=0
+    private final int[] nightlyHotelCosts;      // Cost each day while taking test
+
+    // Edge arrays indexed by edge index, grouped by start city
+    private final int[] offsets;                // first edge of each city, one extra entry for the end
+    private final int[] targets;                // destination city of each edge
+    private final int[] time;                   // time of travel in minutes of each edge
+    private final int[] cost;                   // cost of travel of each edge
+    private final byte[] mode;                  // mode of travel of each edge [FLIGHT, TRAIN]
+    private final int[] sources;                // start city of each edge
+
+    // Reverse index of the edges grouped by destination city
+    private final int[] reverseOffsets;         // first entering edge of each city, one extra entry for the end
+    private final int[] reverseEdges;           // edges ordered by destination city
+
+    // Constructor that Initializes the snapshot from already built arrays
+    private CompiledGraph(String[] cityNames, boolean[] testRequired, int[] timeToTestDays,
+                          int[] nightlyHotelCosts, int[] offsets, int[] targets, int[] time, int[] cost,
+                          byte[] mode, int[] sources, int[] reverseOffsets, int[] reverseEdges) {
+        this.cityNames = cityNames;
+        this.testRequired = testRequired;
+        this.timeToTestDays = timeToTestDays;
+        this.nightlyHotelCosts = nightlyHotelCosts;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.time = time;
+        this.cost = cost;
+        this.mode = mode;
+        this.sources = sources;
+        this.reverseOffsets = reverseOffsets;
+        this.reverseEdges = reverseEdges;
+    }
+
+    /**
+     * Function that compiles the cities and their edges into a snapshot
+     * the edges of each city keep the order in which they were added
+     * @param cities cities of the travel assistant, edges must carry city indices
+     * @return compiled snapshot of the graph
+     */
+    public static CompiledGraph compile(CityStore cities) {
+
+        int numberOfCities = cities.size();
+        String[] cityNames = new String[numberOfCities];
+        boolean[] testRequired = new boolean[numberOfCities];
+        int[] timeToTestDays = new int[numberOfCities];
+        int[] nightlyHotelCosts = new int[numberOfCities];
+        int[] offsets = new int[numberOfCities + 1];
+
+        // first pass -- city attributes and the position of the first edge of each city
+        for (int i = 0; i < numberOfCities; i++) {
+            cityNames[i] = cities.getCityName(i);
+            testRequired[i] = cities.isTestRequired(i);
+            timeToTestDays[i] = cities.getTimeToTest(i);
+            nightlyHotelCosts[i] = cities.getNightlyHotelCosts(i);
+            offsets[i + 1] = offsets[i] + cities.numberOfEdges(i);
+        }
+
+        int numberOfEdges = offsets[numberOfCities];
+        int[] targets = new int[numberOfEdges];
+        int[] time = new int[numberOfEdges];
+        int[] cost = new int[numberOfEdges];
+        byte[] mode = new byte[numberOfEdges];
+        int[] sources = new int[numberOfEdges];
+
+        // second pass -- copy the edges of each city into its row
+        for (int i = 0; i < numberOfCities; i++) {
+            for (int j = 0; j < cities.numberOfEdges(i); j++) {
+                int edge = cities.getEdge(i, j);
+                int e = offsets[i] + j;
+                targets[e] = cities.getDestinationIndex(edge);
+                time[e] = cities.getTimeMinutes(edge);
+                cost[e] = cities.getCost(edge);
+                mode[e] = cities.getMode(edge);
+                sources[e] = i;
+            }
+        }
+
+        // third pass -- group the edges by destination city for the reverse index
+        int[] reverseOffsets = new int[numberOfCities + 1];
+        int[] reverseEdges = reverseIndex(targets, numberOfCities, reverseOffsets);
+
+        return new CompiledGraph(cityNames, testRequired, timeToTestDays, nightlyHotelCosts,
+                offsets, targets, time, cost, mode, sources, reverseOffsets, reverseEdges);
+    }
+
+    /**
+     * Function that returns the snapshot with a run of changes of the change log applied
+     * scheduled departures are not part of the snapshot, a run of them gives back this snapshot
+     * a run of time and cost changes only copies the time and cost arrays, every other array is shared
+     * otherwise only the rows of the cities the changes touch are rebuilt, the other rows are bulk copied
+     * the edges of each city keep the order compile gives them, so edge indices match a full compile
+     * this snapshot stays unchanged for the queries still reading it
+     * @param first first change to apply
+     * @param last last change to apply, reached from first by following the log
+     * @return updated snapshot
+     */
+    public CompiledGraph withChanges(GraphChange first, GraphChange last) {
+
+        int addedCities = 0;
+        boolean onlyUpdates = true;
+        boolean anyUpdate = false;
+        for (GraphChange change = first; ; change = change.getNext()) {
+            switch (change.getKind()) {
+                case GraphChange.UPDATE_EDGE:
+                    anyUpdate = true;
+                    break;
+                case GraphChange.START:
+                case GraphChange.ADD_DEPARTURE:
+                    break;
+                case GraphChange.ADD_CITY:
+                    addedCities++;
+                    onlyUpdates = false;
+                    break;
+                default:
+                    onlyUpdates = false;
+                    break;
+            }
+            if (change == last) {
+                break;
+            }
+        }
+
+        // log starts and departures change no array, time and cost changes patch copies of the two arrays in place
+        if (onlyUpdates && !anyUpdate) {
+            return this;
+        }
+        if (onlyUpdates) {
+            int[] newTime = time.clone();
+            int[] newCost = cost.clone();
+            for (GraphChange change = first; ; change = change.getNext()) {
+                if (change.getKind() == GraphChange.UPDATE_EDGE) {
+                    int edge = findEdge(change.getStartCity(), change.getDestinationCity(), change.getMode());
+                    if (edge >= 0) {
+                        newTime[edge] = change.getTimeMinutes();
+                        newCost[edge] = change.getCost();
+                    }
+                }
+                if (change == last) {
+                    break;
+                }
+            }
+            return new CompiledGraph(cityNames, testRequired, timeToTestDays, nightlyHotelCosts,
+                    offsets, targets, newTime, newCost, mode, sources, reverseOffsets, reverseEdges);
+        }
+
+        // added cities -- extend the city arrays
+        int oldCities = numberOfCities();
+        int numberOfCities = oldCities + addedCities;
+        String[] newNames = Arrays.copyOf(cityNames, numberOfCities);
+        boolean[] newTestRequired = Arrays.copyOf(testRequired, numberOfCities);
+        int[] newTimeToTest = Arrays.copyOf(timeToTestDays, numberOfCities);
+        int[] newHotelCosts = Arrays.copyOf(nightlyHotelCosts, numberOfCities);
+
+        // replay the changes on the rows they touch, each edge as 4 ints [target, mode, time, cost]
+        int[][] rows = new int[numberOfCities][];           // null for a row no change touches
+        int[] rowLengths = new int[numberOfCities];         // number of edges of each replayed row
+        int city = oldCities;
+        for (GraphChange change = first; ; change = change.getNext()) {
+            switch (change.getKind()) {
+                case GraphChange.ADD_CITY:
+                    newNames[city] = change.getCityName();
+                    newTestRequired[city] = change.isTestRequired();
+                    newTimeToTest[city] = change.getTimeToTest();
+                    newHotelCosts[city] = change.getNightlyHotelCost();
+                    city++;
+                    break;
+                case GraphChange.ADD_EDGE:
+                    int start = change.getStartCity();
+                    int[] row = row(rows, rowLengths, start);
+                    if (row.length == rowLengths[start] * ROW_STRIDE) {
+                        row = rows[start] = Arrays.copyOf(row, Math.max(2 * row.length, 2 * ROW_STRIDE));
+                    }
+                    int end = rowLengths[start]++ * ROW_STRIDE;
+                    row[end] = change.getDestinationCity();
+                    row[end + 1] = change.getMode();
+                    row[end + 2] = change.getTimeMinutes();
+                    row[end + 3] = change.getCost();
+                    break;
+                case GraphChange.UPDATE_EDGE:
+                case GraphChange.REMOVE_EDGE:
+                    start = change.getStartCity();
+                    row = row(rows, rowLengths, start);
+                    for (int i = 0; i < rowLengths[start] * ROW_STRIDE; i += ROW_STRIDE) {
+                        if (row[i] == change.getDestinationCity() && row[i + 1] == change.getMode()) {
+                            if (change.getKind() == GraphChange.REMOVE_EDGE) {
+                                System.arraycopy(row, i + ROW_STRIDE, row, i, --rowLengths[start] * ROW_STRIDE - i);
+                            }
+                            else {
+                                row[i + 2] = change.getTimeMinutes();
+                                row[i + 3] = change.getCost();
+                            }
+                            break;
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (change == last) {
+                break;
+            }
+        }
+
+        // offsets of the new rows
+        int[] newOffsets = new int[numberOfCities + 1];
+        for (int i = 0; i < numberOfCities; i++) {
+            int length = rows[i] != null ? rowLengths[i] : i < oldCities ? offsets[i + 1] - offsets[i] : 0;
+            newOffsets[i + 1] = newOffsets[i] + length;
+        }
+
+        int numberOfEdges = newOffsets[numberOfCities];
+        int[] newTargets = new int[numberOfEdges];
+        int[] newTime = new int[numberOfEdges];
+        int[] newCost = new int[numberOfEdges];
+        byte[] newMode = new byte[numberOfEdges];
+        int[] newSources = new int[numberOfEdges];
+
+        // copy untouched rows and write the replayed ones
+        for (int i = 0; i < numberOfCities; i++) {
+            int[] row = rows[i];
+            int e = newOffsets[i];
+            if (row == null) {
+                int from = i < oldCities ? offsets[i] : 0;
+                int length = newOffsets[i + 1] - e;
+                System.arraycopy(targets, from, newTargets, e, length);
+                System.arraycopy(time, from, newTime, e, length);
+                System.arraycopy(cost, from, newCost, e, length);
+                System.arraycopy(mode, from, newMode, e, length);
+            }
+            else {
+                for (int j = 0; j < rowLengths[i] * ROW_STRIDE; j += ROW_STRIDE) {
+                    newTargets[e] = row[j];
+                    newMode[e] = (byte) row[j + 1];
+                    newTime[e] = row[j + 2];
+                    newCost[e] = row[j + 3];
+                    e++;
+                }
+            }
+            Arrays.fill(newSources, newOffsets[i], newOffsets[i + 1], i);
+        }
+
+        int[] newReverseOffsets = new int[numberOfCities + 1];
+        int[] newReverseEdges = reverseIndex(newTargets, numberOfCities, newReverseOffsets);
+        return new CompiledGraph(newNames, newTestRequired, newTimeToTest, newHotelCosts,
+                newOffsets, newTargets, newTime, newCost, newMode, newSources, newReverseOffsets, newReverseEdges);
+    }
+
+    /**
+     * Function that gets the row of a city being rebuilt by withChanges, copying it from the snapshot the first time
+     * @param rows rows rebuilt so far, null for a row not yet touched
+     * @param rowLengths number of edges of each rebuilt row
+     * @param city
+     * @return edges of the city, 4 ints [target, mode, time, cost] per edge
+     */
+    private int[] row(int[][] rows, int[] rowLengths, int city) {
+        int[] row = rows[city];
+        if (row == null) {
+            int length = city < numberOfCities() ? offsets[city + 1] - offsets[city] : 0;
+            row = new int[length * ROW_STRIDE];
+            for (int i = 0; i < length; i++) {
+                int edge = offsets[city] + i;
+                row[i * ROW_STRIDE] = targets[edge];
+                row[i * ROW_STRIDE + 1] = mode[edge];
+                row[i * ROW_STRIDE + 2] = time[edge];
+                row[i * ROW_STRIDE + 3] = cost[edge];
+            }
+            rows[city] = row;
+            rowLengths[city] = length;
+        }
+        return row;
+    }
+
+    /**
+     * Function that groups the edges by destination city for the reverse index
+     * @param targets destination city of each edge
+     * @param numberOfCities
+     * @param reverseOffsets array of numberOfCities + 1 zeros, filled with the first entering edge of each city
+     * @return edges ordered by destination city
+     */
+    private static int[] reverseIndex(int[] targets, int numberOfCities, int[] reverseOffsets) {
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int i = 0; i < numberOfCities; i++) {
+            reverseOffsets[i + 1] += reverseOffsets[i];
+        }
+        int[] reverseEdges = new int[targets.length];
+        int[] next = new int[numberOfCities];
+        System.arraycopy(reverseOffsets, 0, next, 0, numberOfCities);
+        for (int e = 0; e < targets.length; e++) {
+            reverseEdges[next[targets[e]]++] = e;
+        }
+        return reverseEdges;
+    }
+
+    /**
+     * Function that finds the edge between 2 cities with a mode of travel
+     * @param startCity
+     * @param destinationCity
+     * @param edgeMode FLIGHT or TRAIN
+     * @return index of the edge, -1 when there is no such edge
+     */
+    public int findEdge(int startCity, int destinationCity, byte edgeMode) {
+        for (int edge = offsets[startCity]; edge < offsets[startCity + 1]; edge++) {
+            if (targets[edge] == destinationCity && mode[edge] == edgeMode) {
+                return edge;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Function that saves the snapshot to a binary file
+     * the file holds a header [magic, version, cities, edges, name bytes] followed by the sections
+     * name offsets, name bytes, test required, time to test, hotel costs, offsets, targets, time, cost, mode,
+     * sources, reverse offsets and reverse edges, all numbers little endian
+     * @param file
+     * @throws IOException
+     */
+    public void save(Path file) throws IOException {
+
+        // city names as a single table of UTF-8 bytes
+        int numberOfCities = numberOfCities();
+        int numberOfEdges = numberOfEdges();
+        byte[][] names = new byte[numberOfCities][];
+        int[] nameOffsets = new int[numberOfCities + 1];
+        for (int i = 0; i < numberOfCities; i++) {
+            names[i] = cityNames[i].getBytes(StandardCharsets.UTF_8);
+            nameOffsets[i + 1] = nameOffsets[i] + names[i].length;
+        }
+
+        long size = 5L * Integer.BYTES + nameOffsets[numberOfCities] + numberOfCities + numberOfEdges
+                + Integer.BYTES * (5L * numberOfCities + 3 + 5L * numberOfEdges);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(numberOfCities).putInt(numberOfEdges)
+                  .putInt(nameOffsets[numberOfCities]);
+            putInts(buffer, nameOffsets);
+            for (byte[] name : names) {
+                buffer.put(name);
+            }
+            for (boolean required : testRequired) {
+                buffer.put((byte) (required ? 1 : 0));
+            }
+            putInts(buffer, timeToTestDays);
+            putInts(buffer, nightlyHotelCosts);
+            putInts(buffer, offsets);
+            putInts(buffer, targets);
+            putInts(buffer, time);
+            putInts(buffer, cost);
+            buffer.put(mode);
+            putInts(buffer, sources);
+            putInts(buffer, reverseOffsets);
+            putInts(buffer, reverseEdges);
+            buffer.force();
+        }
+    }
+
+    /**
+     * Function that loads a snapshot saved by save
+     * the file is mapped only to be read once, every section is bulk copied into a heap array and the mapping
+     * is dropped, so loading is one copy of the file and no city or edge objects are built, but it is not zero copy
+     * @param file
+     * @return compiled snapshot of the file
+     * @throws IOException
+     * @throws IllegalArgumentException
+     */
+    public static CompiledGraph load(Path file) throws IOException, IllegalArgumentException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            // header
+            int magic = buffer.getInt();
+            int version = buffer.getInt();
+            if (magic != SNAPSHOT_MAGIC) {
+                throw new IllegalArgumentException("bad data input for snapshot file, cannot be " + file);
+            }
+            if (version != SNAPSHOT_VERSION) {
+                throw new IllegalArgumentException("bad data input for snapshot version, cannot be " + version);
+            }
+            int numberOfCities = buffer.getInt();
+            int numberOfEdges = buffer.getInt();
+            int nameBytes = buffer.getInt();
+            if (numberOfCities < 0 || numberOfEdges < 0 || nameBytes < 0 ||
+                (long) numberOfCities + numberOfEdges + nameBytes > buffer.remaining()) {
+                throw new IllegalArgumentException("bad data input for snapshot file, cannot be " + file);
+            }
+
+            // city sections
+            int[] nameOffsets = getInts(buffer, numberOfCities + 1);
+            if (!isRows(nameOffsets, nameBytes)) {
+                throw new IllegalArgumentException("bad data input for snapshot file, cannot be " + file);
+            }
+            byte[] names = new byte[nameBytes];
+            buffer.get(names);
+            String[] cityNames = new String[numberOfCities];
+            for (int i = 0; i < numberOfCities; i++) {
+                cityNames[i] = new String(names, nameOffsets[i], nameOffsets[i + 1] - nameOffsets[i],
+                        StandardCharsets.UTF_8);
+            }
+            byte[] required = new byte[numberOfCities];
+            buffer.get(required);
+            boolean[] testRequired = new boolean[numberOfCities];
+            for (int i = 0; i < numberOfCities; i++) {
+                testRequired[i] = required[i] != 0;
+            }
+            int[] timeToTestDays = getInts(buffer, numberOfCities);
+            int[] nightlyHotelCosts = getInts(buffer, numberOfCities);
+
+            // edge sections
+            int[] offsets = getInts(buffer, numberOfCities + 1);
+            int[] targets = getInts(buffer, numberOfEdges);
+            int[] time = getInts(buffer, numberOfEdges);
+            int[] cost = getInts(buffer, numberOfEdges);
+            byte[] mode = new byte[numberOfEdges];
+            buffer.get(mode);
+            int[] sources = getInts(buffer, numberOfEdges);
+            int[] reverseOffsets = getInts(buffer, numberOfCities + 1);
+            int[] reverseEdges = getInts(buffer, numberOfEdges);
+
+            // every index read by a query must stay inside its array, so a damaged file fails here and not in a query
+            if (!isRows(offsets, numberOfEdges) || !isRows(reverseOffsets, numberOfEdges)) {
+                throw new IllegalArgumentException("bad data input for snapshot file, cannot be " + file);
+            }
+            for (int i = 0; i < numberOfCities; i++) {
+                if (nightlyHotelCosts[i] <= 0) {
+                    throw new IllegalArgumentException("bad data input for snapshot file, cannot be " + file);
+                }
+                for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                    if (sources[e] != i || targets[e] < 0 || targets[e] >= numberOfCities ||
+                        (mode[e] != FLIGHT && mode[e] != TRAIN) || time[e] <= 0 || cost[e] <= 0) {
+                        throw new IllegalArgumentException("bad data input for snapshot file, cannot be " + file);
+                    }
+                }
+                for (int r = reverseOffsets[i]; r < reverseOffsets[i + 1]; r++) {
+                    if (reverseEdges[r] < 0 || reverseEdges[r] >= numberOfEdges || targets[reverseEdges[r]] != i) {
+                        throw new IllegalArgumentException("bad data input for snapshot file, cannot be " + file);
+                    }
+                }
+            }
+
+            return new CompiledGraph(cityNames, testRequired, timeToTestDays, nightlyHotelCosts,
+                    offsets, targets, time, cost, mode, sources, reverseOffsets, reverseEdges);
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("bad data input for snapshot file, cannot be " + file);
+        }
+    }
+
+    /**
+     * Function that writes an array at the position of a buffer
+     * @param buffer little endian buffer
+     * @param values
+     */
+    private static void putInts(ByteBuffer buffer, int[] values) {
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+    }
+
+    /**
+     * Function that checks the offsets of a section split into rows
+     * @param rowOffsets first entry of each row, one extra at the end
+     * @param length number of entries of the section
+     * @return True if the offsets start at 0, never decrease and end at the length
+     */
+    private static boolean isRows(int[] rowOffsets, int length) {
+        if (rowOffsets[0] != 0 || rowOffsets[rowOffsets.length - 1] != length) {
+            return false;
+        }
+        for (int i = 1; i < rowOffsets.length; i++) {
+            if (rowOffsets[i] < rowOffsets[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Function that reads an array from the position of a buffer
+     * @param buffer little endian buffer
+     * @param length
+     * @return values read
+     */
+    private static int[] getInts(ByteBuffer buffer, int length) {
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * Function that returns the number of cities in the snapshot
+     * @return number of cities
+     */
+    public int numberOfCities() {
+        return cityNames.length;
+    }
+
+    /**
+     * Function that returns the number of edges in the snapshot
+     * @return number of edges
+     */
+    public int numberOfEdges() {
+        return targets.length;
+    }
+
+    /**
+     * Function that returns the first edge leaving a city
+     * @param city
+     * @return index of the first edge
+     */
+    public int firstEdge(int city) {
+        return offsets[city];
+    }
+
+    /**
+     * Function that returns the index after the last edge leaving a city
+     * @param city
+     * @return index after the last edge
+     */
+    public int endEdge(int city) {
+        return offsets[city + 1];
+    }
+
+    /**
+     * Function that returns the first position of a city in the reverse index
+     * @param city
+     * @return first position of the edges entering the city
+     */
+    public int firstReverseEdge(int city) {
+        return reverseOffsets[city];
+    }
+
+    /**
+     * Function that returns the position after the last edge entering a city in the reverse index
+     * @param city
+     * @return position after the last entering edge
+     */
+    public int endReverseEdge(int city) {
+        return reverseOffsets[city + 1];
+    }
+
+    /**
+     * Function that returns the edge at a position of the reverse index
+     * @param position
+     * @return edge entering the city of the position
+     */
+    public int getReverseEdge(int position) {
+        return reverseEdges[position];
+    }
+
+    /**
+     * Getter function that gets the city name
+     * @param city
+     * @return city name
+     */
+    public String getCityName(int city) {
+        return cityNames[city];
+    }
+
+    /**
+     * Getter function that gets if testing is required to enter the city
+     * @param city
+     * @return test required
+     */
+    public boolean isTestRequired(int city) {
+        return testRequired[city];
+    }
+
+    /**
+     * Getter function that gets the time to test in the city
+     * @param city
+     * @return time to test in days
+     */
+    public int getTimeToTest(int city) {
+        return timeToTestDays[city];
+    }
+
+    /**
+     * Getter function that gets the nightly hotel cost in the city
+     * @param city
+     * @return nightly hotel cost
+     */
+    public int getNightlyHotelCosts(int city) {
+        return nightlyHotelCosts[city];
+    }
+
+    /**
+     * Getter function that gets the destination city of an edge
+     * @param edge
+     * @return index of the destination city
+     */
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Getter function that gets the start city of an edge
+     * @param edge
+     * @return index of the start city
+     */
+    public int getSource(int edge) {
+        return sources[edge];
+    }
+
+    /**
+     * Getter function that gets the time of an edge
+     * @param edge
+     * @return time in minutes
+     */
+    public int getTimeMinutes(int edge) {
+        return time[edge];
+    }
+
+    /**
+     * Getter function that gets the cost of an edge
+     * @param edge
+     * @return cost of travel
+     */
+    public int getCost(int edge) {
+        return cost[edge];
+    }
+
+    /**
+     * Getter function that gets the mode of travel of an edge
+     * @param edge
+     * @return FLIGHT or TRAIN
+     */
+    public byte getMode(int edge) {
+        return mode[edge];
+    }
+}
@@ -0,0 +1,617 @@
+//package com.company;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ Contraction hierarchy is a preprocessed form of a compiled graph for a single travel preference
+ * cities are contracted one by one from the least to the most important, when a city is removed
+ * a shortcut replaces every best path that went through it, so every best path in the graph
+ * can be found by only going up the hierarchy from both ends
+ * a query is a bidirectional search over the upward arcs and touches only a few hundred cities
+ * every shortcut remembers the 2 arcs it replaces so that the path unpacks into the original edges
+ * the weights are the ones of a vaccinated traveller, the testing rule is not part of the hierarchy
+ * after paths change the hierarchy is contracted again in its old order, which skips the priority updates
+ * but still reruns every witness search, so it costs about as much as a build and is kept off the query path
+ */
+public class ContractionHierarchy {
+
+    // Cities settled by a witness search before it gives up and adds the shortcut
+    private static final int WITNESS_SETTLE_LIMIT = 200;
+
+    // Private variables
+    private final CompiledGraph graph;          // graph the hierarchy was built for
+    private final TravelPreference preference;  // preference the arcs are weighted with
+    private final int[] rank;                   // position of each city in the contraction order
+
+    // Arcs of the hierarchy, original edges and shortcuts
+    private final int[] arcFrom;                // start city of each arc
+    private final int[] arcTo;                  // destination city of each arc
+    private final long[] arcWeight;             // relative weight of each arc
+    private final int[] arcFirst;               // original edge of an edge arc, first replaced arc of a shortcut
+    private final int[] arcSecond;              // second replaced arc of a shortcut, -1 for an edge arc
+
+    // Upward arcs leaving each city and downward arcs entering each city, as compressed rows
+    private final int[] upOffsets;
+    private final int[] upArcs;
+    private final int[] downOffsets;
+    private final int[] downArcs;
+
+    // Query state, one reusable state per thread
+    private final ThreadLocal<QueryState> queryStates;
+
+    // Constructor that Initializes the hierarchy from an already contracted builder
+    private ContractionHierarchy(CompiledGraph graph, TravelPreference preference, Builder builder) {
+        this.graph = graph;
+        this.preference = preference;
+        this.rank = builder.rank;
+        this.arcFrom = Arrays.copyOf(builder.arcFrom, builder.arcCount);
+        this.arcTo = Arrays.copyOf(builder.arcTo, builder.arcCount);
+        this.arcWeight = Arrays.copyOf(builder.arcWeight, builder.arcCount);
+        this.arcFirst = Arrays.copyOf(builder.arcFirst, builder.arcCount);
+        this.arcSecond = Arrays.copyOf(builder.arcSecond, builder.arcCount);
+
+        // an arc goes up from its start city if it ends in a more important city, else down into its end
+        int numberOfCities = graph.numberOfCities();
+        this.upOffsets = new int[numberOfCities + 1];
+        this.downOffsets = new int[numberOfCities + 1];
+        for (int arc = 0; arc < arcFrom.length; arc++) {
+            if (rank[arcFrom[arc]] < rank[arcTo[arc]]) {
+                upOffsets[arcFrom[arc] + 1]++;
+            }
+            else {
+                downOffsets[arcTo[arc] + 1]++;
+            }
+        }
+        for (int i = 0; i < numberOfCities; i++) {
+            upOffsets[i + 1] += upOffsets[i];
+            downOffsets[i + 1] += downOffsets[i];
+        }
+        this.upArcs = new int[upOffsets[numberOfCities]];
+        this.downArcs = new int[downOffsets[numberOfCities]];
+        int[] nextUp = Arrays.copyOf(upOffsets, numberOfCities);
+        int[] nextDown = Arrays.copyOf(downOffsets, numberOfCities);
+        for (int arc = 0; arc < arcFrom.length; arc++) {
+            if (rank[arcFrom[arc]] < rank[arcTo[arc]]) {
+                upArcs[nextUp[arcFrom[arc]]++] = arc;
+            }
+            else {
+                downArcs[nextDown[arcTo[arc]]++] = arc;
+            }
+        }
+
+        this.queryStates = ThreadLocal.withInitial(() -> new QueryState(numberOfCities));
+    }
+
+    /**
+     * Function that contracts a compiled graph for a travel preference
+     * @param graph
+     * @param preference
+     * @return contraction hierarchy of the graph
+     */
+    public static ContractionHierarchy build(CompiledGraph graph, TravelPreference preference) {
+        Builder builder = new Builder(graph, preference);
+        builder.contractAll();
+        return new ContractionHierarchy(graph, preference, builder);
+    }
+
+    /**
+     * Function that contracts a newer graph of the same cities in the order of this hierarchy
+     * every city is contracted again with its witness searches, only the priority updates are skipped,
+     * so the cost is close to a build and does not shrink with the number of changed paths
+     * a graph with more cities is contracted from scratch
+     * @param graph newer graph
+     * @return contraction hierarchy of the newer graph
+     */
+    public ContractionHierarchy recontract(CompiledGraph graph) {
+        if (graph.numberOfCities() != rank.length) {
+            return build(graph, preference);
+        }
+        int[] order = new int[rank.length];
+        for (int city = 0; city < rank.length; city++) {
+            order[rank[city]] = city;
+        }
+        Builder builder = new Builder(graph, preference);
+        builder.contractInOrder(order);
+        return new ContractionHierarchy(graph, preference, builder);
+    }
+
+    /**
+     * Function that returns true if the hierarchy was built for a graph
+     * @param graph
+     * @return True if the hierarchy belongs to the graph
+     */
+    public boolean belongsTo(CompiledGraph graph) {
+        return this.graph == graph;
+    }
+
+    /**
+     * Getter function that gets the preference the hierarchy was built for
+     * @return preference
+     */
+    public TravelPreference getPreference() {
+        return preference;
+    }
+
+    /**
+     * Function that finds the best path between 2 cities by searching up the hierarchy from both ends
+     * @param startCity
+     * @param destinationCity
+     * @return original edges of the best path in order of travel, null when there is no path
+     */
+    public int[] query(int startCity, int destinationCity) {
+
+        QueryState state = queryStates.get();
+        state.begin();
+        long best = Weight.INFINITE;
+        int meeting = -1;
+
+        state.reach(true, startCity, 0, -1);
+        state.reach(false, destinationCity, 0, -1);
+        if (startCity == destinationCity) {
+            return new int[0];
+        }
+
+        // grow the side with the smaller weight while it can still improve the best meeting
+        while (true) {
+            boolean forwardOpen = !state.forwardQueue.isEmpty() && state.forwardQueue.minimumWeight() < best;
+            boolean backwardOpen = !state.backwardQueue.isEmpty() && state.backwardQueue.minimumWeight() < best;
+            if (!forwardOpen && !backwardOpen) {
+                break;
+            }
+            boolean forward = forwardOpen &&
+                    (!backwardOpen || state.forwardQueue.minimumWeight() <= state.backwardQueue.minimumWeight());
+
+            CityPriorityQueue queue = forward ? state.forwardQueue : state.backwardQueue;
+            int city = queue.removeMinimum();
+            long weight = state.weight(forward, city);
+
+            // a city reached from both ends is a candidate meeting point
+            long otherWeight = state.weight(!forward, city);
+            if (otherWeight != Weight.INFINITE && Weight.add(weight, otherWeight) < best) {
+                best = Weight.add(weight, otherWeight);
+                meeting = city;
+            }
+
+            int[] offsets = forward ? upOffsets : downOffsets;
+            int[] arcs = forward ? upArcs : downArcs;
+            for (int position = offsets[city]; position < offsets[city + 1]; position++) {
+                int arc = arcs[position];
+                int nextCity = forward ? arcTo[arc] : arcFrom[arc];
+                long nextWeight = Weight.add(weight, arcWeight[arc]);
+                if (nextWeight < state.weight(forward, nextCity)) {
+                    state.reach(forward, nextCity, nextWeight, arc);
+                }
+            }
+        }
+
+        if (meeting == -1) {
+            return null;
+        }
+        return unpackPath(state, meeting);
+    }
+
+    /**
+     * Function that turns the arcs of both searches into the original edges of the path
+     * @param state
+     * @param meeting city where both searches meet
+     * @return original edges in order of travel
+     */
+    private int[] unpackPath(QueryState state, int meeting) {
+
+        // arcs from the start city up to the meeting city, collected backwards
+        IntStack forwardArcs = new IntStack();
+        for (int arc = state.forwardArc[meeting]; arc != -1; arc = state.forwardArc[arcFrom[arc]]) {
+            forwardArcs.push(arc);
+        }
+
+        IntStack edges = new IntStack();
+        while (!forwardArcs.isEmpty()) {
+            unpackArc(forwardArcs.pop(), edges);
+        }
+
+        // arcs from the meeting city down to the destination, already in order of travel
+        for (int arc = state.backwardArc[meeting]; arc != -1; arc = state.backwardArc[arcTo[arc]]) {
+            unpackArc(arc, edges);
+        }
+        return edges.toArray();
+    }
+
+    /**
+     * Function that appends the original edges of an arc in order of travel
+     * @param arc
+     * @param edges output edges
+     */
+    private void unpackArc(int arc, IntStack edges) {
+        IntStack pending = new IntStack();
+        pending.push(arc);
+        while (!pending.isEmpty()) {
+            int next = pending.pop();
+            if (arcSecond[next] == -1) {
+                edges.push(arcFirst[next]);
+            }
+            else {
+                // the second arc is pushed first so that the first one is unpacked first
+                pending.push(arcSecond[next]);
+                pending.push(arcFirst[next]);
+            }
+        }
+    }
+
+    /**
+     Query state holds the weights of both searches of a query, reset by bumping a generation
+     */
+    private static class QueryState {
+        private int generation = 0;
+        private final int[] stamp;
+        private final long[] forwardWeight;
+        private final long[] backwardWeight;
+        private final int[] forwardArc;             // arc that reached the city going up from the start
+        private final int[] backwardArc;            // arc that reached the city going up from the destination
+        private final CityPriorityQueue forwardQueue;
+        private final CityPriorityQueue backwardQueue;
+
+        private QueryState(int numberOfCities) {
+            stamp = new int[numberOfCities];
+            forwardWeight = new long[numberOfCities];
+            backwardWeight = new long[numberOfCities];
+            forwardArc = new int[numberOfCities];
+            backwardArc = new int[numberOfCities];
+            forwardQueue = new CityPriorityQueue(numberOfCities);
+            backwardQueue = new CityPriorityQueue(numberOfCities);
+        }
+
+        private void begin() {
+            generation++;
+            if (generation == 0) {
+                Arrays.fill(stamp, 0);
+                generation = 1;
+            }
+            forwardQueue.clear();
+            backwardQueue.clear();
+        }
+
+        private long weight(boolean forward, int city) {
+            if (stamp[city] != generation) {
+                return Weight.INFINITE;
+            }
+            return forward ? forwardWeight[city] : backwardWeight[city];
+        }
+
+        private void reach(boolean forward, int city, long weight, int arc) {
+            if (stamp[city] != generation) {
+                stamp[city] = generation;
+                forwardWeight[city] = Weight.INFINITE;
+                backwardWeight[city] = Weight.INFINITE;
+                forwardArc[city] = -1;
+                backwardArc[city] = -1;
+            }
+            if (forward) {
+                forwardWeight[city] = weight;
+                forwardArc[city] = arc;
+                forwardQueue.insertOrDecrease(city, weight);
+            }
+            else {
+                backwardWeight[city] = weight;
+                backwardArc[city] = arc;
+                backwardQueue.insertOrDecrease(city, weight);
+            }
+        }
+    }
+
+    /**
+     Int stack is a growable stack of ints used while unpacking shortcuts
+     */
+    private static class IntStack {
+        private int[] values = new int[16];
+        private int size = 0;
+
+        private void push(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int pop() {
+            return values[--size];
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     Builder contracts the cities of a graph and collects the arcs of the hierarchy
+     * the priority of a city is the number of shortcuts its contraction adds minus the arcs it removes
+     * plus the number of its neighbours already contracted, priorities are updated lazily
+     */
+    private static class Builder {
+
+        private final int numberOfCities;
+        private final int[] rank;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbours;
+
+        // arcs, grown as shortcuts are added
+        private int arcCount = 0;
+        private int[] arcFrom = new int[16];
+        private int[] arcTo = new int[16];
+        private long[] arcWeight = new long[16];
+        private int[] arcFirst = new int[16];
+        private int[] arcSecond = new int[16];
+
+        // arcs leaving and entering every city, including arcs to contracted cities
+        private final int[][] outArcs;
+        private final int[] outCount;
+        private final int[][] inArcs;
+        private final int[] inCount;
+
+        // witness search state
+        private int witnessGeneration = 0;
+        private final int[] witnessStamp;
+        private final long[] witnessWeight;
+        private final CityPriorityQueue witnessQueue;
+
+        private Builder(CompiledGraph graph, TravelPreference preference) {
+            numberOfCities = graph.numberOfCities();
+            rank = new int[numberOfCities];
+            contracted = new boolean[numberOfCities];
+            contractedNeighbours = new int[numberOfCities];
+            outArcs = new int[numberOfCities][];
+            outCount = new int[numberOfCities];
+            inArcs = new int[numberOfCities][];
+            inCount = new int[numberOfCities];
+            witnessStamp = new int[numberOfCities];
+            witnessWeight = new long[numberOfCities];
+            witnessQueue = new CityPriorityQueue(numberOfCities);
+
+            // keep only the lightest edge between 2 cities, the first one on equal weights
+            HashMap<Long, Integer> arcOfPair = new HashMap<>();
+            for (int edge = 0; edge < graph.numberOfEdges(); edge++) {
+                int from = graph.getSource(edge);
+                int to = graph.getTarget(edge);
+                if (from == to) {
+                    continue;
+                }
+                long weight = preference.edgeWeight(graph.getCost(edge), graph.getTimeMinutes(edge));
+                Long pair = ((long) from << 32) | to;
+                Integer arc = arcOfPair.get(pair);
+                if (arc == null) {
+                    arcOfPair.put(pair, addArc(from, to, weight, edge, -1));
+                }
+                else if (weight < arcWeight[arc]) {
+                    arcWeight[arc] = weight;
+                    arcFirst[arc] = edge;
+                }
+            }
+        }
+
+        /**
+         * Function that contracts every city in the order of their priority
+         */
+        private void contractAll() {
+            CityPriorityQueue order = new CityPriorityQueue(numberOfCities);
+            for (int city = 0; city < numberOfCities; city++) {
+                order.insertOrDecrease(city, priority(city));
+            }
+
+            int next = 0;
+            while (!order.isEmpty()) {
+                int city = order.removeMinimum();
+
+                // lazy update -- put the city back if it is no longer the least important
+                int priority = priority(city);
+                if (!order.isEmpty() && priority > order.minimumWeight()) {
+                    order.insertOrDecrease(city, priority);
+                    continue;
+                }
+
+                remove(city, next++);
+            }
+        }
+
+        /**
+         * Function that contracts every city in a given order
+         * @param order cities from the least to the most important
+         */
+        private void contractInOrder(int[] order) {
+            for (int next = 0; next < order.length; next++) {
+                remove(order[next], next);
+            }
+        }
+
+        /**
+         * Function that contracts a city and gives it its rank
+         * @param city
+         * @param position rank of the city in the contraction order
+         */
+        private void remove(int city, int position) {
+            contract(city, true);
+            contracted[city] = true;
+            rank[city] = position;
+            for (int i = 0; i < outCount[city]; i++) {
+                contractedNeighbours[arcTo[outArcs[city][i]]]++;
+            }
+            for (int i = 0; i < inCount[city]; i++) {
+                contractedNeighbours[arcFrom[inArcs[city][i]]]++;
+            }
+        }
+
+        /**
+         * Function that returns the priority of a city from a simulated contraction
+         * @param city
+         * @return edge difference plus contracted neighbours
+         */
+        private int priority(int city) {
+            int removed = 0;
+            for (int i = 0; i < outCount[city]; i++) {
+                removed += contracted[arcTo[outArcs[city][i]]] ? 0 : 1;
+            }
+            for (int i = 0; i < inCount[city]; i++) {
+                removed += contracted[arcFrom[inArcs[city][i]]] ? 0 : 1;
+            }
+            return contract(city, false) - removed + contractedNeighbours[city];
+        }
+
+        /**
+         * Function that finds the shortcuts needed to remove a city
+         * @param city
+         * @param add True to add the shortcuts, False to only count them
+         * @return number of shortcuts needed
+         */
+        private int contract(int city, boolean add) {
+            int shortcuts = 0;
+
+            for (int i = 0; i < inCount[city]; i++) {
+                int inArc = inArcs[city][i];
+                int from = arcFrom[inArc];
+                if (contracted[from]) {
+                    continue;
+                }
+
+                // longest path through the city that a witness has to beat
+                long limit = 0;
+                for (int j = 0; j < outCount[city]; j++) {
+                    int outArc = outArcs[city][j];
+                    if (!contracted[arcTo[outArc]] && arcTo[outArc] != from) {
+                        limit = Math.max(limit, Weight.add(arcWeight[inArc], arcWeight[outArc]));
+                    }
+                }
+                witnessSearch(from, city, limit);
+
+                for (int j = 0; j < outCount[city]; j++) {
+                    int outArc = outArcs[city][j];
+                    int to = arcTo[outArc];
+                    if (contracted[to] || to == from) {
+                        continue;
+                    }
+                    long via = Weight.add(arcWeight[inArc], arcWeight[outArc]);
+                    if (witnessWeight(to) > via) {
+                        shortcuts++;
+                        if (add) {
+                            addShortcut(from, to, via, inArc, outArc);
+                        }
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Function that searches the best weights from a city without passing through the contracted city
+         * @param source
+         * @param avoid city being contracted
+         * @param limit weight after which the search stops
+         */
+        private void witnessSearch(int source, int avoid, long limit) {
+            witnessGeneration++;
+            witnessQueue.clear();
+            witnessStamp[source] = witnessGeneration;
+            witnessWeight[source] = 0;
+            witnessQueue.insertOrDecrease(source, 0);
+
+            int settled = 0;
+            while (!witnessQueue.isEmpty() && settled < WITNESS_SETTLE_LIMIT) {
+                if (witnessQueue.minimumWeight() > limit) {
+                    break;
+                }
+                int city = witnessQueue.removeMinimum();
+                settled++;
+                for (int i = 0; i < outCount[city]; i++) {
+                    int arc = outArcs[city][i];
+                    int to = arcTo[arc];
+                    if (contracted[to] || to == avoid) {
+                        continue;
+                    }
+                    long weight = Weight.add(witnessWeight[city], arcWeight[arc]);
+                    if (weight < witnessWeight(to)) {
+                        witnessStamp[to] = witnessGeneration;
+                        witnessWeight[to] = weight;
+                        witnessQueue.insertOrDecrease(to, weight);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Function that returns the weight found by the last witness search
+         * @param city
+         * @return weight, INFINITE when the city was not reached
+         */
+        private long witnessWeight(int city) {
+            return witnessStamp[city] == witnessGeneration ? witnessWeight[city] : Weight.INFINITE;
+        }
+
+        /**
+         * Function that adds a shortcut or lowers the weight of an existing arc between the 2 cities
+         * @param from
+         * @param to
+         * @param weight
+         * @param first arc into the contracted city
+         * @param second arc out of the contracted city
+         */
+        private void addShortcut(int from, int to, long weight, int first, int second) {
+            for (int i = 0; i < outCount[from]; i++) {
+                int arc = outArcs[from][i];
+                if (arcTo[arc] == to) {
+                    if (weight < arcWeight[arc]) {
+                        arcWeight[arc] = weight;
+                        arcFirst[arc] = first;
+                        arcSecond[arc] = second;
+                    }
+                    return;
+                }
+            }
+            addArc(from, to, weight, first, second);
+        }
+
+        /**
+         * Function that adds an arc and links it to both of its cities
+         * @return index of the arc
+         */
+        private int addArc(int from, int to, long weight, int first, int second) {
+            if (arcCount == arcFrom.length) {
+                int capacity = arcCount * 2;
+                arcFrom = Arrays.copyOf(arcFrom, capacity);
+                arcTo = Arrays.copyOf(arcTo, capacity);
+                arcWeight = Arrays.copyOf(arcWeight, capacity);
+                arcFirst = Arrays.copyOf(arcFirst, capacity);
+                arcSecond = Arrays.copyOf(arcSecond, capacity);
+            }
+            int arc = arcCount++;
+            arcFrom[arc] = from;
+            arcTo[arc] = to;
+            arcWeight[arc] = weight;
+            arcFirst[arc] = first;
+            arcSecond[arc] = second;
+
+            outArcs[from] = append(outArcs[from], outCount[from]++, arc);
+            inArcs[to] = append(inArcs[to], inCount[to]++, arc);
+            return arc;
+        }
+
+        /**
+         * Function that appends a value to a growable list
+         * @param list current list, null when empty
+         * @param size number of values in the list
+         * @param value
+         * @return list holding the value
+         */
+        private static int[] append(int[] list, int size, int value) {
+            if (list == null) {
+                list = new int[4];
+            }
+            else if (size == list.length) {
+                list = Arrays.copyOf(list, size * 2);
+            }
+            list[size] = value;
+            return list;
+        }
+    }
+}
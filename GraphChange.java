@@ -0,0 +1,249 @@
+//package com.company;
+
+/**
+ Graph change is one change to the cities and paths of a travel assistant, a node of its change log
+ * a city added, a path added, a path removed, the time and cost of a path changed or a departure scheduled
+ * the changes are linked from the oldest to the newest and numbered with the version they create
+ * a change never changes once it is linked, only the link to the next change is set later by the writer
+ * a reader that saw a committed change can follow the links up to it without a lock, see GraphVersion
+ */
+public class GraphChange {
+
+    // Kinds of changes
+    static final int START = 0;                 // first node of the log, changes nothing
+    static final int ADD_CITY = 1;
+    static final int ADD_EDGE = 2;
+    static final int UPDATE_EDGE = 3;
+    static final int REMOVE_EDGE = 4;
+    static final int ADD_DEPARTURE = 5;         // changes no array of the snapshot, see GraphVersion
+
+    // Private variables
+    private final int kind;                     // kind of change
+    private final String cityName;              // added city
+    private final boolean testRequired;         // True if testing is required to enter the added city
+    private final int timeToTest;               // time to test of the added city
+    private final int nightlyHotelCost;         // nightly hotel cost of the added city
+    private final int startCity;                // start city of the path
+    private final int destinationCity;          // destination city of the path
+    private final byte mode;                    // FLIGHT or TRAIN
+    private final int time;                     // time of travel of an added or updated path, minute of a departure
+    private final int cost;                     // cost of travel of an added or updated path
+
+    // Position in the log, set by the writer before the change is committed
+    private long version = 0;                   // version of the graph once this change is applied
+    private GraphChange next = null;            // next change, null for the newest
+
+    // Constructor that Initializes all the fields of a change
+    private GraphChange(int kind, String cityName, boolean testRequired, int timeToTest, int nightlyHotelCost,
+                        int startCity, int destinationCity, byte mode, int time, int cost) {
+        this.kind = kind;
+        this.cityName = cityName;
+        this.testRequired = testRequired;
+        this.timeToTest = timeToTest;
+        this.nightlyHotelCost = nightlyHotelCost;
+        this.startCity = startCity;
+        this.destinationCity = destinationCity;
+        this.mode = mode;
+        this.time = time;
+        this.cost = cost;
+    }
+
+    /**
+     * Function that creates the first node of a change log
+     * @param version version of the graph the log starts from
+     * @return first node
+     */
+    static GraphChange start(long version) {
+        GraphChange change = new GraphChange(START, null, false, 0, 0, -1, -1, (byte) 0, 0, 0);
+        change.version = version;
+        return change;
+    }
+
+    /**
+     * Function that creates the change of an added city
+     * @param cityName
+     * @param testRequired
+     * @param timeToTest
+     * @param nightlyHotelCost
+     * @return change
+     */
+    static GraphChange addCity(String cityName, boolean testRequired, int timeToTest, int nightlyHotelCost) {
+        return new GraphChange(ADD_CITY, cityName, testRequired, timeToTest, nightlyHotelCost, -1, -1, (byte) 0, 0, 0);
+    }
+
+    /**
+     * Function that creates the change of an added path
+     * @param startCity
+     * @param destinationCity
+     * @param mode FLIGHT or TRAIN
+     * @param time
+     * @param cost
+     * @return change
+     */
+    static GraphChange addEdge(int startCity, int destinationCity, byte mode, int time, int cost) {
+        return new GraphChange(ADD_EDGE, null, false, 0, 0, startCity, destinationCity, mode, time, cost);
+    }
+
+    /**
+     * Function that creates the change of the time and cost of a path
+     * @param startCity
+     * @param destinationCity
+     * @param mode FLIGHT or TRAIN
+     * @param time
+     * @param cost
+     * @return change
+     */
+    static GraphChange updateEdge(int startCity, int destinationCity, byte mode, int time, int cost) {
+        return new GraphChange(UPDATE_EDGE, null, false, 0, 0, startCity, destinationCity, mode, time, cost);
+    }
+
+    /**
+     * Function that creates the change of a removed path
+     * @param startCity
+     * @param destinationCity
+     * @param mode FLIGHT or TRAIN
+     * @return change
+     */
+    static GraphChange removeEdge(int startCity, int destinationCity, byte mode) {
+        return new GraphChange(REMOVE_EDGE, null, false, 0, 0, startCity, destinationCity, mode, 0, 0);
+    }
+
+    /**
+     * Function that creates the change of a scheduled departure of a path
+     * @param startCity
+     * @param destinationCity
+     * @param mode FLIGHT or TRAIN
+     * @param departureMinute
+     * @return change
+     */
+    static GraphChange addDeparture(int startCity, int destinationCity, byte mode, int departureMinute) {
+        return new GraphChange(ADD_DEPARTURE, null, false, 0, 0, startCity, destinationCity, mode, departureMinute, 0);
+    }
+
+    /**
+     * Function that links a change after this one, only the writer of the log calls it
+     * @param change change not yet in any log
+     * @return the linked change, the newest of the log
+     */
+    GraphChange append(GraphChange change) {
+        change.version = this.version + 1;
+        this.next = change;
+        return change;
+    }
+
+    /**
+     * Function that links a change that changes nothing after this one, skipping versions
+     * used when the changes after this one are rolled back, their versions are never used again
+     * @param version version of the linked change, newer than every dropped change
+     * @return the linked change, the newest of the log
+     */
+    GraphChange skipTo(long version) {
+        GraphChange change = start(version);
+        this.next = change;
+        return change;
+    }
+
+    /**
+     * Getter function that gets the kind of change
+     * @return START, ADD_CITY, ADD_EDGE, UPDATE_EDGE, REMOVE_EDGE or ADD_DEPARTURE
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * Getter function that gets the version of the graph once this change is applied
+     * @return version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Getter function that gets the next change of the log
+     * @return next change, null for the newest, may be a change that is not committed yet
+     */
+    public GraphChange getNext() {
+        return next;
+    }
+
+    /**
+     * Getter function that gets the name of the added city
+     * @return city name
+     */
+    public String getCityName() {
+        return cityName;
+    }
+
+    /**
+     * Getter function that gets if testing is required to enter the added city
+     * @return test required
+     */
+    public boolean isTestRequired() {
+        return testRequired;
+    }
+
+    /**
+     * Getter function that gets the time to test of the added city
+     * @return time to test
+     */
+    public int getTimeToTest() {
+        return timeToTest;
+    }
+
+    /**
+     * Getter function that gets the nightly hotel cost of the added city
+     * @return nightly hotel cost
+     */
+    public int getNightlyHotelCost() {
+        return nightlyHotelCost;
+    }
+
+    /**
+     * Getter function that gets the start city of the path
+     * @return city index
+     */
+    public int getStartCity() {
+        return startCity;
+    }
+
+    /**
+     * Getter function that gets the destination city of the path
+     * @return city index
+     */
+    public int getDestinationCity() {
+        return destinationCity;
+    }
+
+    /**
+     * Getter function that gets the mode of travel of the path
+     * @return FLIGHT or TRAIN
+     */
+    public byte getMode() {
+        return mode;
+    }
+
+    /**
+     * Getter function that gets the time of travel of the path
+     * @return time in minutes
+     */
+    public int getTimeMinutes() {
+        return time;
+    }
+
+    /**
+     * Getter function that gets the minute of the scheduled departure
+     * @return departure minute
+     */
+    public int getDepartureMinute() {
+        return time;
+    }
+
+    /**
+     * Getter function that gets the cost of travel of the path
+     * @return cost
+     */
+    public int getCost() {
+        return cost;
+    }
+}
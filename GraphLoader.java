@@ -0,0 +1,249 @@
+//package com.company;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ Graph loader reads cities and connections from CSV files into a travel assistant in a single streaming pass
+ * a city file has one city per line: cityName,testRequired,timeToTest,nightlyHotelCost
+ * a connection file has one path per line: startCity,destinationCity,mode,time,cost with mode Flight or Train
+ * a departure file has one scheduled departure per line: startCity,destinationCity,mode,departureMinute
+ * empty lines and lines starting with # are skipped
+ * lines are read through a buffered NIO reader, so a file is never held in memory
+ * duplicate cities and paths are found by the hashed indices of the travel assistant and skipped
+ * the assistant is locked for the whole file and its changes are committed together when it ends,
+ * so queries keep running on the previous version and never see a half loaded file
+ * a file that fails to load is rolled back, none of its lines are kept
+ */
+public class GraphLoader {
+
+    // Fields of the lines
+    private static final int CITY_FIELDS = 4;
+    private static final int CONNECTION_FIELDS = 5;
+    private static final int DEPARTURE_FIELDS = 4;
+
+    /**
+     * Function that loads the cities of a city file
+     * @param assistant
+     * @param cityFile
+     * @return number of cities added, cities already known are not counted
+     * @throws IOException
+     * @throws IllegalArgumentException
+     */
+    public static int loadCities(TravelAssistant assistant, Path cityFile) throws IOException, IllegalArgumentException {
+
+        int added = 0;
+        int lineNumber = 0;
+        String line;
+
+        synchronized (assistant) {
+            assistant.beginUpdate();
+            boolean loaded = false;
+            try (BufferedReader reader = Files.newBufferedReader(cityFile, StandardCharsets.UTF_8)) {
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (isSkipped(line)) {
+                        continue;
+                    }
+                    String[] fields = fields(line, CITY_FIELDS, lineNumber);
+                    if (assistant.addCity(fields[0], parseBoolean(fields[1], lineNumber),
+                            parseInt(fields[2], lineNumber), parseInt(fields[3], lineNumber))) {
+                        added++;
+                    }
+                }
+                loaded = true;
+            }
+            finally {
+                if (loaded) {
+                    assistant.endUpdate();
+                }
+                else {
+                    assistant.abortUpdate();
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Function that loads the paths of a connection file, the cities must already be loaded
+     * @param assistant
+     * @param connectionFile
+     * @return number of paths added, paths already known are not counted
+     * @throws IOException
+     * @throws IllegalArgumentException
+     */
+    public static int loadConnections(TravelAssistant assistant, Path connectionFile)
+            throws IOException, IllegalArgumentException {
+
+        int added = 0;
+        int lineNumber = 0;
+        String line;
+
+        synchronized (assistant) {
+            assistant.beginUpdate();
+            boolean loaded = false;
+            try (BufferedReader reader = Files.newBufferedReader(connectionFile, StandardCharsets.UTF_8)) {
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (isSkipped(line)) {
+                        continue;
+                    }
+                    String[] fields = fields(line, CONNECTION_FIELDS, lineNumber);
+                    int time = parseInt(fields[3], lineNumber);
+                    int cost = parseInt(fields[4], lineNumber);
+                    boolean outcome;
+                    if (fields[2].equalsIgnoreCase("Flight")) {
+                        outcome = assistant.addFlight(fields[0], fields[1], time, cost);
+                    }
+                    else if (fields[2].equalsIgnoreCase("Train")) {
+                        outcome = assistant.addTrain(fields[0], fields[1], time, cost);
+                    }
+                    else {
+                        throw new IllegalArgumentException("bad data input for mode on line " + lineNumber +
+                                ", cannot be " + fields[2]);
+                    }
+                    if (outcome) {
+                        added++;
+                    }
+                }
+                loaded = true;
+            }
+            finally {
+                if (loaded) {
+                    assistant.endUpdate();
+                }
+                else {
+                    assistant.abortUpdate();
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Function that loads the scheduled departures of a departure file, the paths must already be loaded
+     * @param assistant
+     * @param departureFile
+     * @return number of departures added, departures already known are not counted
+     * @throws IOException
+     * @throws IllegalArgumentException
+     */
+    public static int loadDepartures(TravelAssistant assistant, Path departureFile)
+            throws IOException, IllegalArgumentException {
+
+        int added = 0;
+        int lineNumber = 0;
+        String line;
+
+        synchronized (assistant) {
+            assistant.beginUpdate();
+            boolean loaded = false;
+            try (BufferedReader reader = Files.newBufferedReader(departureFile, StandardCharsets.UTF_8)) {
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (isSkipped(line)) {
+                        continue;
+                    }
+                    String[] fields = fields(line, DEPARTURE_FIELDS, lineNumber);
+                    int departureMinute = parseInt(fields[3], lineNumber);
+                    boolean outcome;
+                    if (fields[2].equalsIgnoreCase("Flight")) {
+                        outcome = assistant.addFlightDeparture(fields[0], fields[1], departureMinute);
+                    }
+                    else if (fields[2].equalsIgnoreCase("Train")) {
+                        outcome = assistant.addTrainDeparture(fields[0], fields[1], departureMinute);
+                    }
+                    else {
+                        throw new IllegalArgumentException("bad data input for mode on line " + lineNumber +
+                                ", cannot be " + fields[2]);
+                    }
+                    if (outcome) {
+                        added++;
+                    }
+                }
+                loaded = true;
+            }
+            finally {
+                if (loaded) {
+                    assistant.endUpdate();
+                }
+                else {
+                    assistant.abortUpdate();
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Function that returns true if a line holds no data
+     * @param line
+     * @return True for an empty line or a comment
+     */
+    private static boolean isSkipped(String line) {
+        String trimmed = line.trim();
+        return trimmed.isEmpty() || trimmed.charAt(0) == '#';
+    }
+
+    /**
+     * Function that splits a line into its trimmed fields
+     * @param line
+     * @param numberOfFields
+     * @param lineNumber
+     * @return fields of the line
+     * @throws IllegalArgumentException
+     */
+    private static String[] fields(String line, int numberOfFields, int lineNumber) throws IllegalArgumentException {
+        String[] fields = new String[numberOfFields];
+        int start = 0;
+        for (int i = 0; i < numberOfFields; i++) {
+            int end = i == numberOfFields - 1 ? line.length() : line.indexOf(',', start);
+            if (end == -1) {
+                throw new IllegalArgumentException("bad data input for line " + lineNumber + ", cannot be " + line);
+            }
+            fields[i] = line.substring(start, end).trim();
+            start = end + 1;
+        }
+        if (fields[numberOfFields - 1].indexOf(',') != -1) {
+            throw new IllegalArgumentException("bad data input for line " + lineNumber + ", cannot be " + line);
+        }
+        return fields;
+    }
+
+    /**
+     * Function that parses a number field
+     * @param field
+     * @param lineNumber
+     * @return value of the field
+     * @throws IllegalArgumentException
+     */
+    private static int parseInt(String field, int lineNumber) throws IllegalArgumentException {
+        try {
+            return Integer.parseInt(field);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad data input for number on line " + lineNumber + ", cannot be " + field);
+        }
+    }
+
+    /**
+     * Function that parses a true or false field
+     * @param field
+     * @param lineNumber
+     * @return value of the field
+     * @throws IllegalArgumentException
+     */
+    private static boolean parseBoolean(String field, int lineNumber) throws IllegalArgumentException {
+        if (field.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (field.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("bad data input for test required on line " + lineNumber + ", cannot be " + field);
+    }
+}
@@ -0,0 +1,87 @@
+//package com.company;
+
+import java.util.Arrays;
+
+/**
+ Graph partitioner splits the cities of a compiled graph into regions of about the same size
+ * a region grows from its first unassigned city along the paths in both directions [breadth first]
+ * so the cities of a region are close to each other and few paths cross between regions
+ * a region that runs out of reachable cities continues from the next unassigned city
+ * the regions only depend on the graph, splitting the same graph again gives the same regions
+ */
+public class GraphPartitioner {
+
+    // Constructor that prevents instances, the partitioner only has static functions
+    private GraphPartitioner() {
+    }
+
+    /**
+     * Function that assigns every city of a graph to a region
+     * @param graph
+     * @param numberOfRegions number of regions >= 1
+     * @return region of every city, regions are numbered from 0 and hold at most ceil(cities / regions) cities
+     * @throws IllegalArgumentException
+     */
+    public static int[] partition(CompiledGraph graph, int numberOfRegions) throws IllegalArgumentException {
+        if (numberOfRegions <= 0) {
+            throw new IllegalArgumentException("bad data input for number of regions, cannot be " + numberOfRegions);
+        }
+
+        int numberOfCities = graph.numberOfCities();
+        int regionSize = (numberOfCities + numberOfRegions - 1) / numberOfRegions;
+        int[] region = new int[numberOfCities];
+        Arrays.fill(region, -1);
+
+        // cities waiting to be visited, every city is queued at most once
+        int[] queue = new int[numberOfCities];
+        int head = 0;
+        int tail = 0;
+        int seed = 0;
+
+        // main logic -- grow each region from the queue until it is full, seeding it again when the queue runs dry
+        for (int current = 0; current < numberOfRegions; current++) {
+            int size = 0;
+            while (size < regionSize) {
+                if (head == tail) {
+                    while (seed < numberOfCities && region[seed] != -1) {
+                        seed++;
+                    }
+                    if (seed == numberOfCities) {
+                        break;
+                    }
+                    region[seed] = current;
+                    queue[tail++] = seed;
+                }
+                int city = queue[head++];
+                size++;
+
+                // neighbours along the paths leaving and entering the city
+                for (int edge = graph.firstEdge(city); edge < graph.endEdge(city) && size + tail - head < regionSize; edge++) {
+                    tail = claim(region, queue, tail, graph.getTarget(edge), current);
+                }
+                for (int position = graph.firstReverseEdge(city);
+                     position < graph.endReverseEdge(city) && size + tail - head < regionSize; position++) {
+                    tail = claim(region, queue, tail, graph.getSource(graph.getReverseEdge(position)), current);
+                }
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Function that queues a city for a region if it has no region yet
+     * @param region region of every city, -1 when not assigned
+     * @param queue
+     * @param tail end of the queue
+     * @param city
+     * @param current region being grown
+     * @return new end of the queue
+     */
+    private static int claim(int[] region, int[] queue, int tail, int city, int current) {
+        if (region[city] == -1) {
+            region[city] = current;
+            queue[tail++] = city;
+        }
+        return tail;
+    }
+}
@@ -0,0 +1,274 @@
+//package com.company;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ Graph version is a compiled snapshot together with the last change of the log it holds
+ * a query pins one version and reads only it, so it sees every change up to that version and none after
+ * a newer version is built from an older one by applying the changes after it, see CompiledGraph.withChanges
+ * the scheduled departures of the paths are kept next to the snapshot, sorted and indexed by edge
+ * versions are immutable, a writer never waits for the queries still reading an older one
+ */
+public class GraphVersion {
+
+    // Private variables
+    private final CompiledGraph graph;          // snapshot of this version
+    private final GraphChange lastChange;       // last change applied to the snapshot
+    private final int[][] departures;           // departures of each edge, null for an edge without, null when none
+
+    // Constructor that Initializes [graph, lastChange] without departures
+    GraphVersion(CompiledGraph graph, GraphChange lastChange) {
+        this(graph, lastChange, null);
+    }
+
+    // Constructor that Initializes [graph, lastChange, departures]
+    private GraphVersion(CompiledGraph graph, GraphChange lastChange, int[][] departures) {
+        this.graph = graph;
+        this.lastChange = lastChange;
+        this.departures = departures;
+    }
+
+    /**
+     * Function that builds the version holding every change up to a committed change
+     * @param committed committed change of the same log, newer than the last change of this version
+     * @return newer version, this version when it already holds the change
+     */
+    public GraphVersion advanceTo(GraphChange committed) {
+        if (committed.getVersion() <= getVersion()) {
+            return this;
+        }
+        GraphChange first = lastChange.getNext();
+        CompiledGraph newGraph = graph.withChanges(first, committed);
+        return new GraphVersion(newGraph, committed, departuresAfter(newGraph, first, committed));
+    }
+
+    /**
+     * Function that returns the departures of the edges of a newer snapshot after a run of changes
+     * departures follow their path to its edge in the newer snapshot, a removed path loses its departures
+     * @param newGraph snapshot with the run applied
+     * @param first first change of the run
+     * @param last last change of the run
+     * @return departures of the newer snapshot, the departures of this version when the run leaves them as they are
+     */
+    private int[][] departuresAfter(CompiledGraph newGraph, GraphChange first, GraphChange last) {
+
+        // departures of the paths the run removes or schedules, null for a removed path
+        HashMap<Long, int[]> touched = new HashMap<>();
+        boolean edgesMoved = false;
+        for (GraphChange change = first; ; change = change.getNext()) {
+            long key = key(change.getStartCity(), change.getDestinationCity(), change.getMode());
+            switch (change.getKind()) {
+                case GraphChange.ADD_EDGE:
+                    edgesMoved = true;
+                    break;
+                case GraphChange.REMOVE_EDGE:
+                    edgesMoved = true;
+                    touched.put(key, null);
+                    break;
+                case GraphChange.ADD_DEPARTURE:
+                    // a path added by the same run, from a city the run may add too, has no departures yet
+                    int[] scheduled = touched.containsKey(key) ? touched.get(key) :
+                            change.getStartCity() >= graph.numberOfCities() ? null :
+                            departuresOf(graph.findEdge(change.getStartCity(), change.getDestinationCity(), change.getMode()));
+                    touched.put(key, insert(scheduled, change.getDepartureMinute()));
+                    break;
+                default:
+                    break;
+            }
+            if (change == last) {
+                break;
+            }
+        }
+        if (touched.isEmpty() && (departures == null || !edgesMoved)) {
+            return departures;
+        }
+
+        // move the untouched departures to the edges of the newer snapshot, then write the touched ones
+        int[][] moved = new int[newGraph.numberOfEdges()][];
+        for (int edge = 0; departures != null && edge < departures.length; edge++) {
+            if (departures[edge] != null) {
+                int source = graph.getSource(edge);
+                int target = graph.getTarget(edge);
+                byte mode = graph.getMode(edge);
+                if (!touched.containsKey(key(source, target, mode))) {
+                    moved[edgesMoved ? newGraph.findEdge(source, target, mode) : edge] = departures[edge];
+                }
+            }
+        }
+        for (Map.Entry<Long, int[]> entry : touched.entrySet()) {
+            long key = entry.getKey();
+            int edge = newGraph.findEdge((int) (key >>> 32), ((int) key) >>> 1, (byte) (key & 1));
+            if (entry.getValue() != null && edge >= 0) {
+                moved[edge] = entry.getValue();
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Function that returns a sorted copy of departures with one more departure
+     * @param departures sorted departures, null for none
+     * @param departureMinute
+     * @return sorted departures
+     */
+    private static int[] insert(int[] departures, int departureMinute) {
+        if (departures == null) {
+            return new int[]{departureMinute};
+        }
+        int position = Arrays.binarySearch(departures, departureMinute);
+        if (position >= 0) {
+            return departures;
+        }
+        position = -position - 1;
+        int[] added = new int[departures.length + 1];
+        System.arraycopy(departures, 0, added, 0, position);
+        added[position] = departureMinute;
+        System.arraycopy(departures, position, added, position + 1, departures.length - position);
+        return added;
+    }
+
+    /**
+     * Function that returns the key of a path
+     * @param startCity
+     * @param destinationCity
+     * @param mode FLIGHT or TRAIN
+     * @return start city in the high half, destination city * 2 + mode in the low half
+     */
+    private static long key(int startCity, int destinationCity, byte mode) {
+        return ((long) startCity << 32) | ((long) destinationCity << 1) | mode;
+    }
+
+    /**
+     * Function that lists the paths added or changed since an older version of the same log
+     * a removed path is not listed, paths made more expensive are listed with their new time and cost
+     * @param older older version
+     * @param limit largest number of paths listed
+     * @return {start city, destination city, time, cost} of every path, null when a city was added or more paths changed
+     */
+    public List<int[]> changedEdgesSince(GraphVersion older, int limit) {
+        List<int[]> changedEdges = new ArrayList<>();
+        for (GraphChange change = older.lastChange; change != lastChange; ) {
+            change = change.getNext();
+            if (change.getKind() == GraphChange.ADD_CITY || changedEdges.size() > limit) {
+                return null;
+            }
+            if (change.getKind() == GraphChange.ADD_EDGE || change.getKind() == GraphChange.UPDATE_EDGE) {
+                changedEdges.add(new int[]{change.getStartCity(), change.getDestinationCity(),
+                        change.getTimeMinutes(), change.getCost()});
+            }
+        }
+        return changedEdges.size() > limit ? null : changedEdges;
+    }
+
+    /**
+     * Getter function that gets the snapshot of the version
+     * @return compiled graph
+     */
+    public CompiledGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Getter function that gets the version number
+     * @return number of changes applied since the log started
+     */
+    public long getVersion() {
+        return lastChange.getVersion();
+    }
+
+    /**
+     * Getter function that gets the scheduled departures of an edge of the snapshot
+     * @param edge
+     * @return sorted departure minutes, null when the edge has none
+     */
+    public int[] departuresOf(int edge) {
+        return departures != null && edge >= 0 ? departures[edge] : null;
+    }
+
+    /**
+     * Function that returns true if 2 versions have the same snapshot and the same departures
+     * data built only from the snapshot and its departures, like a timetable, is then valid for both
+     * @param other
+     * @return True if the snapshot and the departures are shared
+     */
+    public boolean sharesSchedule(GraphVersion other) {
+        return graph == other.graph && departures == other.departures;
+    }
+
+    /**
+     Derived is data built from one graph version, like landmark tables, a contraction hierarchy or a timetable
+     * it is built by the query that needs it without any lock, then published for the queries of later versions
+     * published data is only replaced by data of the same or a newer version, never by older data
+     */
+    static final class Derived<T> {
+        private final GraphVersion version;     // version the data was built from
+        private final T value;                  // derived data
+
+        // Constructor that Initializes [version, value]
+        Derived(GraphVersion version, T value) {
+            this.version = version;
+            this.value = value;
+        }
+
+        /**
+         * Function that publishes derived data unless data of a newer version is already published
+         * @param published reference the queries read the data from
+         * @param derived
+         */
+        static <T> void publish(AtomicReference<Derived<T>> published, Derived<T> derived) {
+            Derived<T> current = published.get();
+            while ((current == null || !current.isNewerThan(derived)) && !published.compareAndSet(current, derived)) {
+                current = published.get();
+            }
+        }
+
+        /**
+         * Function that publishes derived data under a key unless data of a newer version is already published
+         * @param published map the queries read the data from
+         * @param key
+         * @param derived
+         */
+        static <K, T> void publish(ConcurrentMap<K, Derived<T>> published, K key, Derived<T> derived) {
+            while (true) {
+                Derived<T> current = published.get(key);
+                if (current != null && current.isNewerThan(derived)) {
+                    return;
+                }
+                if (current == null ? published.putIfAbsent(key, derived) == null : published.replace(key, current, derived)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Function that returns true if this data was built from a newer version than other data
+         * @param other
+         * @return True if the other data may not replace this one
+         */
+        private boolean isNewerThan(Derived<T> other) {
+            return version.getVersion() > other.version.getVersion();
+        }
+
+        /**
+         * Getter function that gets the version the data was built from
+         * @return version
+         */
+        GraphVersion getVersion() {
+            return version;
+        }
+
+        /**
+         * Getter function that gets the derived data
+         * @return value
+         */
+        T getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+//package com.company;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ Histogram counts non negative values in log linear buckets without locks [HdrHistogram style]
+ * values below 64 have a bucket of their own, every larger power of 2 is split into 32 buckets
+ * so a percentile is within about 3% of the recorded value, with a fixed 1888 buckets for any long
+ * recording is a single atomic increment of the bucket, many threads can record at once
+ * reads are not a consistent snapshot while values are still being recorded
+ */
+public class Histogram {
+
+    // Buckets per power of 2 beyond the linear range
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUMBER_OF_BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    // Private variables
+    private final AtomicLongArray counts = new AtomicLongArray(NUMBER_OF_BUCKETS);
+    private final LongAdder count = new LongAdder();        // number of recorded values
+    private final LongAdder sum = new LongAdder();          // sum of the recorded values
+    private final AtomicLong max = new AtomicLong();        // largest recorded value
+
+    /**
+     * Function that records a value
+     * @param value value >= 0, negative values are recorded as 0
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // another thread raised the maximum, try again against the new one
+        }
+    }
+
+    /**
+     * Function that returns the number of recorded values
+     * @return count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Function that returns the largest recorded value
+     * @return max, 0 when nothing was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Function that returns the mean of the recorded values
+     * @return mean, 0 when nothing was recorded
+     */
+    public double getMean() {
+        long values = count.sum();
+        return values == 0 ? 0 : (double) sum.sum() / values;
+    }
+
+    /**
+     * Function that returns the value at a percentile of the recorded values
+     * @param percentile between 0 and 100
+     * @return highest value of the bucket holding the percentile, at most the max, 0 when nothing was recorded
+     * @throws IllegalArgumentException
+     */
+    public long getValueAtPercentile(double percentile) throws IllegalArgumentException {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("bad data input for percentile, cannot be " + percentile);
+        }
+        long values = count.sum();
+        if (values == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * values));
+        long seen = 0;
+        for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(highestValue(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Function that forgets every recorded value
+     * values recorded while resetting may be kept in part
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * Function that returns the bucket of a value
+     * @param value
+     * @return bucket index
+     */
+    private static int bucket(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Function that returns the highest value that falls in a bucket
+     * @param bucket
+     * @return highest value of the bucket
+     */
+    private static long highestValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Function that returns the histogram as a string
+     * @return count, mean, percentiles and max
+     */
+    @Override
+    public String toString() {
+        return "count=" + getCount() + " mean=" + Math.round(getMean()) + " p50=" + getValueAtPercentile(50) +
+                " p99=" + getValueAtPercentile(99) + " p99.9=" + getValueAtPercentile(99.9) + " max=" + getMax();
+    }
+}
@@ -0,0 +1,139 @@
+//package com.company;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ Histogram metrics sink keeps the distribution of every query metric in lock free histograms
+ * one histogram of nanoseconds per phase and one for the whole query
+ * one histogram each for settled states, relaxed transitions and heap operations of the queries that searched
+ * counters of the queries and of the cache hits
+ * the histograms can be read while queries are recording, for example to find the phase behind a p99 spike
+ */
+public class HistogramMetricsSink implements MetricsSink {
+
+    // Private variables
+    private final Histogram[] phaseNanos = new Histogram[QueryMetrics.PHASES];
+    private final Histogram totalNanos = new Histogram();
+    private final Histogram settled = new Histogram();
+    private final Histogram relaxed = new Histogram();
+    private final Histogram heapOperations = new Histogram();
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+
+    // Constructor that Initializes the histograms
+    public HistogramMetricsSink() {
+        for (int phase = 0; phase < QueryMetrics.PHASES; phase++) {
+            phaseNanos[phase] = new Histogram();
+        }
+    }
+
+    /**
+     * Function that records the metrics of a finished query
+     * @param metrics
+     */
+    @Override
+    public void record(QueryMetrics metrics) {
+        queries.increment();
+        for (int phase = 0; phase < QueryMetrics.PHASES; phase++) {
+            phaseNanos[phase].record(metrics.getPhaseNanos(phase));
+        }
+        totalNanos.record(metrics.getTotalNanos());
+        if (metrics.isCacheHit()) {
+            cacheHits.increment();
+            return;
+        }
+        settled.record(metrics.getSettled());
+        relaxed.record(metrics.getRelaxed());
+        heapOperations.record(metrics.getHeapOperations());
+    }
+
+    /**
+     * Getter function that gets the histogram of a phase
+     * @param phase VALIDATION, PREPARATION, SEARCH or RECONSTRUCTION of QueryMetrics
+     * @return nanoseconds spent in the phase
+     */
+    public Histogram getPhaseNanos(int phase) {
+        return phaseNanos[phase];
+    }
+
+    /**
+     * Getter function that gets the histogram of whole queries
+     * @return nanoseconds spent by the queries
+     */
+    public Histogram getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Getter function that gets the histogram of settled states
+     * @return settled states per query that searched
+     */
+    public Histogram getSettled() {
+        return settled;
+    }
+
+    /**
+     * Getter function that gets the histogram of relaxed transitions
+     * @return relaxed transitions per query that searched
+     */
+    public Histogram getRelaxed() {
+        return relaxed;
+    }
+
+    /**
+     * Getter function that gets the histogram of heap operations
+     * @return heap operations per query that searched
+     */
+    public Histogram getHeapOperations() {
+        return heapOperations;
+    }
+
+    /**
+     * Getter function that gets the number of queries recorded
+     * @return queries
+     */
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    /**
+     * Getter function that gets the number of queries answered from the route cache
+     * @return cache hits
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Function that forgets every recorded query
+     */
+    public void reset() {
+        for (Histogram histogram : phaseNanos) {
+            histogram.reset();
+        }
+        totalNanos.reset();
+        settled.reset();
+        relaxed.reset();
+        heapOperations.reset();
+        queries.reset();
+        cacheHits.reset();
+    }
+
+    /**
+     * Function that returns the metrics as a report with one line per histogram
+     * @return report
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append("queries=").append(getQueries()).append(" cacheHits=").append(getCacheHits()).append("\n");
+        report.append("total ns: ").append(totalNanos).append("\n");
+        for (int phase = 0; phase < QueryMetrics.PHASES; phase++) {
+            report.append(QueryMetrics.phaseName(phase)).append(" ns: ").append(phaseNanos[phase]).append("\n");
+        }
+        report.append("settled: ").append(settled).append("\n");
+        report.append("relaxed: ").append(relaxed).append("\n");
+        report.append("heap operations: ").append(heapOperations).append("\n");
+        return report.toString();
+    }
+}
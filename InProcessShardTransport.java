@@ -0,0 +1,116 @@
+//package com.company;
+
+/**
+ In process shard transport reaches shards held in the same process by calling them directly
+ * it is the transport of tests and of a graph that is split only to keep the parts of a route search apart
+ * the shards are shared, not copied, so they must not be changed while the transport is in use
+ */
+public class InProcessShardTransport implements ShardTransport {
+
+    // Private variables
+    private final Shard[] shards;               // shards by their index
+
+    // Constructor that Initializes the transport from the shards of a split graph
+    public InProcessShardTransport(Shard[] shards) {
+        if (shards == null || shards.length == 0) {
+            throw new IllegalArgumentException("Bad input data shards");
+        }
+        this.shards = shards.clone();
+    }
+
+    /**
+     * Function that returns the number of shards
+     * @return number of shards
+     */
+    @Override
+    public int numberOfShards() {
+        return shards.length;
+    }
+
+    /**
+     * Function that returns the border of a shard
+     * @param shard
+     * @return border
+     */
+    @Override
+    public ShardBorder border(int shard) {
+        return shards[shard].getBorder();
+    }
+
+    /**
+     * Function that finds a city in a shard by its name
+     * @param shard
+     * @param cityName
+     * @return index of the city in the shard, -1 if the city is in another shard
+     */
+    @Override
+    public int locate(int shard, String cityName) {
+        return shards[shard].locate(cityName);
+    }
+
+    /**
+     * Function that returns the name of a city of a shard
+     * @param shard
+     * @param city
+     * @return city name
+     */
+    @Override
+    public String cityName(int shard, int city) {
+        return shards[shard].getCityName(city);
+    }
+
+    /**
+     * Function that computes the overlay of a shard in the calling thread
+     * @param shard
+     * @param preference
+     * @param vaccinated
+     * @return overlay
+     */
+    @Override
+    public ShardOverlay overlay(int shard, TravelPreference preference, boolean vaccinated) {
+        return shards[shard].overlay(preference, vaccinated);
+    }
+
+    /**
+     * Function that searches a shard from the start city in the calling thread
+     * @param shard
+     * @param startCity
+     * @param preference
+     * @param vaccinated
+     * @return weight of each cross transition
+     */
+    @Override
+    public long[] searchFrom(int shard, int startCity, TravelPreference preference, boolean vaccinated) {
+        return shards[shard].searchFrom(startCity, preference, vaccinated);
+    }
+
+    /**
+     * Function that searches a shard to the destination city in the calling thread
+     * @param shard
+     * @param destinationCity
+     * @param preference
+     * @param vaccinated
+     * @return weight left to travel from each entry state
+     */
+    @Override
+    public long[] searchTo(int shard, int destinationCity, TravelPreference preference, boolean vaccinated) {
+        return shards[shard].searchTo(destinationCity, preference, vaccinated);
+    }
+
+    /**
+     * Function that finds the hops of a path of a shard in the calling thread
+     * @param shard
+     * @param startCity
+     * @param sourceState
+     * @param destinationCity
+     * @param destinationState
+     * @param preference
+     * @param vaccinated
+     * @return path, null when the destination cannot be reached
+     */
+    @Override
+    public ShardPath path(int shard, int startCity, int sourceState, int destinationCity, int destinationState,
+                          TravelPreference preference, boolean vaccinated) {
+        return shards[shard].path(startCity, sourceState, destinationCity, destinationState, preference, vaccinated);
+    }
+}
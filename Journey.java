@@ -0,0 +1,74 @@
+//package com.company;
+
+/**
+ Journey is a route between 2 cities travelled on scheduled departures, see Timetable
+ * it holds the route and the departure and arrival minute of every hop
+ * waiting in a city, including the days of testing, is the time between 2 hops
+ */
+public class Journey {
+
+    // Private variables
+    private final Route route;                  // path of the journey
+    private final int earliestDeparture;        // minute from which the traveller waited in the start city
+    private final int[] departures;             // departure minute of each hop
+    private final long[] arrivals;              // arrival minute of each hop
+
+    // Constructor that Initializes [route, earliestDeparture, departures, arrivals]
+    Journey(Route route, int earliestDeparture, int[] departures, long[] arrivals) {
+        this.route = route;
+        this.earliestDeparture = earliestDeparture;
+        this.departures = departures;
+        this.arrivals = arrivals;
+    }
+
+    /**
+     * Getter function that gets the route
+     * @return route
+     */
+    public Route getRoute() {
+        return route;
+    }
+
+    /**
+     * Getter function that gets the minute the traveller leaves the start city
+     * @return departure minute of the first hop, the asked minute for a journey without hops
+     */
+    public int getDepartureMinute() {
+        return departures.length > 0 ? departures[0] : earliestDeparture;
+    }
+
+    /**
+     * Getter function that gets the minute the traveller reaches the destination city
+     * @return arrival minute of the last hop, the asked minute for a journey without hops
+     */
+    public long getArrivalMinute() {
+        return arrivals.length > 0 ? arrivals[arrivals.length - 1] : earliestDeparture;
+    }
+
+    /**
+     * Getter function that gets the departure minute of a hop
+     * @param hop 0 for the first hop
+     * @return departure minute
+     */
+    public int getDepartureMinute(int hop) {
+        return departures[hop];
+    }
+
+    /**
+     * Getter function that gets the arrival minute of a hop
+     * @param hop 0 for the first hop
+     * @return arrival minute
+     */
+    public long getArrivalMinute(int hop) {
+        return arrivals[hop];
+    }
+
+    /**
+     * Function that returns the journey as a string
+     * @return route with its departure and arrival minute
+     */
+    @Override
+    public String toString() {
+        return route + " departs=" + getDepartureMinute() + " arrives=" + getArrivalMinute();
+    }
+}
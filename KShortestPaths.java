@@ -0,0 +1,292 @@
+//package com.company;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ K shortest paths finds the best loopless routes between 2 cities in order of weight [Yen]
+ * a route is a sequence of edges, its weight is the weight of its best test placement under the rules of planTrip
+ * so the bans, the order of the candidates and the duplicates all count routes, never [city, tested] states
+ * every accepted route is branched at each of its cities after the city it branched from [Lawler]
+ * a branch keeps the root of the route up to a city, bans the cities of the root and the next edges
+ * of the accepted routes with the same root, and searches the rest of the route from both states of that city
+ * one backward search from the destination gives the exact weight left from every state,
+ * those weights stay lower bounds once edges are banned, so every branch is an A* search that goes almost straight
+ * a branch can still come back to one of its own cities to take the test, such a route is accepted
+ * so that the routes after it are found, but it is never returned
+ */
+public class KShortestPaths {
+
+    // Private variables
+    private final CompiledGraph graph;
+    private final SearchContext context;        // context of the branch searches
+    private final SearchContext reverseSearch;  // finished backward search from the destination
+    private final int startCity;
+    private final int destinationCity;
+
+    // Routes accepted so far and candidate routes waiting to be accepted
+    private final List<Path> accepted = new ArrayList<>();
+    private final PriorityQueue<Path> candidates = new PriorityQueue<>();
+    private final HashSet<Path> known = new HashSet<>();
+    private int numberOfPaths = 0;
+
+    // Constructor that Initializes the search
+    private KShortestPaths(CompiledGraph graph, SearchContext context, SearchContext reverseSearch,
+                           int startCity, int destinationCity) {
+        this.graph = graph;
+        this.context = context;
+        this.reverseSearch = reverseSearch;
+        this.startCity = startCity;
+        this.destinationCity = destinationCity;
+    }
+
+    /**
+     * Function that finds the k best loopless routes between 2 cities
+     * @param graph
+     * @param context context the branch searches run in
+     * @param reverseSearch context the backward search from the destination runs in
+     * @param startCity
+     * @param destinationCity
+     * @param preference
+     * @param vaccinated
+     * @param k maximum number of routes
+     * @return routes from the best to the worst, empty when there is no path
+     */
+    public static List<Route> run(CompiledGraph graph, SearchContext context, SearchContext reverseSearch,
+                                  int startCity, int destinationCity, TravelPreference preference,
+                                  boolean vaccinated, int k) {
+
+        reverseSearch.begin(graph, startCity, preference, vaccinated);
+        TripSearch.runBackward(graph, reverseSearch, destinationCity);
+
+        KShortestPaths search = new KShortestPaths(graph, context, reverseSearch, startCity, destinationCity);
+        return search.routes(k);
+    }
+
+    /**
+     * Function that accepts the best candidate route until k loopless routes are found
+     * @param k
+     * @return routes from the best to the worst
+     */
+    private List<Route> routes(int k) {
+        List<Route> routes = new ArrayList<>();
+
+        // the best path is read from the backward search, it holds the next state of every state
+        int source = TripSearch.state(startCity, false);
+        if (reverseSearch.getShortestWeightFound(source) != Weight.INFINITE) {
+            offer(bestEdges(source), 0);
+        }
+
+        while (routes.size() < k && !candidates.isEmpty()) {
+            Path path = candidates.poll();
+            accepted.add(path);
+            if (path.loopless) {
+                routes.add(new Route(graph, startCity, path.edges));
+                if (routes.size() == k) {
+                    break;
+                }
+            }
+            // a root that visits a city twice only leads to routes that visit it twice
+            for (int position = path.deviation; position < path.edges.length && !path.repeats(position); position++) {
+                branch(path, position, false);
+                branch(path, position, true);
+            }
+        }
+        return routes;
+    }
+
+    /**
+     * Function that follows the backward search from a state to the destination
+     * @param source
+     * @return edges of the best path from the state
+     */
+    private int[] bestEdges(int source) {
+        int length = 0;
+        for (int state = source; reverseSearch.getPreviousState(state) != state; state = reverseSearch.getPreviousState(state)) {
+            length++;
+        }
+        int[] edges = new int[length];
+        int state = source;
+        for (int i = 0; i < length; i++) {
+            edges[i] = reverseSearch.getPreviousEdge(state);
+            state = reverseSearch.getPreviousState(state);
+        }
+        return edges;
+    }
+
+    /**
+     * Function that searches the best route that keeps the root of a route up to a city and then leaves it
+     * @param path accepted route
+     * @param position index of the city the branch leaves the route at
+     * @param tested True to leave the city tested, False to leave it untested
+     */
+    private void branch(Path path, int position, boolean tested) {
+        if ((tested ? path.tested[position] : path.untested[position]) == Weight.INFINITE) {
+            return;
+        }
+        context.begin(graph, startCity, reverseSearch.getPreference(), reverseSearch.isVaccinated());
+
+        // the cities of the root cannot be visited again
+        for (int i = 0; i <= position; i++) {
+            context.setVisited(TripSearch.state(path.cities[i], false), true);
+            context.setVisited(TripSearch.state(path.cities[i], true), true);
+        }
+        int source = TripSearch.state(path.cities[position], tested);
+        context.setVisited(source, false);
+
+        // the next edges of the accepted routes with the same root are banned whatever state they lead to
+        int[] banned = new int[accepted.size() * 2];
+        int numberOfBanned = 0;
+        for (Path other : accepted) {
+            if (other.edges.length > position && other.sharesRoot(path, position)) {
+                banned[numberOfBanned++] = TripSearch.transition(other.edges[position], 0);
+                banned[numberOfBanned++] = TripSearch.transition(other.edges[position], 1);
+            }
+        }
+
+        context.setGoal(reverseSearch);
+        int destinationState = TripSearch.runFrom(graph, context, source, destinationCity,
+                Arrays.copyOf(banned, numberOfBanned));
+        if (destinationState == -1) {
+            return;
+        }
+
+        // join the root and the branch, the joined route is weighed again with its own best test placement
+        int[] branchEdges = TripSearch.pathEdges(context, destinationState);
+        int[] edges = Arrays.copyOf(path.edges, position + branchEdges.length);
+        System.arraycopy(branchEdges, 0, edges, position, branchEdges.length);
+        offer(edges, position);
+    }
+
+    /**
+     * Function that adds a route to the candidates unless it was found before
+     * @param edges edges of the route
+     * @param deviation index of the city the route left its parent at
+     */
+    private void offer(int[] edges, int deviation) {
+        Path path = new Path(edges, deviation, numberOfPaths++);
+        if (known.add(path)) {
+            candidates.add(path);
+        }
+    }
+
+    /**
+     Path is a route from the start city to the destination with the weights of its best test placements
+     * untested and tested hold the best weight from the start to every city of the route
+     * arriving there untested or already tested, Weight.INFINITE when the route cannot arrive so
+     */
+    private class Path implements Comparable<Path> {
+        private final int[] edges;                  // edges of the route in order of travel
+        private final int[] cities;                 // cities of the route in order of travel
+        private final long[] untested;              // best weight to each city without a test
+        private final long[] tested;                // best weight to each city after a test
+        private final long weight;                  // weight of the best test placement of the route
+        private final boolean loopless;             // True if no city is visited twice
+        private final int deviation;                // index of the city the route left its parent at
+        private final int order;                    // order in which the route was found
+
+        // Constructor that weighs every test placement of the route
+        private Path(int[] edges, int deviation, int order) {
+            this.edges = edges;
+            this.deviation = deviation;
+            this.order = order;
+            this.cities = new int[edges.length + 1];
+            this.untested = new long[edges.length + 1];
+            this.tested = new long[edges.length + 1];
+
+            TravelPreference preference = reverseSearch.getPreference();
+            boolean vaccinated = reverseSearch.isVaccinated();
+            cities[0] = startCity;
+            untested[0] = 0;
+            tested[0] = Weight.INFINITE;
+            for (int i = 0; i < edges.length; i++) {
+                int edge = edges[i];
+                int nextCity = graph.getTarget(edge);
+                long edgeCost = graph.getCost(edge);
+                long testCost = vaccinated ? -1 : TripSearch.testCost(graph, reverseSearch, cities[i]);
+                cities[i + 1] = nextCity;
+
+                // same transitions as TripSearch.relaxEdges
+                untested[i + 1] = vaccinated || !graph.isTestRequired(nextCity) ?
+                        Weight.add(untested[i], preference.edgeWeight(edgeCost, graph.getTimeMinutes(edge))) :
+                        Weight.INFINITE;
+                tested[i + 1] = Weight.add(tested[i], preference.edgeWeight(edgeCost, graph.getTimeMinutes(edge)));
+                if (testCost >= 0) {
+                    tested[i + 1] = Math.min(tested[i + 1],
+                            Weight.add(untested[i], preference.edgeWeight(testCost + edgeCost, graph.getTimeMinutes(edge))));
+                }
+            }
+            this.weight = Math.min(untested[edges.length], tested[edges.length]);
+            this.loopless = !repeats(edges.length);
+        }
+
+        /**
+         * Function that returns true if the route visits a city twice up to a position
+         * @param position index of the last city looked at
+         * @return True if a city comes twice among the first cities
+         */
+        private boolean repeats(int position) {
+            for (int i = 1; i <= position; i++) {
+                for (int j = 0; j < i; j++) {
+                    if (cities[i] == cities[j]) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Function that returns true if 2 routes go through the same edges up to a city
+         * @param other
+         * @param position index of the last city of the root
+         * @return True if the roots are the same
+         */
+        private boolean sharesRoot(Path other, int position) {
+            for (int i = 0; i < position; i++) {
+                if (edges[i] != other.edges[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Function that orders routes by weight, then hops, then order found
+         * @param other
+         * @return negative if this route comes first
+         */
+        @Override
+        public int compareTo(Path other) {
+            if (weight != other.weight) {
+                return Long.compare(weight, other.weight);
+            }
+            if (edges.length != other.edges.length) {
+                return Integer.compare(edges.length, other.edges.length);
+            }
+            return Integer.compare(order, other.order);
+        }
+
+        /**
+         * Function that returns true if 2 routes go through the same edges
+         * @param other
+         * @return True if the routes are the same
+         */
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Path && Arrays.equals(edges, ((Path) other).edges);
+        }
+
+        /**
+         * Function that returns the hash code of the edges
+         * @return hash code
+         */
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(edges);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+//package com.company;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ Landmark tables hold the shortest distances between a few landmark cities and every other city
+ * for the time, cost and hop metrics, both from the landmark and to the landmark
+ * by the triangle inequality they give a lower bound of the distance between any 2 cities
+ * d(v,t) >= d(L,t) - d(L,v) and d(v,t) >= d(v,L) - d(t,L)
+ * the bounds ignore hotel stays and the testing rule, which can only make a path more expensive
+ * so they are admissible and consistent heuristics for the A* search of planTrip [ALT]
+ * after paths are added or made cheaper the tables are repaired by propagating the shorter distances
+ * paths made more expensive or removed can only make the true distances longer, so the tables stay valid
+ */
+public class LandmarkTables {
+
+    // Metrics stored in the tables
+    public static final int TIME = 0;
+    public static final int COST = 1;
+    public static final int HOPS = 2;
+    private static final int METRICS = 3;
+
+    // Distance of a city that cannot be reached
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    // Distance too large to be stored, the landmark gives no bound through it
+    private static final int TOO_FAR = Integer.MAX_VALUE - 1;
+
+    // Private variables
+    private final CompiledGraph graph;          // graph the tables were built for
+    private final int[] landmarks;              // landmark cities
+    private final int[][] fromLandmark;         // per metric, distance landmark -> city at [landmark * cities + city]
+    private final int[][] toLandmark;           // per metric, distance city -> landmark at [landmark * cities + city]
+
+    // Constructor that Initializes [graph, landmarks, tables]
+    private LandmarkTables(CompiledGraph graph, int[] landmarks, int[][] fromLandmark, int[][] toLandmark) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Function that picks the landmarks and builds their tables
+     * the first landmark is city 0, every next landmark is the city farthest in time from the ones picked
+     * cities no landmark can reach are picked first so that every part of the graph gets a landmark
+     * @param graph
+     * @param numberOfLandmarks
+     * @return landmark tables of the graph
+     */
+    public static LandmarkTables build(CompiledGraph graph, int numberOfLandmarks) {
+
+        int numberOfCities = graph.numberOfCities();
+        int count = Math.min(numberOfLandmarks, numberOfCities);
+        int[] landmarks = new int[count];
+        int[][] fromLandmark = new int[METRICS][count * numberOfCities];
+        int[][] toLandmark = new int[METRICS][count * numberOfCities];
+        int[] distance = new int[numberOfCities];
+        CityPriorityQueue queue = new CityPriorityQueue(numberOfCities);
+
+        // closeness of every city to the landmarks picked so far, in time
+        int[] nearest = new int[numberOfCities];
+        Arrays.fill(nearest, UNREACHABLE);
+
+        for (int l = 0; l < count; l++) {
+
+            // pick the city farthest from the landmarks picked so far
+            int landmark = 0;
+            for (int city = 0; city < numberOfCities && l > 0; city++) {
+                if (nearest[city] > nearest[landmark]) {
+                    landmark = city;
+                }
+            }
+            landmarks[l] = landmark;
+
+            // distances from and to the landmark for every metric
+            for (int metric = 0; metric < METRICS; metric++) {
+                shortestDistances(graph, landmark, metric, false, distance, queue);
+                System.arraycopy(distance, 0, fromLandmark[metric], l * numberOfCities, numberOfCities);
+                if (metric == TIME) {
+                    for (int city = 0; city < numberOfCities; city++) {
+                        nearest[city] = Math.min(nearest[city], distance[city]);
+                    }
+                    nearest[landmark] = -1;     // never pick the same landmark twice
+                }
+                shortestDistances(graph, landmark, metric, true, distance, queue);
+                System.arraycopy(distance, 0, toLandmark[metric], l * numberOfCities, numberOfCities);
+            }
+        }
+
+        return new LandmarkTables(graph, landmarks, fromLandmark, toLandmark);
+    }
+
+    /**
+     * Function that returns tables for a newer graph of the same cities after paths were added or changed
+     * every distance that a changed path shortens is lowered and the change is propagated to the cities after it
+     * distances are never raised, so the tables remain valid lower bounds for paths made more expensive
+     * @param graph newer graph with the same cities
+     * @param changedEdges {start city, destination city, time, cost} of every path added or changed
+     * @return repaired tables of the newer graph
+     */
+    public LandmarkTables repair(CompiledGraph graph, List<int[]> changedEdges) {
+
+        int numberOfCities = graph.numberOfCities();
+        int[][] from = new int[METRICS][];
+        int[][] to = new int[METRICS][];
+        CityPriorityQueue queue = new CityPriorityQueue(numberOfCities);
+
+        for (int metric = 0; metric < METRICS; metric++) {
+            from[metric] = fromLandmark[metric].clone();
+            to[metric] = toLandmark[metric].clone();
+            for (int l = 0; l < landmarks.length; l++) {
+                int base = l * numberOfCities;
+
+                // distances from the landmark, a changed path u -> v can shorten d(L,v)
+                for (int[] changed : changedEdges) {
+                    lower(from[metric], base, changed[0], changed[1], length(metric, changed[2], changed[3]), queue);
+                }
+                propagate(graph, metric, false, from[metric], base, queue);
+
+                // distances to the landmark, a changed path u -> v can shorten d(u,L)
+                for (int[] changed : changedEdges) {
+                    lower(to[metric], base, changed[1], changed[0], length(metric, changed[2], changed[3]), queue);
+                }
+                propagate(graph, metric, true, to[metric], base, queue);
+            }
+        }
+
+        return new LandmarkTables(graph, landmarks, from, to);
+    }
+
+    /**
+     * Function that lowers the distance of a city if a path from a closer city gives a shorter one
+     * @param distance table of a metric
+     * @param base position of the landmark row in the table
+     * @param city city the path leaves from, in the direction of the table
+     * @param nextCity city the path goes to, in the direction of the table
+     * @param length length of the path
+     * @param queue queue of the cities whose distance was lowered
+     */
+    private static void lower(int[] distance, int base, int city, int nextCity, int length, CityPriorityQueue queue) {
+        if (distance[base + city] >= TOO_FAR) {
+            return;
+        }
+        int weight = (int) Math.min((long) distance[base + city] + length, TOO_FAR);
+        if (weight < distance[base + nextCity]) {
+            distance[base + nextCity] = weight;
+            queue.insertOrDecrease(nextCity, weight);
+        }
+    }
+
+    /**
+     * Function that propagates lowered distances to the cities after them until no distance gets shorter
+     * @param graph
+     * @param metric
+     * @param reverse True for distances to the landmark over the reverse index
+     * @param distance table of the metric
+     * @param base position of the landmark row in the table
+     * @param queue queue of the cities whose distance was lowered
+     */
+    private static void propagate(CompiledGraph graph, int metric, boolean reverse, int[] distance, int base,
+                                  CityPriorityQueue queue) {
+        while (!queue.isEmpty()) {
+            int city = queue.removeMinimum();
+            int first = reverse ? graph.firstReverseEdge(city) : graph.firstEdge(city);
+            int end = reverse ? graph.endReverseEdge(city) : graph.endEdge(city);
+
+            for (int position = first; position < end; position++) {
+                int edge = reverse ? graph.getReverseEdge(position) : position;
+                int nextCity = reverse ? graph.getSource(edge) : graph.getTarget(edge);
+                lower(distance, base, city, nextCity, length(metric, graph.getTimeMinutes(edge), graph.getCost(edge)), queue);
+            }
+        }
+    }
+
+    /**
+     * Function that returns the length of a path in a metric
+     * @param metric
+     * @param timeMinutes
+     * @param edgeCost
+     * @return time, cost or 1 hop
+     */
+    private static int length(int metric, int timeMinutes, int edgeCost) {
+        return metric == TIME ? timeMinutes : metric == COST ? edgeCost : 1;
+    }
+
+    /**
+     * Function that returns true if the tables were built for a graph
+     * @param graph
+     * @return True if the tables belong to the graph
+     */
+    public boolean belongsTo(CompiledGraph graph) {
+        return this.graph == graph;
+    }
+
+    /**
+     * Function that returns the number of cities the tables hold distances of
+     * @return number of cities
+     */
+    public int numberOfCities() {
+        return graph.numberOfCities();
+    }
+
+    /**
+     * Function that returns the number of landmarks
+     * @return number of landmarks
+     */
+    public int numberOfLandmarks() {
+        return landmarks.length;
+    }
+
+    /**
+     * Function that returns a lower bound of the weight of any path between 2 cities
+     * @param preference
+     * @param city
+     * @param destinationCity
+     * @return lower bound of the weight, -1 when the landmarks prove there is no path
+     */
+    public long lowerBound(TravelPreference preference, int city, int destinationCity) {
+
+        long bound = 0;
+        int[] importance = {preference.getTravelTimeImportance(), preference.getCostImportance(),
+                preference.getTravelHopImportance()};
+
+        // the hop bound is always looked at so that a missing path is detected even without importances
+        for (int metric = 0; metric < METRICS; metric++) {
+            if (importance[metric] == 0 && metric != HOPS) {
+                continue;
+            }
+            int distance = metricBound(metric, city, destinationCity);
+            if (distance == -1) {
+                return -1;
+            }
+            bound = Weight.add(bound, (long) importance[metric] * distance);
+        }
+
+        return bound;
+    }
+
+    /**
+     * Function that returns the best landmark bound of a single metric
+     * @param metric
+     * @param city
+     * @param destinationCity
+     * @return lower bound of the distance, -1 when the destination cannot be reached from the city
+     */
+    private int metricBound(int metric, int city, int destinationCity) {
+
+        int numberOfCities = graph.numberOfCities();
+        int bound = 0;
+
+        for (int l = 0; l < landmarks.length; l++) {
+
+            // d(L,t) - d(L,v), the destination is out of reach if the landmark reaches v but not t
+            int fromCity = fromLandmark[metric][l * numberOfCities + city];
+            int fromDestination = fromLandmark[metric][l * numberOfCities + destinationCity];
+            if (fromCity < TOO_FAR) {
+                if (fromDestination == UNREACHABLE) {
+                    return -1;
+                }
+                if (fromDestination < TOO_FAR) {
+                    bound = Math.max(bound, fromDestination - fromCity);
+                }
+            }
+
+            // d(v,L) - d(t,L), the destination is out of reach if t reaches the landmark but v does not
+            int toCity = toLandmark[metric][l * numberOfCities + city];
+            int toDestination = toLandmark[metric][l * numberOfCities + destinationCity];
+            if (toDestination < TOO_FAR) {
+                if (toCity == UNREACHABLE) {
+                    return -1;
+                }
+                if (toCity < TOO_FAR) {
+                    bound = Math.max(bound, toCity - toDestination);
+                }
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Function that calculates the shortest distance of a single metric between a city and every other city
+     * @param graph
+     * @param source
+     * @param metric TIME, COST or HOPS
+     * @param reverse True for distances to the source over the reverse index
+     * @param distance output distances, UNREACHABLE when there is no path
+     * @param queue empty queue able to hold every city
+     */
+    private static void shortestDistances(CompiledGraph graph, int source, int metric, boolean reverse,
+                                          int[] distance, CityPriorityQueue queue) {
+
+        Arrays.fill(distance, UNREACHABLE);
+        distance[source] = 0;
+        queue.insertOrDecrease(source, 0);
+
+        while (!queue.isEmpty()) {
+            int city = queue.removeMinimum();
+            int first = reverse ? graph.firstReverseEdge(city) : graph.firstEdge(city);
+            int end = reverse ? graph.endReverseEdge(city) : graph.endEdge(city);
+
+            for (int position = first; position < end; position++) {
+                int edge = reverse ? graph.getReverseEdge(position) : position;
+                int nextCity = reverse ? graph.getSource(edge) : graph.getTarget(edge);
+                int length = length(metric, graph.getTimeMinutes(edge), graph.getCost(edge));
+
+                // distances that do not fit are kept as too far instead of wrapping around
+                int weight = (int) Math.min((long) distance[city] + length, TOO_FAR);
+                if (weight < distance[nextCity]) {
+                    distance[nextCity] = weight;
+                    queue.insertOrDecrease(nextCity, weight);
+                }
+            }
+        }
+    }
+}
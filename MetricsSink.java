@@ -0,0 +1,15 @@
+//package com.company;
+
+/**
+ Metrics sink receives the metrics of every planTrip query of a travel assistant, see setMetricsSink
+ * it is called on the thread of the query right after the query is answered, so it has to be fast and thread safe
+ * the metrics object is reused by the next query of the thread, a sink copies what it keeps
+ */
+public interface MetricsSink {
+
+    /**
+     * Function that receives the metrics of a finished query
+     * @param metrics
+     */
+    void record(QueryMetrics metrics);
+}
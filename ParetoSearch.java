@@ -0,0 +1,302 @@
+//package com.company;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ Pareto search finds every route between 2 cities that is not beaten in cost, time and hops at once
+ * a multi-criteria label setting search over the [city, tested] states of TripSearch
+ * a label is a partial route [state, cost, time, hops] and remembers the label and edge it came from
+ * labels leave the queue in order of cost, then time, then hops, so a label that no label settled
+ * before it dominates is part of the frontier of its state
+ * labels dominated by a settled label of their state or by a route already found to the destination are dropped
+ * every state keeps at most a fixed number of labels, which bounds the memory of the search
+ * once a state is full, further trade-offs through it are dropped and the frontier may miss them
+ */
+public class ParetoSearch {
+
+    // Private variables
+    private final CompiledGraph graph;
+    private final int startCity;
+    private final int destinationCity;
+    private final boolean vaccinated;
+    private final int labelsPerState;
+
+    // Labels, grown as they are created
+    private int numberOfLabels = 0;
+    private int[] labelState = new int[64];
+    private long[] labelCost = new long[64];
+    private long[] labelTime = new long[64];
+    private int[] labelHops = new int[64];
+    private int[] labelParent = new int[64];
+    private int[] labelEdge = new int[64];
+
+    // Settled labels of every state and routes found to the destination
+    private final int[][] bags;
+    private final int[] bagSize;
+    private final ArrayList<Integer> found = new ArrayList<>();
+
+    // Queue of labels, a binary heap ordered by cost, time and hops
+    private int[] heap = new int[64];
+    private int heapSize = 0;
+
+    // Constructor that Initializes the search
+    private ParetoSearch(CompiledGraph graph, int startCity, int destinationCity, boolean vaccinated, int labelsPerState) {
+        this.graph = graph;
+        this.startCity = startCity;
+        this.destinationCity = destinationCity;
+        this.vaccinated = vaccinated;
+        this.labelsPerState = labelsPerState;
+        this.bags = new int[TripSearch.numberOfStates(graph)][];
+        this.bagSize = new int[TripSearch.numberOfStates(graph)];
+    }
+
+    /**
+     * Function that finds the Pareto frontier of cost, time and hops between 2 cities
+     * @param graph
+     * @param startCity
+     * @param destinationCity
+     * @param vaccinated
+     * @param labelsPerState maximum number of labels settled in a single state
+     * @return options of the frontier from the cheapest to the most expensive, empty when there is no path
+     */
+    public static List<RouteOption> run(CompiledGraph graph, int startCity, int destinationCity, boolean vaccinated,
+                                        int labelsPerState) {
+        ParetoSearch search = new ParetoSearch(graph, startCity, destinationCity, vaccinated, labelsPerState);
+        search.search();
+        return search.options();
+    }
+
+    /**
+     * Function that settles the labels in order until the queue is empty
+     */
+    private void search() {
+        push(newLabel(TripSearch.state(startCity, false), 0, 0, 0, -1, -1));
+
+        while (heapSize > 0) {
+            int label = pop();
+            int state = labelState[label];
+
+            // a label dominated since it was queued is dropped
+            if (isDominated(label) || bagSize[state] == labelsPerState) {
+                continue;
+            }
+            settle(label);
+
+            if (TripSearch.cityOf(state) == destinationCity) {
+                found.add(label);
+                continue;
+            }
+            extend(label);
+        }
+    }
+
+    /**
+     * Function that creates the labels of every edge leaving the city of a label
+     * the same transitions as TripSearch, the test is taken before leaving the city
+     * @param label
+     */
+    private void extend(int label) {
+        int state = labelState[label];
+        int city = TripSearch.cityOf(state);
+        boolean tested = TripSearch.isTested(state);
+
+        // the hotel stay while taking the test in this city, -1 when the city cannot test
+        long testCost = -1;
+        if (!vaccinated && !tested && graph.getTimeToTest(city) >= 0) {
+            testCost = city == startCity ? 0 : (long) graph.getNightlyHotelCosts(city) * graph.getTimeToTest(city);
+        }
+
+        for (int edge = graph.firstEdge(city); edge < graph.endEdge(city); edge++) {
+            int nextCity = graph.getTarget(edge);
+            if (vaccinated || tested || !graph.isTestRequired(nextCity)) {
+                offer(label, edge, TripSearch.state(nextCity, tested), 0);
+            }
+            if (testCost >= 0) {
+                offer(label, edge, TripSearch.state(nextCity, true), testCost);
+            }
+        }
+    }
+
+    /**
+     * Function that queues the label of an edge if no settled label dominates it
+     * @param parent
+     * @param edge
+     * @param nextState
+     * @param testCost hotel stay while testing before the edge
+     */
+    private void offer(int parent, int edge, int nextState, long testCost) {
+        long cost = labelCost[parent] + testCost + graph.getCost(edge);
+        long time = labelTime[parent] + graph.getTimeMinutes(edge);
+        int hops = labelHops[parent] + 1;
+        if (bagSize[nextState] == labelsPerState || isDominated(nextState, cost, time, hops)) {
+            return;
+        }
+        push(newLabel(nextState, cost, time, hops, parent, edge));
+    }
+
+    /**
+     * Function that returns true if a settled label of the state or a found route is at least as good
+     * @param label
+     * @return True if the label is dominated
+     */
+    private boolean isDominated(int label) {
+        return isDominated(labelState[label], labelCost[label], labelTime[label], labelHops[label]);
+    }
+
+    /**
+     * Function that returns true if a settled label of a state or a found route is at least as good in every criterion
+     * @param state
+     * @param cost
+     * @param time
+     * @param hops
+     * @return True if the criteria are dominated
+     */
+    private boolean isDominated(int state, long cost, long time, int hops) {
+        for (int i = 0; i < bagSize[state]; i++) {
+            if (dominates(bags[state][i], cost, time, hops)) {
+                return true;
+            }
+        }
+        for (int label : found) {
+            if (dominates(label, cost, time, hops)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Function that returns true if a label is at least as good in every criterion
+     * @param label
+     * @param cost
+     * @param time
+     * @param hops
+     * @return True if the label dominates the criteria
+     */
+    private boolean dominates(int label, long cost, long time, int hops) {
+        return labelCost[label] <= cost && labelTime[label] <= time && labelHops[label] <= hops;
+    }
+
+    /**
+     * Function that adds a label to the bag of its state
+     * @param label
+     */
+    private void settle(int label) {
+        int state = labelState[label];
+        if (bags[state] == null) {
+            bags[state] = new int[Math.min(4, labelsPerState)];
+        }
+        else if (bagSize[state] == bags[state].length) {
+            bags[state] = Arrays.copyOf(bags[state], Math.min(bags[state].length * 2, labelsPerState));
+        }
+        bags[state][bagSize[state]++] = label;
+    }
+
+    /**
+     * Function that turns the labels found at the destination into route options
+     * @return options from the cheapest to the most expensive
+     */
+    private List<RouteOption> options() {
+        List<RouteOption> options = new ArrayList<>();
+        for (int label : found) {
+            int[] edges = new int[labelHops[label]];
+            int current = label;
+            for (int i = edges.length - 1; i >= 0; i--) {
+                edges[i] = labelEdge[current];
+                current = labelParent[current];
+            }
+            options.add(new RouteOption(new Route(graph, startCity, edges), labelCost[label], labelTime[label],
+                    labelHops[label]));
+        }
+        return options;
+    }
+
+    /**
+     * Function that creates a label
+     * @param state
+     * @param cost
+     * @param time
+     * @param hops
+     * @param parent label extended by the new label, -1 for the start
+     * @param edge edge from the parent, -1 for the start
+     * @return new label
+     */
+    private int newLabel(int state, long cost, long time, int hops, int parent, int edge) {
+        if (numberOfLabels == labelState.length) {
+            int length = labelState.length * 2;
+            labelState = Arrays.copyOf(labelState, length);
+            labelCost = Arrays.copyOf(labelCost, length);
+            labelTime = Arrays.copyOf(labelTime, length);
+            labelHops = Arrays.copyOf(labelHops, length);
+            labelParent = Arrays.copyOf(labelParent, length);
+            labelEdge = Arrays.copyOf(labelEdge, length);
+        }
+        labelState[numberOfLabels] = state;
+        labelCost[numberOfLabels] = cost;
+        labelTime[numberOfLabels] = time;
+        labelHops[numberOfLabels] = hops;
+        labelParent[numberOfLabels] = parent;
+        labelEdge[numberOfLabels] = edge;
+        return numberOfLabels++;
+    }
+
+    /**
+     * Function that returns true if a label leaves the queue before another one
+     * @param a
+     * @param b
+     * @return True if a is smaller in cost, then time, then hops, then creation order
+     */
+    private boolean less(int a, int b) {
+        if (labelCost[a] != labelCost[b]) {
+            return labelCost[a] < labelCost[b];
+        }
+        if (labelTime[a] != labelTime[b]) {
+            return labelTime[a] < labelTime[b];
+        }
+        if (labelHops[a] != labelHops[b]) {
+            return labelHops[a] < labelHops[b];
+        }
+        return a < b;
+    }
+
+    /**
+     * Function that adds a label to the queue
+     * @param label
+     */
+    private void push(int label) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        int position = heapSize++;
+        while (position > 0 && less(label, heap[(position - 1) / 2])) {
+            heap[position] = heap[(position - 1) / 2];
+            position = (position - 1) / 2;
+        }
+        heap[position] = label;
+    }
+
+    /**
+     * Function that removes the smallest label from the queue
+     * @return smallest label
+     */
+    private int pop() {
+        int minimum = heap[0];
+        int last = heap[--heapSize];
+        int position = 0;
+        while (2 * position + 1 < heapSize) {
+            int child = 2 * position + 1;
+            if (child + 1 < heapSize && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], last)) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = last;
+        return minimum;
+    }
+}
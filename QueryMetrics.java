@@ -0,0 +1,167 @@
+//package com.company;
+
+/**
+ Query metrics hold where a single planTrip query spent its time and how much work its search did
+ * VALIDATION checks the input and looks the query up in the route cache
+ * PREPARATION takes the compiled snapshot and the landmark tables or hierarchy the search is weighted with
+ * SEARCH settles the states, the edges are weighted as they are relaxed
+ * RECONSTRUCTION builds the route from the chosen edges and stores it in the cache
+ * a query answered from the cache only has a validation phase
+ * settled states, relaxed transitions and heap operations are not counted for hierarchy queries
+ * every thread reuses its own metrics object, see MetricsSink
+ */
+public class QueryMetrics {
+
+    // Phases of a query
+    public static final int VALIDATION = 0;
+    public static final int PREPARATION = 1;
+    public static final int SEARCH = 2;
+    public static final int RECONSTRUCTION = 3;
+    public static final int PHASES = 4;
+
+    // Private variables
+    private final long[] phaseNanos = new long[PHASES];     // time spent in each phase
+    private long phaseStart = 0;                            // start of the current phase
+    private SearchMode mode = null;                         // search mode of the query
+    private boolean cacheHit = false;                       // True if the route came from the cache
+    private boolean found = false;                          // True if there is a path
+    private long settled = 0;                               // states taken out of the queue
+    private long relaxed = 0;                               // transitions relaxed
+    private long heapOperations = 0;                        // inserts, decreases and removals of the queue
+
+    /**
+     * Function that starts the metrics of a new query
+     * @param mode search mode of the query
+     */
+    void begin(SearchMode mode) {
+        for (int phase = 0; phase < PHASES; phase++) {
+            phaseNanos[phase] = 0;
+        }
+        this.mode = mode;
+        this.cacheHit = false;
+        this.found = false;
+        this.settled = 0;
+        this.relaxed = 0;
+        this.heapOperations = 0;
+        this.phaseStart = System.nanoTime();
+    }
+
+    /**
+     * Function that ends a phase, the next phase starts now
+     * @param phase
+     */
+    void endPhase(int phase) {
+        long now = System.nanoTime();
+        phaseNanos[phase] += now - phaseStart;
+        phaseStart = now;
+    }
+
+    /**
+     * Function that records the outcome of the query
+     * @param cacheHit
+     * @param found
+     */
+    void setOutcome(boolean cacheHit, boolean found) {
+        this.cacheHit = cacheHit;
+        this.found = found;
+    }
+
+    /**
+     * Function that adds the work done by a search context
+     * @param context
+     */
+    void addWork(SearchContext context) {
+        settled += context.getSettled();
+        relaxed += context.getRelaxed();
+        heapOperations += context.getQueue().operations();
+    }
+
+    /**
+     * Getter function that gets the time spent in a phase
+     * @param phase VALIDATION, PREPARATION, SEARCH or RECONSTRUCTION
+     * @return nanoseconds
+     */
+    public long getPhaseNanos(int phase) {
+        return phaseNanos[phase];
+    }
+
+    /**
+     * Getter function that gets the time spent by the whole query
+     * @return nanoseconds
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (long nanos : phaseNanos) {
+            total += nanos;
+        }
+        return total;
+    }
+
+    /**
+     * Getter function that gets the search mode of the query
+     * @return mode
+     */
+    public SearchMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Getter function that gets if the route came from the route cache
+     * @return cacheHit
+     */
+    public boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    /**
+     * Getter function that gets if there is a path
+     * @return found
+     */
+    public boolean isFound() {
+        return found;
+    }
+
+    /**
+     * Getter function that gets the number of states settled by the search
+     * @return settled
+     */
+    public long getSettled() {
+        return settled;
+    }
+
+    /**
+     * Getter function that gets the number of transitions relaxed by the search
+     * @return relaxed
+     */
+    public long getRelaxed() {
+        return relaxed;
+    }
+
+    /**
+     * Getter function that gets the number of heap operations of the search
+     * @return heapOperations
+     */
+    public long getHeapOperations() {
+        return heapOperations;
+    }
+
+    /**
+     * Function that returns the name of a phase
+     * @param phase
+     * @return name of the phase
+     */
+    public static String phaseName(int phase) {
+        switch (phase) {
+            case VALIDATION:
+                return "validation";
+            case PREPARATION:
+                return "preparation";
+            case SEARCH:
+                return "search";
+            case RECONSTRUCTION:
+                return "reconstruction";
+            default:
+                throw new IllegalArgumentException("bad data input for phase, cannot be " + phase);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+//package com.company;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ Route is the best path between 2 cities as planned by planTrip
+ * it only holds the start city and the edges of the path in the compiled snapshot they were searched on
+ * as a list of strings it reads "start X" followed by "fly Y" or "train Y" for every hop
+ * the strings are formatted only when they are read, and the route cannot be changed
+ */
+public class Route extends AbstractList<String> implements RandomAccess {
+
+    // Private variables
+    private final CompiledGraph graph;          // snapshot the path was searched on
+    private final int startCity;                // index of the start city
+    private final int[] edges;                  // edges of the path in order of travel
+
+    // Constructor that Initializes [graph, startCity, edges]
+    Route(CompiledGraph graph, int startCity, int[] edges) {
+        this.graph = graph;
+        this.startCity = startCity;
+        this.edges = edges;
+    }
+
+    /**
+     * Function that formats a step of the route
+     * @param position 0 for the start, i for the i-th hop
+     * @return "start X", "fly X" or "train X"
+     */
+    @Override
+    public String get(int position) {
+        if (position < 0 || position > edges.length) {
+            throw new IndexOutOfBoundsException("bad data input for position, cannot be " + position);
+        }
+        if (position == 0) {
+            return "start " + graph.getCityName(startCity);
+        }
+        int edge = edges[position - 1];
+        String mode = graph.getMode(edge) == CompiledGraph.FLIGHT ? "fly " : "train ";
+        return mode + graph.getCityName(graph.getTarget(edge));
+    }
+
+    /**
+     * Function that returns the number of steps of the route
+     * @return number of hops + 1 for the start
+     */
+    @Override
+    public int size() {
+        return edges.length + 1;
+    }
+
+    /**
+     * Function that returns the number of hops of the route
+     * @return number of hops
+     */
+    public int numberOfHops() {
+        return edges.length;
+    }
+
+    /**
+     * Getter function that gets the name of a city on the route
+     * @param position 0 for the start city, i for the city reached by the i-th hop
+     * @return city name
+     */
+    public String getCityName(int position) {
+        if (position < 0 || position > edges.length) {
+            throw new IndexOutOfBoundsException("bad data input for position, cannot be " + position);
+        }
+        return graph.getCityName(position == 0 ? startCity : graph.getTarget(edges[position - 1]));
+    }
+
+    /**
+     * Getter function that gets the start city name
+     * @return start city name
+     */
+    public String getStartCity() {
+        return graph.getCityName(startCity);
+    }
+
+    /**
+     * Getter function that gets the destination city name
+     * @return destination city name, the start city for a route without hops
+     */
+    public String getDestinationCity() {
+        return getCityName(edges.length);
+    }
+
+    /**
+     * Getter function that gets the edge of a hop in the compiled snapshot
+     * @param hop 0 for the first hop
+     * @return edge index
+     */
+    public int getEdge(int hop) {
+        return edges[hop];
+    }
+
+    /**
+     * Getter function that gets the mode of travel of a hop
+     * @param hop 0 for the first hop
+     * @return FLIGHT or TRAIN
+     */
+    public byte getMode(int hop) {
+        return graph.getMode(edges[hop]);
+    }
+
+    /**
+     * Function that returns true if the route travels the path between 2 cities with a mode of travel
+     * @param startIndex
+     * @param destinationIndex
+     * @param mode FLIGHT or TRAIN
+     * @return True if the path is a hop of the route
+     */
+    public boolean travels(int startIndex, int destinationIndex, byte mode) {
+        for (int edge : edges) {
+            if (graph.getSource(edge) == startIndex && graph.getTarget(edge) == destinationIndex &&
+                graph.getMode(edge) == mode) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,267 @@
+//package com.company;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ Route cache holds the best paths already planned so that a repeated planTrip query skips the search
+ * a bounded LRU map, the least recently used route is evicted once the capacity is reached
+ * routes are keyed on the normalized query [start city, destination city, vaccinated, importances, mode]
+ * the importances are divided by their greatest common divisor, as scaling them never changes the best path
+ * every route is stored with the graph version it was planned on, a newer version empties the cache
+ * except after a path was made more expensive or removed, which only drops the routes travelling it
+ * a route is never repaired, a dropped route is searched again by the next query asking for it
+ * hits, misses and evictions are counted for monitoring
+ */
+public class RouteCache {
+
+    // Cached answer of a query without a path, compared by identity and never returned
+    private static final Object NO_PATH = new Object();
+
+    // Private variables
+    private final int capacity;                             // maximum number of routes kept
+    private final LinkedHashMap<Key, Object> routes;        // routes or NO_PATH in order of last use
+    private long version = 0;                               // graph version of the routes in the map
+
+    // Counters of the cache lookups
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Constructor that Initializes [capacity, routes]
+    public RouteCache(int capacity) throws IllegalArgumentException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("bad data input for route cache capacity, cannot be " + capacity);
+        }
+        this.capacity = capacity;
+        this.routes = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > RouteCache.this.capacity) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Function that builds the normalized key of a query
+     * @param startCity index of the start city
+     * @param destinationCity index of the destination city
+     * @param vaccinated
+     * @param preference
+     * @param mode
+     * @return key of the query
+     */
+    public static Key key(int startCity, int destinationCity, boolean vaccinated, TravelPreference preference,
+                          SearchMode mode) {
+        int cost = preference.getCostImportance();
+        int time = preference.getTravelTimeImportance();
+        int hop = preference.getTravelHopImportance();
+        int divisor = gcd(gcd(cost, time), hop);
+        if (divisor > 1) {
+            cost /= divisor;
+            time /= divisor;
+            hop /= divisor;
+        }
+        return new Key(startCity, destinationCity, vaccinated, cost, time, hop, mode);
+    }
+
+    /**
+     * Function that looks up the route of a query planned on a graph version and marks it as recently used
+     * a query on an older version than the cached routes is not answered from them
+     * @param key
+     * @param version graph version pinned by the query
+     * @return route, an empty optional when the query has no path, null when the query is not cached
+     */
+    public synchronized Optional<Route> get(Key key, long version) {
+        refresh(version);
+        Object route = version == this.version ? routes.get(key) : null;
+        if (route == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return route == NO_PATH ? Optional.empty() : Optional.of((Route) route);
+    }
+
+    /**
+     * Function that stores the route of a query planned on a graph version
+     * routes planned on an older version than the cached ones are dropped
+     * @param key
+     * @param version graph version read before the query was planned
+     * @param route best path, null when there is no path
+     */
+    public synchronized void put(Key key, long version, Route route) {
+        refresh(version);
+        if (version == this.version) {
+            routes.put(key, route == null ? NO_PATH : route);
+        }
+    }
+
+    /**
+     * Function that moves the cache to a newer graph version in which a single path got more expensive or was removed
+     * only the routes travelling the path can have become worse, every other route is kept
+     * when other changes happened since the cached version the cache is emptied instead
+     * @param startIndex start city of the path
+     * @param destinationIndex destination city of the path
+     * @param mode FLIGHT or TRAIN
+     * @param version newer graph version
+     */
+    public synchronized void invalidate(int startIndex, int destinationIndex, byte mode, long version) {
+        if (version != this.version + 1) {
+            refresh(version);
+            return;
+        }
+        Iterator<Object> iterator = routes.values().iterator();
+        while (iterator.hasNext()) {
+            Object route = iterator.next();
+            if (route != NO_PATH && ((Route) route).travels(startIndex, destinationIndex, mode)) {
+                iterator.remove();
+            }
+        }
+        this.version = version;
+    }
+
+    /**
+     * Function that moves the cache to a newer graph version in which no path changed, every route is kept
+     * when other changes happened since the cached version the cache is emptied instead
+     * @param version newer graph version
+     */
+    public synchronized void keep(long version) {
+        if (version != this.version + 1) {
+            refresh(version);
+            return;
+        }
+        this.version = version;
+    }
+
+    /**
+     * Function that empties the cache when the graph has a newer version than the cached routes
+     * @param version
+     */
+    private void refresh(long version) {
+        if (version > this.version) {
+            routes.clear();
+            this.version = version;
+        }
+    }
+
+    /**
+     * Function that returns the number of cached routes
+     * @return number of routes
+     */
+    public synchronized int size() {
+        return routes.size();
+    }
+
+    /**
+     * Getter function that gets the capacity
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Getter function that gets the number of lookups that found a route
+     * @return hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Getter function that gets the number of lookups that found no route
+     * @return misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Getter function that gets the number of routes evicted to respect the capacity
+     * @return evictions
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Function that returns the greatest common divisor of 2 importances
+     * @param a
+     * @param b
+     * @return greatest common divisor, 0 when both are 0
+     */
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    /**
+     Key holds the normalized parameters of a planTrip query
+     */
+    public static final class Key {
+        private final int startCity;
+        private final int destinationCity;
+        private final boolean vaccinated;
+        private final int costImportance;
+        private final int travelTimeImportance;
+        private final int travelHopImportance;
+        private final SearchMode mode;
+
+        // Constructor that Initializes all the parameters
+        private Key(int startCity, int destinationCity, boolean vaccinated, int costImportance,
+                    int travelTimeImportance, int travelHopImportance, SearchMode mode) {
+            this.startCity = startCity;
+            this.destinationCity = destinationCity;
+            this.vaccinated = vaccinated;
+            this.costImportance = costImportance;
+            this.travelTimeImportance = travelTimeImportance;
+            this.travelHopImportance = travelHopImportance;
+            this.mode = mode;
+        }
+
+        /**
+         * Function that returns true if both keys are the same query
+         * @param other
+         * @return True if all the parameters are equal
+         */
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return startCity == key.startCity && destinationCity == key.destinationCity &&
+                   vaccinated == key.vaccinated && costImportance == key.costImportance &&
+                   travelTimeImportance == key.travelTimeImportance &&
+                   travelHopImportance == key.travelHopImportance && mode == key.mode;
+        }
+
+        /**
+         * Function that returns the hash code of the parameters
+         * @return hash code
+         */
+        @Override
+        public int hashCode() {
+            int hash = startCity * 31 + destinationCity;
+            hash = hash * 31 + (vaccinated ? 1 : 0);
+            hash = (hash * 31 + costImportance) * 31 + travelTimeImportance;
+            hash = hash * 31 + travelHopImportance;
+            return hash * 31 + mode.ordinal();
+        }
+    }
+}
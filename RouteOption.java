@@ -0,0 +1,64 @@
+//package com.company;
+
+/**
+ Route option is one route of the Pareto frontier between 2 cities
+ * no other route of the frontier is at least as cheap, as fast and as short in hops at once
+ * cost includes the hotel stays while testing
+ */
+public class RouteOption {
+
+    // Private variables
+    private final Route route;                  // path of the option
+    private final long cost;                    // cost of travel including hotel stays
+    private final long timeMinutes;             // time of travel in minutes
+    private final int hops;                     // number of hops
+
+    // Constructor that Initializes [route, cost, timeMinutes, hops]
+    RouteOption(Route route, long cost, long timeMinutes, int hops) {
+        this.route = route;
+        this.cost = cost;
+        this.timeMinutes = timeMinutes;
+        this.hops = hops;
+    }
+
+    /**
+     * Getter function that gets the route
+     * @return route
+     */
+    public Route getRoute() {
+        return route;
+    }
+
+    /**
+     * Getter function that gets the cost of travel
+     * @return cost
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * Getter function that gets the time of travel
+     * @return time in minutes
+     */
+    public long getTimeMinutes() {
+        return timeMinutes;
+    }
+
+    /**
+     * Getter function that gets the number of hops
+     * @return hops
+     */
+    public int getHops() {
+        return hops;
+    }
+
+    /**
+     * Function that returns the option as a string
+     * @return route with its cost, time and hops
+     */
+    @Override
+    public String toString() {
+        return route + " cost=" + cost + " time=" + timeMinutes + " hops=" + hops;
+    }
+}
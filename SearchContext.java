@@ -0,0 +1,293 @@
+//package com.company;
+
+import java.util.Arrays;
+
+/**
+ Search context holds the state of a single planTrip query so that the shared graph is never written
+ * the search runs over states [city, tested], see TripSearch for how they are numbered
+ * shortest weight found, previous state and chosen edge of every state
+ * if the state is visited
+ * start city, travel preference and vaccination of the query
+ * the priority queue of cities waiting to be visited
+ * every thread reuses its own context, a query starts by bumping the generation
+ * instead of resetting the arrays, cities not touched in this generation read as defaults
+ * the lower bounds of an A* query come from the landmark tables or from a finished backward search
+ * the settled states and relaxed transitions of the query are counted for the query metrics
+ */
+public class SearchContext {
+
+    // Private variables
+    private CompiledGraph graph = null;             // graph searched by the current generation
+    private int generation = 0;                     // generation of the current query
+    private int[] stamp = new int[0];               // generation in which each state was last touched
+
+    // Search state of each [city, tested] pair, valid only when the stamp matches the generation
+    private long[] shortestWeightFound = new long[0]; // shortest weight from the source, see Weight
+    private int[] previousState = new int[0];       // previous state visited while travelling
+    private int[] previousEdge = new int[0];        // chosen edge into the state
+    private boolean[] visited = new boolean[0];     // True is the state is visited
+
+    // Parameters of the current query
+    private int startCity = -1;                     // index of the start city
+    private TravelPreference preference = null;     // importance of cost, time and hops
+    private boolean vaccinated = false;             // True if the traveller is vaccinated
+
+    // Goal of an A* query, no landmarks for a plain Dijkstra query
+    private LandmarkTables landmarks = null;        // landmark tables giving the lower bounds
+    private int goalCity = -1;                      // destination city the bounds are taken to
+    private int[] potentialStamp = new int[0];      // generation in which the bound of each city was taken
+    private long[] potentialValue = new long[0];    // lower bound of each city taken in this generation
+    private SearchContext reverseSearch = null;     // finished backward search giving the exact remaining weights
+
+    // Queue of states waiting to be visited
+    private CityPriorityQueue queue = new CityPriorityQueue(0);
+
+    // Work done by the current query
+    private int settled = 0;                        // states taken out of the queue
+    private int relaxed = 0;                        // transitions relaxed
+
+    /**
+     * Function that starts a new query over a graph
+     * grows the arrays when the graph is larger than any graph searched before
+     * @param graph
+     * @param startCity
+     * @param preference
+     * @param vaccinated
+     */
+    public void begin(CompiledGraph graph, int startCity, TravelPreference preference, boolean vaccinated) {
+        int numberOfStates = TripSearch.numberOfStates(graph);
+
+        if (stamp.length < numberOfStates) {
+            stamp = new int[numberOfStates];
+            shortestWeightFound = new long[numberOfStates];
+            previousState = new int[numberOfStates];
+            previousEdge = new int[numberOfStates];
+            visited = new boolean[numberOfStates];
+            queue = new CityPriorityQueue(numberOfStates);
+            potentialStamp = new int[graph.numberOfCities()];
+            potentialValue = new long[graph.numberOfCities()];
+            generation = 0;
+        }
+
+        // on wrap around the old stamps could match again, so clear them once
+        generation++;
+        if (generation == 0) {
+            Arrays.fill(stamp, 0);
+            Arrays.fill(potentialStamp, 0);
+            generation = 1;
+        }
+
+        queue.clear();
+        settled = 0;
+        relaxed = 0;
+        this.graph = graph;
+        this.startCity = startCity;
+        this.preference = preference;
+        this.vaccinated = vaccinated;
+        this.landmarks = null;
+        this.goalCity = -1;
+        this.reverseSearch = null;
+    }
+
+    /**
+     * Function that turns the query into an A* query towards a destination
+     * @param landmarks landmark tables of the graph of the query
+     * @param goalCity destination city
+     */
+    public void setGoal(LandmarkTables landmarks, int goalCity) {
+        this.landmarks = landmarks;
+        this.goalCity = goalCity;
+    }
+
+    /**
+     * Function that turns the query into an A* query guided by the exact weights of a backward search
+     * the weights stay lower bounds when edges are left out of the query, see KShortestPaths
+     * @param reverseSearch context of a finished TripSearch.runBackward over the graph of the query
+     */
+    public void setGoal(SearchContext reverseSearch) {
+        this.reverseSearch = reverseSearch;
+    }
+
+    /**
+     * Function that returns the lower bound of the remaining weight from a state to the goal
+     * the bound of a city is taken from the landmark tables once per query
+     * @param state
+     * @return lower bound, 0 without a goal, -1 when the goal cannot be reached from the state
+     */
+    public long potential(int state) {
+        if (reverseSearch != null) {
+            long weight = reverseSearch.getShortestWeightFound(state);
+            return weight != Weight.INFINITE ? weight : -1;
+        }
+        if (landmarks == null) {
+            return 0;
+        }
+        int city = TripSearch.cityOf(state);
+        if (potentialStamp[city] != generation) {
+            potentialStamp[city] = generation;
+            potentialValue[city] = landmarks.lowerBound(preference, city, goalCity);
+        }
+        return potentialValue[city];
+    }
+
+    /**
+     * Function that returns true if the last query of this context searched the graph
+     * @param graph
+     * @return True if the state belongs to the graph
+     */
+    public boolean belongsTo(CompiledGraph graph) {
+        return this.graph == graph;
+    }
+
+    /**
+     * Getter function that gets the start city of the query
+     * @return startCity
+     */
+    public int getStartCity() {
+        return startCity;
+    }
+
+    /**
+     * Getter function that gets the travel preference of the query
+     * @return preference
+     */
+    public TravelPreference getPreference() {
+        return preference;
+    }
+
+    /**
+     * Getter function that gets if the traveller is vaccinated
+     * @return vaccinated
+     */
+    public boolean isVaccinated() {
+        return vaccinated;
+    }
+
+    /**
+     * Getter function that gets the queue of states waiting to be visited
+     * @return queue
+     */
+    public CityPriorityQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Function that counts a state taken out of the queue
+     */
+    public void countSettled() {
+        settled++;
+    }
+
+    /**
+     * Function that counts a relaxed transition
+     */
+    public void countRelaxed() {
+        relaxed++;
+    }
+
+    /**
+     * Getter function that gets the number of states settled by the query
+     * @return settled states
+     */
+    public int getSettled() {
+        return settled;
+    }
+
+    /**
+     * Getter function that gets the number of transitions relaxed by the query
+     * @return relaxed transitions
+     */
+    public int getRelaxed() {
+        return relaxed;
+    }
+
+    /**
+     * Function that resets a state the first time it is touched in a generation
+     * @param state
+     */
+    private void touch(int state) {
+        if (stamp[state] != generation) {
+            stamp[state] = generation;
+            shortestWeightFound[state] = Weight.INFINITE;
+            previousState[state] = -1;
+            previousEdge[state] = -1;
+            visited[state] = false;
+        }
+    }
+
+    /**
+     * Getter function that gets shortest weight found to reach the state
+     * @param state
+     * @return shortest weight, INFINITE when not reached
+     */
+    public long getShortestWeightFound(int state) {
+        return stamp[state] == generation ? shortestWeightFound[state] : Weight.INFINITE;
+    }
+
+    /**
+     * Setter function that sets the shortest weight found to reach the state
+     * @param state
+     * @param weight
+     */
+    public void setShortestWeightFound(int state, long weight) {
+        touch(state);
+        shortestWeightFound[state] = weight;
+    }
+
+    /**
+     * Getter function that gets the previous state through which the state was visited
+     * @param state
+     * @return previous state, -1 when not reached
+     */
+    public int getPreviousState(int state) {
+        return stamp[state] == generation ? previousState[state] : -1;
+    }
+
+    /**
+     * Setter function that sets the previous state
+     * @param state
+     * @param previous
+     */
+    public void setPreviousState(int state, int previous) {
+        touch(state);
+        previousState[state] = previous;
+    }
+
+    /**
+     * Getter function that gets the chosen edge into the state
+     * @param state
+     * @return chosen edge, -1 when not reached through an edge
+     */
+    public int getPreviousEdge(int state) {
+        return stamp[state] == generation ? previousEdge[state] : -1;
+    }
+
+    /**
+     * Setter function that sets the chosen edge into the state
+     * @param state
+     * @param edge
+     */
+    public void setPreviousEdge(int state, int edge) {
+        touch(state);
+        previousEdge[state] = edge;
+    }
+
+    /**
+     * Getter function that gets if the state is visited or not
+     * @param state
+     * @return visited
+     */
+    public boolean isVisited(int state) {
+        return stamp[state] == generation && visited[state];
+    }
+
+    /**
+     * Setter function that sets if the state is visited or not
+     * @param state
+     * @param visited
+     */
+    public void setVisited(int state, boolean visited) {
+        touch(state);
+        this.visited[state] = visited;
+    }
+}
@@ -0,0 +1,15 @@
+//package com.company;
+
+/**
+ Search mode selects how planTrip searches the best path between 2 cities
+ * DIJKSTRA searches forward from the start city until the destination is settled
+ * BIDIRECTIONAL searches forward from the start city and backward from the destination
+ * until the 2 searches meet on the best path
+ * ALT searches forward from the start city towards the destination [A*]
+ * guided by lower bounds from the landmark tables of the travel assistant
+ */
+public enum SearchMode {
+    DIJKSTRA,
+    BIDIRECTIONAL,
+    ALT
+}
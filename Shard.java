@@ -0,0 +1,356 @@
+//package com.company;
+
+import java.util.HashMap;
+
+/**
+ Shard is one region of a graph split by GraphPartitioner, it holds only its own cities and the paths between them
+ * the paths to other regions are the cross paths of its border, see ShardBorder
+ * the shard answers the searches the coordinator needs to combine a route across shards
+ * from the start city to the cross paths, from the entry cities to the destination city,
+ * the overlay of a travel preference and the hops of a part of a route
+ * the search state of every query is kept in a per thread search context like in the travel assistant
+ * a shard is read only, after the graph changes it is split again
+ */
+public class Shard {
+
+    // Private variables
+    private final int id;                               // index of the shard
+    private final CompiledGraph graph;                  // cities of the region and the paths between them
+    private final HashMap<String, Integer> cityIndex;   // normalized city name to its index in the shard
+    private final ShardBorder border;                   // entry cities, exit cities and cross paths
+    private final int[] crossSource;                    // exit city each cross path leaves
+    private final boolean[] crossTargetTestRequired;    // True if the city a cross path reaches requires a test
+
+    // Search state of the queries, one reusable context per thread
+    private final ThreadLocal<SearchContext> searchContexts = ThreadLocal.withInitial(SearchContext::new);
+
+    // Constructor that Initializes [id, graph, border, crossTargetTestRequired]
+    Shard(int id, CompiledGraph graph, ShardBorder border, boolean[] crossTargetTestRequired) {
+        this.id = id;
+        this.graph = graph;
+        this.border = border;
+        this.crossTargetTestRequired = crossTargetTestRequired;
+        this.cityIndex = new HashMap<>();
+        for (int i = 0; i < graph.numberOfCities(); i++) {
+            cityIndex.putIfAbsent(TravelAssistant.normalizeCityName(graph.getCityName(i)), i);
+        }
+        this.crossSource = new int[border.numberOfCrossPaths()];
+        for (int exit = 0; exit < border.numberOfExits(); exit++) {
+            for (int cross = border.firstCross(exit); cross < border.endCross(exit); cross++) {
+                crossSource[cross] = border.getExitCity(exit);
+            }
+        }
+    }
+
+    /**
+     * Function that splits a compiled graph into shards along the regions of its cities
+     * the cities of a shard keep their order in the graph, and so do the paths of each city
+     * @param graph
+     * @param region region of every city, see GraphPartitioner
+     * @param numberOfShards number of regions
+     * @return shards, shard i holds the cities of region i
+     * @throws IllegalArgumentException
+     */
+    public static Shard[] split(CompiledGraph graph, int[] region, int numberOfShards) throws IllegalArgumentException {
+        int numberOfCities = graph.numberOfCities();
+        if (region.length != numberOfCities) {
+            throw new IllegalArgumentException("bad data input for regions, cannot be " + region.length + " regions for " +
+                    numberOfCities + " cities");
+        }
+
+        // first pass -- index of every city in its shard, and the cities a cross path reaches
+        int[] localIndex = new int[numberOfCities];
+        int[] numberOfLocalCities = new int[numberOfShards];
+        boolean[] entry = new boolean[numberOfCities];
+        for (int city = 0; city < numberOfCities; city++) {
+            if (region[city] < 0 || region[city] >= numberOfShards) {
+                throw new IllegalArgumentException("bad data input for region, cannot be " + region[city]);
+            }
+            localIndex[city] = numberOfLocalCities[region[city]]++;
+            for (int edge = graph.firstEdge(city); edge < graph.endEdge(city); edge++) {
+                if (region[graph.getTarget(edge)] != region[city]) {
+                    entry[graph.getTarget(edge)] = true;
+                }
+            }
+        }
+
+        // entry cities are numbered in the order of their shard
+        int[] entryIndex = new int[numberOfCities];
+        int[] numberOfEntries = new int[numberOfShards];
+        for (int city = 0; city < numberOfCities; city++) {
+            entryIndex[city] = entry[city] ? numberOfEntries[region[city]]++ : -1;
+        }
+
+        Shard[] shards = new Shard[numberOfShards];
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            shards[shard] = build(graph, region, localIndex, entryIndex, numberOfEntries[shard], shard);
+        }
+        return shards;
+    }
+
+    /**
+     * Function that builds a single shard of a split graph
+     * @param graph
+     * @param region region of every city
+     * @param localIndex index of every city in its shard
+     * @param entryIndex entry index of every city in its shard, -1 when no cross path reaches it
+     * @param numberOfEntries number of entry cities of the shard
+     * @param shard index of the shard to build
+     * @return shard
+     */
+    private static Shard build(CompiledGraph graph, int[] region, int[] localIndex, int[] entryIndex,
+                               int numberOfEntries, int shard) {
+
+        CityStore cities = new CityStore();
+        int[] entries = new int[numberOfEntries];
+        int numberOfExits = 0;
+        int numberOfCrossPaths = 0;
+        for (int city = 0; city < graph.numberOfCities(); city++) {
+            if (region[city] != shard) {
+                continue;
+            }
+            cities.add(graph.getCityName(city), graph.isTestRequired(city), graph.getTimeToTest(city),
+                    graph.getNightlyHotelCosts(city));
+            if (entryIndex[city] != -1) {
+                entries[entryIndex[city]] = localIndex[city];
+            }
+            int crossPaths = 0;
+            for (int edge = graph.firstEdge(city); edge < graph.endEdge(city); edge++) {
+                if (region[graph.getTarget(edge)] != shard) {
+                    crossPaths++;
+                }
+            }
+            numberOfCrossPaths += crossPaths;
+            numberOfExits += crossPaths > 0 ? 1 : 0;
+        }
+
+        // paths inside the region go into the graph of the shard, the others into its border
+        int[] exits = new int[numberOfExits];
+        int[] crossOffsets = new int[numberOfExits + 1];
+        int[] targetShard = new int[numberOfCrossPaths];
+        int[] targetEntry = new int[numberOfCrossPaths];
+        String[] targetName = new String[numberOfCrossPaths];
+        byte[] mode = new byte[numberOfCrossPaths];
+        int[] time = new int[numberOfCrossPaths];
+        int[] cost = new int[numberOfCrossPaths];
+        boolean[] targetTestRequired = new boolean[numberOfCrossPaths];
+        int exit = 0;
+        int cross = 0;
+        for (int city = 0; city < graph.numberOfCities(); city++) {
+            if (region[city] != shard) {
+                continue;
+            }
+            int start = localIndex[city];
+            for (int edge = graph.firstEdge(city); edge < graph.endEdge(city); edge++) {
+                int target = graph.getTarget(edge);
+                if (region[target] == shard) {
+                    cities.addEdge(start, localIndex[target], graph.getMode(edge),
+                            graph.getTimeMinutes(edge), graph.getCost(edge));
+                    continue;
+                }
+                targetShard[cross] = region[target];
+                targetEntry[cross] = entryIndex[target];
+                targetName[cross] = graph.getCityName(target);
+                mode[cross] = graph.getMode(edge);
+                time[cross] = graph.getTimeMinutes(edge);
+                cost[cross] = graph.getCost(edge);
+                targetTestRequired[cross] = graph.isTestRequired(target);
+                cross++;
+            }
+            if (cross > crossOffsets[exit]) {
+                exits[exit] = start;
+                crossOffsets[++exit] = cross;
+            }
+        }
+
+        ShardBorder border = new ShardBorder(entries, exits, crossOffsets, targetShard, targetEntry, targetName,
+                mode, time, cost);
+        return new Shard(shard, CompiledGraph.compile(cities), border, targetTestRequired);
+    }
+
+    /**
+     * Getter function that gets the index of the shard
+     * @return shard index
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Getter function that gets the border of the shard
+     * @return border
+     */
+    public ShardBorder getBorder() {
+        return border;
+    }
+
+    /**
+     * Function that returns the number of cities of the shard
+     * @return number of cities
+     */
+    public int numberOfCities() {
+        return graph.numberOfCities();
+    }
+
+    /**
+     * Function that finds a city of the shard by its name, ignoring case
+     * @param cityName
+     * @return index of the city in the shard, -1 if the city is in another shard
+     */
+    public int locate(String cityName) {
+        Integer index = cityIndex.get(TravelAssistant.normalizeCityName(cityName));
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Getter function that gets the name of a city of the shard
+     * @param city
+     * @return city name
+     */
+    public String getCityName(int city) {
+        return graph.getCityName(city);
+    }
+
+    /**
+     * Function that computes the overlay of the shard for a travel preference
+     * one search from every entry state gives a row of the clique, none of them starts in the start city
+     * so testing in an entry city costs its hotel stay
+     * @param preference
+     * @param vaccinated
+     * @return overlay of the shard
+     */
+    public ShardOverlay overlay(TravelPreference preference, boolean vaccinated) {
+        int entryStates = border.numberOfEntries() * 2;
+        int exitStates = border.numberOfExits() * 2;
+        long[] clique = new long[entryStates * exitStates];
+        SearchContext context = searchContexts.get();
+
+        for (int entryState = 0; entryState < entryStates; entryState++) {
+            context.begin(graph, -1, preference, vaccinated);
+
+            // a vaccinated traveller never enters a city tested
+            if (!vaccinated || !TripSearch.isTested(entryState)) {
+                TripSearch.runFrom(graph, context, localState(entryState, true), -1, null);
+            }
+            for (int exitState = 0; exitState < exitStates; exitState++) {
+                clique[entryState * exitStates + exitState] = context.getShortestWeightFound(localState(exitState, false));
+            }
+        }
+
+        context.begin(graph, -1, preference, vaccinated);
+        return new ShardOverlay(exitStates, clique, crossWeights(context, null));
+    }
+
+    /**
+     * Function that searches from the start city to the cross paths of the shard
+     * @param startCity city of the shard the traveller starts in
+     * @param preference
+     * @param vaccinated
+     * @return weight of reaching each cross transition from the start city, see ShardOverlay.transition
+     */
+    public long[] searchFrom(int startCity, TravelPreference preference, boolean vaccinated) {
+        SearchContext context = searchContexts.get();
+        context.begin(graph, startCity, preference, vaccinated);
+        TripSearch.run(graph, context, -1);
+        return crossWeights(context, context);
+    }
+
+    /**
+     * Function that searches from the entry states of the shard to the destination city
+     * @param destinationCity city of the shard the traveller travels to
+     * @param preference
+     * @param vaccinated
+     * @return weight left to travel from each entry state, INFINITE when the destination cannot be reached
+     */
+    public long[] searchTo(int destinationCity, TravelPreference preference, boolean vaccinated) {
+        SearchContext context = searchContexts.get();
+        context.begin(graph, -1, preference, vaccinated);
+        TripSearch.runBackward(graph, context, destinationCity);
+        long[] weights = new long[border.numberOfEntries() * 2];
+        for (int entryState = 0; entryState < weights.length; entryState++) {
+            weights[entryState] = context.getShortestWeightFound(localState(entryState, true));
+        }
+        return weights;
+    }
+
+    /**
+     * Function that finds the hops of the best path between 2 states of the shard
+     * @param startCity city the traveller starts in, where testing is free, -1 when it is not in the path
+     * @param sourceState state of the shard the path starts in
+     * @param destinationCity city the path ends in
+     * @param destinationState state the path ends in, -1 for the best state of the destination city
+     * @param preference
+     * @param vaccinated
+     * @return path, null when the destination cannot be reached
+     */
+    public ShardPath path(int startCity, int sourceState, int destinationCity, int destinationState,
+                          TravelPreference preference, boolean vaccinated) {
+        SearchContext context = searchContexts.get();
+        context.begin(graph, startCity, preference, vaccinated);
+        int endState = destinationState;
+        if (destinationState == -1) {
+            endState = TripSearch.runFrom(graph, context, sourceState, destinationCity, null);
+        }
+        else {
+            TripSearch.runFrom(graph, context, sourceState, -1, null);
+        }
+        if (endState == -1 || context.getShortestWeightFound(endState) == Weight.INFINITE) {
+            return null;
+        }
+
+        int[] edges = TripSearch.pathEdges(context, endState);
+        String[] cityNames = new String[edges.length];
+        byte[] modes = new byte[edges.length];
+        int[] time = new int[edges.length];
+        int[] cost = new int[edges.length];
+        for (int hop = 0; hop < edges.length; hop++) {
+            cityNames[hop] = graph.getCityName(graph.getTarget(edges[hop]));
+            modes[hop] = graph.getMode(edges[hop]);
+            time[hop] = graph.getTimeMinutes(edges[hop]);
+            cost[hop] = graph.getCost(edges[hop]);
+        }
+        return new ShardPath(context.getShortestWeightFound(endState), endState, cityNames, modes, time, cost);
+    }
+
+    /**
+     * Function that adds the weights of the cross paths to the weights of their exit states
+     * the test in the exit city is free only in the start city of the context, like in TripSearch
+     * @param context context started for the shard with the travel preference of the query
+     * @param search context holding the weights of the exit states, null when every exit state weighs 0
+     * @return weight of each cross transition, see ShardOverlay.transition
+     */
+    private long[] crossWeights(SearchContext context, SearchContext search) {
+        boolean vaccinated = context.isVaccinated();
+        long[] weights = new long[border.numberOfCrossPaths() * 4];
+        for (int cross = 0; cross < border.numberOfCrossPaths(); cross++) {
+            int exitCity = crossSource[cross];
+            long hop = context.getPreference().edgeWeight(border.getCost(cross), border.getTimeMinutes(cross));
+            long testCost = vaccinated ? -1 : TripSearch.testCost(graph, context, exitCity);
+
+            for (int tested = 0; tested <= 1; tested++) {
+                long exitWeight = search == null ? 0 : search.getShortestWeightFound(TripSearch.state(exitCity, tested == 1));
+                boolean keepState = vaccinated || tested == 1 || !crossTargetTestRequired[cross];
+
+                weights[ShardOverlay.transition(cross, tested == 1, tested == 1)] =
+                        keepState && (!vaccinated || tested == 0) ? Weight.add(exitWeight, hop) : Weight.INFINITE;
+                weights[ShardOverlay.transition(cross, tested == 1, tested == 0)] =
+                        tested == 0 && testCost >= 0 ?
+                        Weight.add(exitWeight, context.getPreference().edgeWeight(testCost + border.getCost(cross),
+                                border.getTimeMinutes(cross))) : Weight.INFINITE;
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Function that returns the state of the shard of an entry or exit state
+     * @param borderState entry index or exit index * 2 + (tested ? 1 : 0)
+     * @param entry True for an entry state, False for an exit state
+     * @return state of the shard
+     */
+    private int localState(int borderState, boolean entry) {
+        int index = borderState >> 1;
+        int city = entry ? border.getEntryCity(index) : border.getExitCity(index);
+        return TripSearch.state(city, TripSearch.isTested(borderState));
+    }
+}
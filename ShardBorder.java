@@ -0,0 +1,171 @@
+//package com.company;
+
+/**
+ Shard border describes how a shard connects to the other shards
+ * entry cities are the cities of the shard that a path from another shard reaches
+ * exit cities are the cities of the shard that a path to another shard leaves
+ * a cross path is a path from an exit city to an entry city of another shard
+ * the cross paths are grouped by exit city, the paths of exit i are firstCross(i) .. endCross(i) - 1
+ * the border is sent to the coordinator once, it only holds plain arrays so any transport can carry it
+ */
+public class ShardBorder {
+
+    // Private variables
+    private final int[] entries;                // entry cities in the shard
+    private final int[] exits;                  // exit cities in the shard
+    private final int[] crossOffsets;           // first cross path of each exit city, one extra at the end
+    private final int[] targetShard;            // shard each cross path reaches
+    private final int[] targetEntry;            // entry city of the target shard each cross path reaches
+    private final String[] targetName;          // name of the city each cross path reaches
+    private final byte[] mode;                  // FLIGHT or TRAIN
+    private final int[] time;                   // time of travel of each cross path
+    private final int[] cost;                   // cost of travel of each cross path
+
+    // Constructor that Initializes the border from its arrays
+    ShardBorder(int[] entries, int[] exits, int[] crossOffsets, int[] targetShard, int[] targetEntry,
+                String[] targetName, byte[] mode, int[] time, int[] cost) {
+        this.entries = entries;
+        this.exits = exits;
+        this.crossOffsets = crossOffsets;
+        this.targetShard = targetShard;
+        this.targetEntry = targetEntry;
+        this.targetName = targetName;
+        this.mode = mode;
+        this.time = time;
+        this.cost = cost;
+    }
+
+    /**
+     * Function that returns the number of entry cities
+     * @return number of entry cities
+     */
+    public int numberOfEntries() {
+        return entries.length;
+    }
+
+    /**
+     * Function that returns the number of exit cities
+     * @return number of exit cities
+     */
+    public int numberOfExits() {
+        return exits.length;
+    }
+
+    /**
+     * Getter function that gets the city of an entry
+     * @param entry
+     * @return city index in the shard
+     */
+    public int getEntryCity(int entry) {
+        return entries[entry];
+    }
+
+    /**
+     * Getter function that gets the city of an exit
+     * @param exit
+     * @return city index in the shard
+     */
+    public int getExitCity(int exit) {
+        return exits[exit];
+    }
+
+    /**
+     * Function that returns the number of cross paths
+     * @return number of cross paths
+     */
+    public int numberOfCrossPaths() {
+        return targetShard.length;
+    }
+
+    /**
+     * Function that returns the first cross path leaving an exit city
+     * @param exit
+     * @return cross path index
+     */
+    public int firstCross(int exit) {
+        return crossOffsets[exit];
+    }
+
+    /**
+     * Function that returns the index after the last cross path leaving an exit city
+     * @param exit
+     * @return cross path index
+     */
+    public int endCross(int exit) {
+        return crossOffsets[exit + 1];
+    }
+
+    /**
+     * Function that finds the exit city a cross path leaves
+     * @param cross
+     * @return exit index
+     */
+    public int exitOf(int cross) {
+        int low = 0;
+        int high = exits.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (crossOffsets[middle] <= cross) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Getter function that gets the shard a cross path reaches
+     * @param cross
+     * @return shard
+     */
+    public int getTargetShard(int cross) {
+        return targetShard[cross];
+    }
+
+    /**
+     * Getter function that gets the entry city of the target shard a cross path reaches
+     * @param cross
+     * @return entry index in the border of the target shard
+     */
+    public int getTargetEntry(int cross) {
+        return targetEntry[cross];
+    }
+
+    /**
+     * Getter function that gets the name of the city a cross path reaches
+     * @param cross
+     * @return city name
+     */
+    public String getTargetName(int cross) {
+        return targetName[cross];
+    }
+
+    /**
+     * Getter function that gets the mode of travel of a cross path
+     * @param cross
+     * @return FLIGHT or TRAIN
+     */
+    public byte getMode(int cross) {
+        return mode[cross];
+    }
+
+    /**
+     * Getter function that gets the time of travel of a cross path
+     * @param cross
+     * @return time in minutes
+     */
+    public int getTimeMinutes(int cross) {
+        return time[cross];
+    }
+
+    /**
+     * Getter function that gets the cost of travel of a cross path
+     * @param cross
+     * @return cost
+     */
+    public int getCost(int cross) {
+        return cost[cross];
+    }
+}
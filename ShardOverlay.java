@@ -0,0 +1,54 @@
+//package com.company;
+
+/**
+ Shard overlay holds the weights of crossing a shard for a travel preference
+ * the clique is the best weight from every entry state to every exit state inside the shard
+ * a state of a border city is border index * 2 + (tested ? 1 : 0), like the search states of TripSearch
+ * the cross weights are the weights of taking a cross path from an exit state into an entry state of another shard
+ * both are precomputed once per preference and sent to the coordinator, see ShardedTravelAssistant
+ */
+public class ShardOverlay {
+
+    // Private variables
+    private final int numberOfExitStates;       // number of exit states, the row length of the clique
+    private final long[] clique;                // weight at [entry state * exit states + exit state], see Weight
+    private final long[] crossWeights;          // weight of each cross transition, see transition
+
+    // Constructor that Initializes [numberOfExitStates, clique, crossWeights]
+    ShardOverlay(int numberOfExitStates, long[] clique, long[] crossWeights) {
+        this.numberOfExitStates = numberOfExitStates;
+        this.clique = clique;
+        this.crossWeights = crossWeights;
+    }
+
+    /**
+     * Function that returns the index of a cross transition
+     * the traveller either keeps the state or takes the test in the exit city before the cross path
+     * @param cross cross path in the border of the shard
+     * @param fromTested state in the exit city
+     * @param toTested state in the entry city
+     * @return transition index, the arrays of cross weights hold 4 transitions per cross path
+     */
+    public static int transition(int cross, boolean fromTested, boolean toTested) {
+        return cross * 4 + (fromTested ? 2 : 0) + (toTested ? 1 : 0);
+    }
+
+    /**
+     * Getter function that gets the best weight from an entry state to an exit state inside the shard
+     * @param entryState
+     * @param exitState
+     * @return weight, INFINITE when the exit state cannot be reached
+     */
+    public long getCliqueWeight(int entryState, int exitState) {
+        return clique[entryState * numberOfExitStates + exitState];
+    }
+
+    /**
+     * Getter function that gets the weight of a cross transition
+     * @param transition see transition
+     * @return weight, INFINITE when the transition cannot be taken
+     */
+    public long getCrossWeight(int transition) {
+        return crossWeights[transition];
+    }
+}
@@ -0,0 +1,87 @@
+//package com.company;
+
+/**
+ Shard path is a path found inside a single shard, sent back to the coordinator to build a route
+ * it holds the weight of the path and every hop by the name of the city it reaches
+ * the state the path ends in decides how the route continues into the next shard
+ */
+public class ShardPath {
+
+    // Private variables
+    private final long weight;                  // weight of the path, see Weight
+    private final int endState;                 // state of the last city of the path in its shard
+    private final String[] cityNames;           // city reached by each hop
+    private final byte[] modes;                 // FLIGHT or TRAIN of each hop
+    private final int[] time;                   // time of travel of each hop
+    private final int[] cost;                   // cost of travel of each hop
+
+    // Constructor that Initializes [weight, endState, cityNames, modes, time, cost]
+    ShardPath(long weight, int endState, String[] cityNames, byte[] modes, int[] time, int[] cost) {
+        this.weight = weight;
+        this.endState = endState;
+        this.cityNames = cityNames;
+        this.modes = modes;
+        this.time = time;
+        this.cost = cost;
+    }
+
+    /**
+     * Getter function that gets the weight of the path
+     * @return weight
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Getter function that gets the state the path ends in
+     * @return state in the shard of the path
+     */
+    public int getEndState() {
+        return endState;
+    }
+
+    /**
+     * Function that returns the number of hops of the path
+     * @return number of hops
+     */
+    public int numberOfHops() {
+        return cityNames.length;
+    }
+
+    /**
+     * Getter function that gets the city a hop reaches
+     * @param hop 0 for the first hop
+     * @return city name
+     */
+    public String getCityName(int hop) {
+        return cityNames[hop];
+    }
+
+    /**
+     * Getter function that gets the mode of travel of a hop
+     * @param hop 0 for the first hop
+     * @return FLIGHT or TRAIN
+     */
+    public byte getMode(int hop) {
+        return modes[hop];
+    }
+
+    /**
+     * Getter function that gets the time of travel of a hop
+     * @param hop 0 for the first hop
+     * @return time in minutes
+     */
+    public int getTimeMinutes(int hop) {
+        return time[hop];
+    }
+
+    /**
+     * Getter function that gets the cost of travel of a hop
+     * @param hop 0 for the first hop
+     * @return cost
+     */
+    public int getCost(int hop) {
+        return cost[hop];
+    }
+}
@@ -0,0 +1,83 @@
+//package com.company;
+
+/**
+ Shard transport carries the requests of the coordinator to the shards and their answers back
+ * every request names the shard it is for, the shards may live in this process or on other nodes
+ * requests and answers only hold names, numbers, travel preferences and the plain arrays of
+ * ShardBorder, ShardOverlay and ShardPath, so a transport over the network only has to encode those
+ * a transport is used by many planTrip queries at once and must be safe to call from many threads
+ */
+public interface ShardTransport {
+
+    /**
+     * Function that returns the number of shards the transport reaches
+     * @return number of shards
+     */
+    int numberOfShards();
+
+    /**
+     * Function that fetches the border of a shard, see Shard.getBorder
+     * @param shard
+     * @return border
+     */
+    ShardBorder border(int shard);
+
+    /**
+     * Function that finds a city in a shard by its name, see Shard.locate
+     * @param shard
+     * @param cityName
+     * @return index of the city in the shard, -1 if the city is in another shard
+     */
+    int locate(int shard, String cityName);
+
+    /**
+     * Function that fetches the name of a city of a shard, see Shard.getCityName
+     * @param shard
+     * @param city
+     * @return city name
+     */
+    String cityName(int shard, int city);
+
+    /**
+     * Function that computes the overlay of a shard for a travel preference, see Shard.overlay
+     * @param shard
+     * @param preference
+     * @param vaccinated
+     * @return overlay
+     */
+    ShardOverlay overlay(int shard, TravelPreference preference, boolean vaccinated);
+
+    /**
+     * Function that searches a shard from the start city to its cross paths, see Shard.searchFrom
+     * @param shard
+     * @param startCity
+     * @param preference
+     * @param vaccinated
+     * @return weight of each cross transition
+     */
+    long[] searchFrom(int shard, int startCity, TravelPreference preference, boolean vaccinated);
+
+    /**
+     * Function that searches a shard from its entry states to the destination city, see Shard.searchTo
+     * @param shard
+     * @param destinationCity
+     * @param preference
+     * @param vaccinated
+     * @return weight left to travel from each entry state
+     */
+    long[] searchTo(int shard, int destinationCity, TravelPreference preference, boolean vaccinated);
+
+    /**
+     * Function that finds the hops of the best path between 2 states of a shard, see Shard.path
+     * @param shard
+     * @param startCity
+     * @param sourceState
+     * @param destinationCity
+     * @param destinationState
+     * @param preference
+     * @param vaccinated
+     * @return path, null when the destination cannot be reached
+     */
+    ShardPath path(int shard, int startCity, int sourceState, int destinationCity, int destinationState,
+                   TravelPreference preference, boolean vaccinated);
+}
@@ -0,0 +1,396 @@
+//package com.company;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ Sharded travel assistant plans trips over a graph split into shards, see Shard and GraphPartitioner
+ * it only holds the borders of the shards and the overlays of the travel preferences it was asked for
+ * the cities and paths stay in the shards, which it reaches through a shard transport
+ * a route that leaves the shard of the start city is found in 3 parts
+ * the shard of the start city searches from the start city to its cross paths
+ * the shard of the destination city searches from its entry cities to the destination city
+ * the coordinator joins them with a Dijkstra search over the overlay of border states in between
+ * the overlay of a shard holds the best weight between its entry and exit states, so a shard the route
+ * only crosses is not searched again, and the hops of the route are asked from the shards once it is found
+ * the weights are the weights of TravelAssistant.planTrip, so both plan routes of the same weight
+ */
+public class ShardedTravelAssistant {
+
+    // Private variables
+    private final ShardTransport transport;             // reaches the shards
+    private final ShardBorder[] borders;                // border of every shard
+    private final int[] entryBase;                      // first overlay node of the entry states of every shard
+    private final int[] exitBase;                       // first overlay node of the exit states of every shard
+    private final int[] nodeShard;                      // shard of every overlay node
+
+    // Overlays of the prepared travel preferences for travellers that are not vaccinated and that are
+    private final ConcurrentHashMap<TravelPreference, ShardOverlay[]> overlays = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<TravelPreference, ShardOverlay[]> vaccinatedOverlays = new ConcurrentHashMap<>();
+
+    // Search state of the overlay searches, one reusable search per thread
+    private final ThreadLocal<OverlaySearch> overlaySearches;
+
+    // Constructor that Initializes the coordinator from the borders of the shards of a transport
+    public ShardedTravelAssistant(ShardTransport transport) {
+        if (transport == null) {
+            throw new IllegalArgumentException("Bad input data transport");
+        }
+        this.transport = transport;
+        int numberOfShards = transport.numberOfShards();
+        this.borders = new ShardBorder[numberOfShards];
+        this.entryBase = new int[numberOfShards];
+        this.exitBase = new int[numberOfShards];
+
+        // the entry states of a shard are followed by its exit states
+        int numberOfNodes = 0;
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            borders[shard] = transport.border(shard);
+            entryBase[shard] = numberOfNodes;
+            exitBase[shard] = entryBase[shard] + borders[shard].numberOfEntries() * 2;
+            numberOfNodes = exitBase[shard] + borders[shard].numberOfExits() * 2;
+        }
+        this.nodeShard = new int[numberOfNodes];
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            int end = shard + 1 < numberOfShards ? entryBase[shard + 1] : numberOfNodes;
+            Arrays.fill(nodeShard, entryBase[shard], end, shard);
+        }
+        int nodes = numberOfNodes;
+        this.overlaySearches = ThreadLocal.withInitial(() -> new OverlaySearch(nodes));
+    }
+
+    /**
+     * Function that asks every shard for its overlay of a travel preference used by many queries
+     * the overlays of a preference are otherwise computed by its first query
+     * @param costImportance
+     * @param travelTimeImportance
+     * @param travelHopImportance
+     * @throws IllegalArgumentException
+     */
+    public void prepareOverlay(int costImportance, int travelTimeImportance, int travelHopImportance)
+            throws IllegalArgumentException {
+        if (costImportance < 0 || travelTimeImportance < 0 || travelHopImportance < 0) {
+            throw new IllegalArgumentException("Bad input data");
+        }
+        TravelPreference preference = new TravelPreference(costImportance, travelTimeImportance, travelHopImportance);
+        overlays(preference, false);
+        overlays(preference, true);
+    }
+
+    /**
+     * Function that calculates the best possible path between 2 cities across the shards
+     * @param startCity
+     * @param destinationCity
+     * @param isVaccinated
+     * @param costImportance
+     * @param travelTimeImportance
+     * @param travelHopImportance
+     * @return Route [best path cities], null when there is no path
+     * @throws IllegalArgumentException
+     */
+    public Route planTrip(String startCity, String destinationCity, boolean isVaccinated, int costImportance,
+                          int travelTimeImportance, int travelHopImportance) throws IllegalArgumentException {
+
+        // Data validation
+        int[] start = locate(startCity);
+        int[] destination = locate(destinationCity);
+        if (start == null || destination == null ||
+            costImportance < 0 || travelTimeImportance < 0 || travelHopImportance < 0) {
+            throw new IllegalArgumentException("Bad input data");
+        }
+        int startShard = start[0];
+        int startIndex = start[1];
+        int destinationShard = destination[0];
+        int destinationIndex = destination[1];
+        TravelPreference preference = new TravelPreference(costImportance, travelTimeImportance, travelHopImportance);
+        ShardOverlay[] overlay = overlays(preference, isVaccinated);
+
+        // a route that never leaves the shard of both cities is found by the shard alone
+        ShardPath direct = null;
+        long best = Weight.INFINITE;
+        if (startShard == destinationShard) {
+            direct = transport.path(startShard, startIndex, TripSearch.state(startIndex, false), destinationIndex, -1,
+                    preference, isVaccinated);
+            if (direct != null) {
+                best = direct.getWeight();
+            }
+        }
+
+        long[] fromStart = transport.searchFrom(startShard, startIndex, preference, isVaccinated);
+        long[] toDestination = transport.searchTo(destinationShard, destinationIndex, preference, isVaccinated);
+
+        // the cross paths of the start shard lead into the overlay
+        OverlaySearch search = overlaySearches.get();
+        search.begin();
+        ShardBorder startBorder = borders[startShard];
+        for (int transition = 0; transition < fromStart.length; transition++) {
+            search.reach(entryNode(startBorder, transition), fromStart[transition], -1, transition);
+        }
+
+        // main logic -- settle the border states in the order of their weight until none can beat the best route
+        int bestNode = -1;
+        CityPriorityQueue queue = search.queue;
+        while (!queue.isEmpty() && queue.minimumWeight() < best) {
+            int node = queue.removeMinimum();
+            long weight = search.weight(node);
+            int shard = nodeShard[node];
+            ShardBorder border = borders[shard];
+
+            if (node < exitBase[shard]) {
+                // entry state -- finish in the destination shard or cross the shard to its exit states
+                int entryState = node - entryBase[shard];
+                if (shard == destinationShard) {
+                    long total = Weight.add(weight, toDestination[entryState]);
+                    if (total < best) {
+                        best = total;
+                        bestNode = node;
+                    }
+                }
+                for (int exitState = 0; exitState < border.numberOfExits() * 2; exitState++) {
+                    search.reach(exitBase[shard] + exitState,
+                            Weight.add(weight, overlay[shard].getCliqueWeight(entryState, exitState)), node, -1);
+                }
+            }
+            else {
+                // exit state -- take the cross paths of the exit city into the next shards
+                int exitState = node - exitBase[shard];
+                int exit = exitState >> 1;
+                boolean tested = TripSearch.isTested(exitState);
+                for (int cross = border.firstCross(exit); cross < border.endCross(exit); cross++) {
+                    for (int toTested = 0; toTested <= 1; toTested++) {
+                        int transition = ShardOverlay.transition(cross, tested, toTested == 1);
+                        search.reach(entryNode(border, transition),
+                                Weight.add(weight, overlay[shard].getCrossWeight(transition)), node, transition);
+                    }
+                }
+            }
+        }
+
+        if (best == Weight.INFINITE) {
+            return null;
+        }
+        if (bestNode == -1) {
+            Hops hops = new Hops();
+            hops.add(direct);
+            return route(transport.cityName(startShard, startIndex), hops);
+        }
+        return route(search, bestNode, startShard, startIndex, destinationShard, destinationIndex, preference,
+                isVaccinated);
+    }
+
+    /**
+     * Function that asks the shards for the hops of the best route found over the overlay
+     * @param search overlay search that found the route
+     * @param bestNode entry state of the destination shard the route ends through
+     * @param startShard
+     * @param startIndex
+     * @param destinationShard
+     * @param destinationIndex
+     * @param preference
+     * @param vaccinated
+     * @return Route [best path cities]
+     */
+    private Route route(OverlaySearch search, int bestNode, int startShard, int startIndex, int destinationShard,
+                        int destinationIndex, TravelPreference preference, boolean vaccinated) {
+
+        // overlay nodes of the route in order of travel, entry and exit states take turns
+        int count = 0;
+        for (int node = bestNode; node != -1; node = search.previousNode[node]) {
+            count++;
+        }
+        int[] nodes = new int[count];
+        for (int node = bestNode, i = count - 1; node != -1; node = search.previousNode[node], i--) {
+            nodes[i] = node;
+        }
+
+        String startName = transport.cityName(startShard, startIndex);
+        Hops hops = new Hops();
+
+        // from the start city to the exit city of the first cross path
+        int transition = search.previousCross[nodes[0]];
+        ShardBorder border = borders[startShard];
+        int exitCity = border.getExitCity(border.exitOf(transition >> 2));
+        hops.add(transport.path(startShard, startIndex, TripSearch.state(startIndex, false), exitCity,
+                TripSearch.state(exitCity, (transition & 2) != 0), preference, vaccinated));
+        hops.addCross(border, transition >> 2);
+
+        // across every shard in between, from its entry state to its exit state
+        for (int i = 1; i < nodes.length; i += 2) {
+            int shard = nodeShard[nodes[i]];
+            border = borders[shard];
+            int entryState = nodes[i - 1] - entryBase[shard];
+            int exitState = nodes[i] - exitBase[shard];
+            int entryCity = border.getEntryCity(entryState >> 1);
+            exitCity = border.getExitCity(exitState >> 1);
+            hops.add(transport.path(shard, -1, TripSearch.state(entryCity, TripSearch.isTested(entryState)), exitCity,
+                    TripSearch.state(exitCity, TripSearch.isTested(exitState)), preference, vaccinated));
+            hops.addCross(border, search.previousCross[nodes[i + 1]] >> 2);
+        }
+
+        // from the entry state of the destination shard to the destination city
+        border = borders[destinationShard];
+        int entryState = bestNode - entryBase[destinationShard];
+        int entryCity = border.getEntryCity(entryState >> 1);
+        hops.add(transport.path(destinationShard, -1, TripSearch.state(entryCity, TripSearch.isTested(entryState)),
+                destinationIndex, -1, preference, vaccinated));
+        return route(startName, hops);
+    }
+
+    /**
+     * Function that builds a route from hops named by their cities
+     * the route runs on a small graph of its own cities and hops, which holds no test or hotel data
+     * @param startName name of the start city
+     * @param hops hops of the route in order of travel
+     * @return Route [best path cities]
+     */
+    private static Route route(String startName, Hops hops) {
+
+        CityStore cities = new CityStore();
+        HashMap<String, Integer> index = new HashMap<>();
+        int[][] ends = new int[hops.size()][2];
+        index.put(startName, cities.add(startName, false, -1, 0));
+        int from = 0;
+        for (int hop = 0; hop < hops.size(); hop++) {
+            String name = hops.cityNames.get(hop);
+            Integer to = index.get(name);
+            if (to == null) {
+                to = cities.add(name, false, -1, 0);
+                index.put(name, to);
+            }
+            cities.addEdge(from, to, hops.modes.get(hop), hops.time.get(hop), hops.cost.get(hop));
+            ends[hop][0] = from;
+            ends[hop][1] = to;
+            from = to;
+        }
+
+        CompiledGraph graph = CompiledGraph.compile(cities);
+        int[] edges = new int[hops.size()];
+        for (int hop = 0; hop < edges.length; hop++) {
+            edges[hop] = graph.findEdge(ends[hop][0], ends[hop][1], hops.modes.get(hop));
+        }
+        return new Route(graph, 0, edges);
+    }
+
+    /**
+     * Function that returns the overlays of all the shards for a travel preference, asking the shards the first time
+     * @param preference
+     * @param vaccinated
+     * @return overlay of every shard
+     */
+    private ShardOverlay[] overlays(TravelPreference preference, boolean vaccinated) {
+        ConcurrentHashMap<TravelPreference, ShardOverlay[]> prepared = vaccinated ? vaccinatedOverlays : overlays;
+        return prepared.computeIfAbsent(preference, key -> {
+            ShardOverlay[] overlay = new ShardOverlay[borders.length];
+            for (int shard = 0; shard < borders.length; shard++) {
+                overlay[shard] = transport.overlay(shard, key, vaccinated);
+            }
+            return overlay;
+        });
+    }
+
+    /**
+     * Function that finds the shard of a city and its index there
+     * @param cityName
+     * @return {shard, index of the city in the shard}, null when no shard holds the city
+     */
+    private int[] locate(String cityName) {
+        if (cityName == null || cityName.isEmpty()) {
+            return null;
+        }
+        for (int shard = 0; shard < borders.length; shard++) {
+            int index = transport.locate(shard, cityName);
+            if (index != -1) {
+                return new int[]{shard, index};
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Function that returns the overlay node a cross transition leads to
+     * @param border border of the shard the cross path leaves
+     * @param transition see ShardOverlay.transition
+     * @return entry state node in the shard the cross path reaches
+     */
+    private int entryNode(ShardBorder border, int transition) {
+        int cross = transition >> 2;
+        return entryBase[border.getTargetShard(cross)] + TripSearch.state(border.getTargetEntry(cross), (transition & 1) == 1);
+    }
+
+    /**
+     Overlay search holds the weight and the previous node of every overlay node of a single query
+     * every thread reuses its own search, a query starts by bumping the generation
+     */
+    private static class OverlaySearch {
+        private int generation = 0;
+        private final int[] stamp;
+        private final long[] weight;
+        private final int[] previousNode;           // -1 for an entry state reached from the start city
+        private final int[] previousCross;          // cross transition into an entry state, see ShardOverlay.transition
+        private final CityPriorityQueue queue;
+
+        private OverlaySearch(int numberOfNodes) {
+            stamp = new int[numberOfNodes];
+            weight = new long[numberOfNodes];
+            previousNode = new int[numberOfNodes];
+            previousCross = new int[numberOfNodes];
+            queue = new CityPriorityQueue(numberOfNodes);
+        }
+
+        private void begin() {
+            generation++;
+            if (generation == 0) {
+                Arrays.fill(stamp, 0);
+                generation = 1;
+            }
+            queue.clear();
+        }
+
+        private long weight(int node) {
+            return stamp[node] == generation ? weight[node] : Weight.INFINITE;
+        }
+
+        private void reach(int node, long weight, int previousNode, int previousCross) {
+            if (weight < weight(node)) {
+                stamp[node] = generation;
+                this.weight[node] = weight;
+                this.previousNode[node] = previousNode;
+                this.previousCross[node] = previousCross;
+                queue.insertOrDecrease(node, weight);
+            }
+        }
+    }
+
+    /**
+     Hops collects the hops of a route from the paths of the shards and the cross paths between them
+     */
+    private static class Hops {
+        private final ArrayList<String> cityNames = new ArrayList<>();
+        private final ArrayList<Byte> modes = new ArrayList<>();
+        private final ArrayList<Integer> time = new ArrayList<>();
+        private final ArrayList<Integer> cost = new ArrayList<>();
+
+        private int size() {
+            return cityNames.size();
+        }
+
+        private void add(ShardPath path) {
+            for (int hop = 0; hop < path.numberOfHops(); hop++) {
+                add(path.getCityName(hop), path.getMode(hop), path.getTimeMinutes(hop), path.getCost(hop));
+            }
+        }
+
+        private void addCross(ShardBorder border, int cross) {
+            add(border.getTargetName(cross), border.getMode(cross), border.getTimeMinutes(cross), border.getCost(cross));
+        }
+
+        private void add(String cityName, byte mode, int timeMinutes, int hopCost) {
+            cityNames.add(cityName);
+            modes.add(mode);
+            time.add(timeMinutes);
+            cost.add(hopCost);
+        }
+    }
+}
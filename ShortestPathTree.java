@@ -0,0 +1,102 @@
+//package com.company;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ Shortest path tree holds the best paths from one start city to every city it can reach
+ * it is the result of a single search over every [city, tested] state, see planTripsFrom
+ * the route to a city is built only when it is asked for, in the same format as planTrip
+ * the tree belongs to the snapshot it was searched on, cities added later are not reachable in it
+ * a tree is never repaired after paths change, planTripsFrom searches the newer snapshot again
+ */
+public class ShortestPathTree {
+
+    // Private variables
+    private final TravelAssistant assistant;    // travel assistant the tree was planned by
+    private final CompiledGraph graph;          // snapshot the tree was searched on
+    private final SearchContext context;        // finished search from the start city
+
+    // Constructor that Initializes [assistant, graph, context]
+    ShortestPathTree(TravelAssistant assistant, CompiledGraph graph, SearchContext context) {
+        this.assistant = assistant;
+        this.graph = graph;
+        this.context = context;
+    }
+
+    /**
+     * Getter function that gets the start city name
+     * @return start city name
+     */
+    public String getStartCity() {
+        return graph.getCityName(context.getStartCity());
+    }
+
+    /**
+     * Function that returns true if there is a path from the start city to a city
+     * @param destinationCity
+     * @return True if the city can be reached
+     * @throws IllegalArgumentException
+     */
+    public boolean isReachable(String destinationCity) throws IllegalArgumentException {
+        return bestState(destinationCity) != -1;
+    }
+
+    /**
+     * Function that returns the relative weight of the best path to a city
+     * @param destinationCity
+     * @return weight of the best path, Weight.INFINITE if the city cannot be reached
+     * @throws IllegalArgumentException
+     */
+    public long getWeight(String destinationCity) throws IllegalArgumentException {
+        int state = bestState(destinationCity);
+        return state != -1 ? context.getShortestWeightFound(state) : Weight.INFINITE;
+    }
+
+    /**
+     * Function that builds the best path from the start city to a city
+     * @param destinationCity
+     * @return Route [best path cities], null if the city cannot be reached
+     * @throws IllegalArgumentException
+     */
+    public Route routeTo(String destinationCity) throws IllegalArgumentException {
+        int state = bestState(destinationCity);
+        if (state == -1) {
+            return null;
+        }
+        return assistant.travelPath(graph, context.getStartCity(), TripSearch.pathEdges(context, state));
+    }
+
+    /**
+     * Function that returns the names of all the cities the start city can reach, including itself
+     * @return List of String [reachable city names]
+     */
+    public List<String> reachableCities() {
+        List<String> names = new ArrayList<String>();
+        for (int city = 0; city < graph.numberOfCities(); city++) {
+            if (TripSearch.bestState(context, city) != -1) {
+                names.add(graph.getCityName(city));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Function that returns the best reached state of a city
+     * @param destinationCity
+     * @return state with the lower weight, -1 when the city was not reached
+     * @throws IllegalArgumentException
+     */
+    private int bestState(String destinationCity) throws IllegalArgumentException {
+        int destinationIndex = assistant.cityExists(destinationCity);
+        if (destinationCity == null || destinationCity.isEmpty() || destinationIndex == -1) {
+            throw new IllegalArgumentException("Bad input data");
+        }
+
+        // a city added after the search is not part of the tree
+        if (destinationIndex >= graph.numberOfCities()) {
+            return -1;
+        }
+        return TripSearch.bestState(context, destinationIndex);
+    }
+}
@@ -0,0 +1,291 @@
+//package com.company;
+
+import java.util.Arrays;
+
+/**
+ Timetable holds the scheduled departures of every path as connections sorted by departure time
+ * a connection is one departure of a path, it leaves the start city at its departure minute
+ * and reaches the destination city the time of the path later
+ * the connections are plain arrays, an earliest arrival query scans them once in order [Connection Scan]
+ * the traveller is either tested or not like in TripSearch, so every city has 2 arrival times
+ * taking the test in a city holds the traveller there for the days of testing, the start city included
+ * a timetable belongs to the graph version it was built from, its connections use the edges of the snapshot
+ * and it stays valid for the later versions with the same snapshot and departures
+ */
+public class Timetable {
+
+    // Minutes in a day of testing
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Private variables
+    private final GraphVersion version;         // version the connections were built from
+    private final CompiledGraph graph;          // snapshot the connections belong to
+
+    // Connections sorted by departure time
+    private final int[] departureCity;          // city each connection leaves
+    private final int[] arrivalCity;            // city each connection reaches
+    private final int[] departureTime;          // departure minute of each connection
+    private final long[] arrivalTime;           // arrival minute of each connection
+    private final int[] connectionEdge;         // edge of the snapshot each connection travels
+
+    // Query state, one reusable state per thread
+    private final ThreadLocal<QueryState> queryStates;
+
+    // Constructor that Initializes the timetable from already sorted arrays
+    private Timetable(GraphVersion version, int[] departureCity, int[] arrivalCity, int[] departureTime,
+                      long[] arrivalTime, int[] connectionEdge) {
+        this.version = version;
+        this.graph = version.getGraph();
+        this.departureCity = departureCity;
+        this.arrivalCity = arrivalCity;
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+        this.connectionEdge = connectionEdge;
+        this.queryStates = ThreadLocal.withInitial(() -> new QueryState(TripSearch.numberOfStates(graph)));
+    }
+
+    /**
+     * Function that builds the connections of the departures of every path
+     * @param version graph version holding the snapshot and the departures of its edges
+     * @return timetable of the version
+     */
+    public static Timetable build(GraphVersion version) {
+
+        CompiledGraph graph = version.getGraph();
+        int numberOfConnections = 0;
+        for (int edge = 0; edge < graph.numberOfEdges(); edge++) {
+            int[] departures = version.departuresOf(edge);
+            numberOfConnections += departures != null ? departures.length : 0;
+        }
+
+        // sort by departure, the index in the low bits keeps the order of equal departures
+        long[] order = new long[numberOfConnections];
+        int[] edgeOf = new int[numberOfConnections];
+        int[] departureOf = new int[numberOfConnections];
+        int count = 0;
+        for (int edge = 0; edge < graph.numberOfEdges(); edge++) {
+            int[] departures = version.departuresOf(edge);
+            for (int d = 0; departures != null && d < departures.length; d++) {
+                edgeOf[count] = edge;
+                departureOf[count] = departures[d];
+                order[count] = ((long) departureOf[count] << 32) | count;
+                count++;
+            }
+        }
+        Arrays.sort(order);
+
+        int[] departureCity = new int[numberOfConnections];
+        int[] arrivalCity = new int[numberOfConnections];
+        int[] departureTime = new int[numberOfConnections];
+        long[] arrivalTime = new long[numberOfConnections];
+        int[] connectionEdge = new int[numberOfConnections];
+        for (int c = 0; c < numberOfConnections; c++) {
+            int index = (int) order[c];
+            int edge = edgeOf[index];
+            departureCity[c] = graph.getSource(edge);
+            arrivalCity[c] = graph.getTarget(edge);
+            departureTime[c] = departureOf[index];
+            arrivalTime[c] = (long) departureOf[index] + graph.getTimeMinutes(edge);
+            connectionEdge[c] = edge;
+        }
+        return new Timetable(version, departureCity, arrivalCity, departureTime, arrivalTime, connectionEdge);
+    }
+
+    /**
+     * Function that returns true if the timetable is valid for a graph version
+     * @param version
+     * @return True if the version has the snapshot and the departures the timetable was built from
+     */
+    public boolean belongsTo(GraphVersion version) {
+        return this.version.sharesSchedule(version);
+    }
+
+    /**
+     * Function that returns the number of connections
+     * @return number of connections
+     */
+    public int numberOfConnections() {
+        return departureTime.length;
+    }
+
+    /**
+     * Function that finds the journey that reaches a city the earliest after a departure minute
+     * @param startCity
+     * @param destinationCity
+     * @param vaccinated
+     * @param departureMinute minute from which the traveller waits in the start city
+     * @return journey with the earliest arrival, null when no connections reach the destination
+     */
+    public Journey earliestArrival(int startCity, int destinationCity, boolean vaccinated, int departureMinute) {
+
+        QueryState state = queryStates.get();
+        state.begin();
+        int source = TripSearch.state(startCity, false);
+        reach(state, source, departureMinute, -1, source, vaccinated);
+
+        // main logic -- scan the connections leaving after the departure minute in order
+        // a connection is taken if the traveller is in its city in a state that may enter the next city
+        long best = bestArrival(state, destinationCity);
+        for (int c = firstConnection(departureMinute); c < departureTime.length && departureTime[c] < best; c++) {
+            int city = departureCity[c];
+            int nextCity = arrivalCity[c];
+            for (int tested = 0; tested <= (vaccinated ? 0 : 1); tested++) {
+                int currentState = TripSearch.state(city, tested == 1);
+                if (state.arrival(currentState) > departureTime[c]) {
+                    continue;
+                }
+                if (vaccinated || tested == 1 || !graph.isTestRequired(nextCity)) {
+                    reach(state, TripSearch.state(nextCity, tested == 1), arrivalTime[c], c, currentState, vaccinated);
+                }
+            }
+            if (nextCity == destinationCity) {
+                best = bestArrival(state, destinationCity);
+            }
+        }
+
+        if (best == Long.MAX_VALUE) {
+            return null;
+        }
+        int destinationState = state.arrival(TripSearch.state(destinationCity, false)) == best ?
+                TripSearch.state(destinationCity, false) : TripSearch.state(destinationCity, true);
+        return journey(state, startCity, destinationState, departureMinute);
+    }
+
+    /**
+     * Function that records an earlier arrival in a state, and in its tested state after the days of testing
+     * @param state
+     * @param cityState
+     * @param arrival
+     * @param connection connection that reached the state, -1 for the start
+     * @param previousState state the connection was taken from
+     * @param vaccinated
+     */
+    private void reach(QueryState state, int cityState, long arrival, int connection, int previousState,
+                       boolean vaccinated) {
+        if (arrival >= state.arrival(cityState)) {
+            return;
+        }
+        state.set(cityState, arrival, connection, previousState);
+
+        // testing in the city, a vaccinated traveller never needs the tested state
+        int city = TripSearch.cityOf(cityState);
+        if (!vaccinated && !TripSearch.isTested(cityState) && graph.getTimeToTest(city) >= 0) {
+            int testedState = TripSearch.state(city, true);
+            long tested = arrival + (long) graph.getTimeToTest(city) * MINUTES_PER_DAY;
+            if (tested < state.arrival(testedState)) {
+                state.set(testedState, tested, QueryState.TESTED, cityState);
+            }
+        }
+    }
+
+    /**
+     * Function that returns the earliest arrival found so far in a city
+     * @param state
+     * @param city
+     * @return arrival minute, MAX value when not reached
+     */
+    private static long bestArrival(QueryState state, int city) {
+        return Math.min(state.arrival(TripSearch.state(city, false)), state.arrival(TripSearch.state(city, true)));
+    }
+
+    /**
+     * Function that returns the first connection leaving at or after a minute
+     * @param minute
+     * @return index of the connection, the number of connections when none leaves that late
+     */
+    private int firstConnection(int minute) {
+        int low = 0;
+        int high = departureTime.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (departureTime[middle] < minute) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Function that follows the states back from the destination to the start
+     * @param state
+     * @param startCity
+     * @param destinationState
+     * @param departureMinute
+     * @return journey in order of travel
+     */
+    private Journey journey(QueryState state, int startCity, int destinationState, int departureMinute) {
+
+        // count the connections, a tested state reached by testing goes back to the not tested state of its city
+        int hops = 0;
+        for (int current = destinationState; state.connection(current) != -1; current = state.previousState(current)) {
+            if (state.connection(current) != QueryState.TESTED) {
+                hops++;
+            }
+        }
+
+        int[] edges = new int[hops];
+        int[] departures = new int[hops];
+        long[] arrivals = new long[hops];
+        int i = hops;
+        for (int current = destinationState; state.connection(current) != -1; current = state.previousState(current)) {
+            int connection = state.connection(current);
+            if (connection != QueryState.TESTED) {
+                i--;
+                edges[i] = connectionEdge[connection];
+                departures[i] = departureTime[connection];
+                arrivals[i] = arrivalTime[connection];
+            }
+        }
+        return new Journey(new Route(graph, startCity, edges), departureMinute, departures, arrivals);
+    }
+
+    /**
+     Query state holds the earliest arrival, the connection and the previous state of every state of a single query
+     * every thread reuses its own state, a query starts by bumping the generation
+     */
+    private static class QueryState {
+        private static final int TESTED = -2;       // connection of a tested state reached by testing
+        private int generation = 0;
+        private final int[] stamp;
+        private final long[] arrival;
+        private final int[] connection;
+        private final int[] previousState;
+
+        private QueryState(int numberOfStates) {
+            stamp = new int[numberOfStates];
+            arrival = new long[numberOfStates];
+            connection = new int[numberOfStates];
+            previousState = new int[numberOfStates];
+        }
+
+        private void begin() {
+            generation++;
+            if (generation == 0) {
+                Arrays.fill(stamp, 0);
+                generation = 1;
+            }
+        }
+
+        private long arrival(int state) {
+            return stamp[state] == generation ? arrival[state] : Long.MAX_VALUE;
+        }
+
+        private int connection(int state) {
+            return stamp[state] == generation ? connection[state] : -1;
+        }
+
+        private int previousState(int state) {
+            return previousState[state];
+        }
+
+        private void set(int state, long arrival, int connection, int previousState) {
+            stamp[state] = generation;
+            this.arrival[state] = arrival;
+            this.connection[state] = connection;
+            this.previousState[state] = previousState;
+        }
+    }
+}
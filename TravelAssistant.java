@@ -1,17 +1,108 @@
 //package com.company;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Travel assistant is where you find the best path between 2 cities which may or may not be connected
  * between each other based on user precedence it stores all the cities and then path between then
  * based on the user preference of cost and hops and time we calculate the best path
+ * Cities and paths are added under the lock of the assistant, queries only read the compiled snapshot
+ * and keep their state in a per thread search context, so many threads can plan trips at once
+ * Every change is recorded in a change log and committed, a query pins the newest committed version
+ * without the lock of the assistant, so paths can be updated while the queries keep running
+ * a commit only moves the committed change, the first query after it builds the new version from the
+ * published one and every change committed since, so changes made one call at a time between 2 queries
+ * cost one build together, like the changes of one update, see pin
+ * landmark tables, hierarchies and the timetable are built from a pinned version without the lock
+ * of the assistant and never replace the ones of a newer version, see GraphVersion.Derived
  */
 public class TravelAssistant {
     // Private variable
-    // List of cities
-    private ArrayList<CityVertex> cities = new ArrayList<>();
+    // Cities and paths, stored as columns indexed by city
+    private final CityStore cities = new CityStore();
+
+    // Case-insensitive index from the normalized city name to its position in the city store
+    private ConcurrentHashMap<String, Integer> cityIndex = new ConcurrentHashMap<>();
+
+    // Change log of the cities and paths, the newest change is only read and written under the lock of the assistant
+    private GraphChange lastChange = GraphChange.start(0);
+
+    // Newest change the queries can see, changes made inside an update are committed when it ends
+    private volatile GraphChange committedChange = lastChange;
+
+    // Number of updates started and not yet ended
+    private int openUpdates = 0;
+
+    // Actions undoing the changes of the open update in the order they were made, run backwards on an abort
+    private final ArrayList<Runnable> undoActions = new ArrayList<>();
+
+    // True once an update was aborted, the outermost update then rolls back instead of committing
+    private boolean aborted = false;
+
+    // Newest version built, it falls behind the committed change until the next query pins it
+    private volatile GraphVersion publishedVersion = new GraphVersion(CompiledGraph.compile(cities), lastChange);
+
+    // Lock of the query that builds the next version, never held by a writer
+    private final Object publishLock = new Object();
+
+    // Snapshot loaded from a file whose cities and paths are not yet in the cities list, null once they are
+    private CompiledGraph frozenGraph = null;
+
+    // Landmark tables for ALT queries with the version they were built from, repaired for the later versions
+    private final AtomicReference<GraphVersion.Derived<LandmarkTables>> landmarkTables = new AtomicReference<>();
+    private volatile int numberOfLandmarks = 8;
+
+    // Scheduled departures of the paths as sorted connections, rebuilt only after the graph or a departure has changed
+    private final AtomicReference<GraphVersion.Derived<Timetable>> timetable = new AtomicReference<>();
+
+    // Contraction hierarchies of the prepared travel preferences, rebuilt only after the graph has changed
+    private final ConcurrentHashMap<TravelPreference, GraphVersion.Derived<ContractionHierarchy>> hierarchies =
+            new ConcurrentHashMap<>();
+
+    // Preferences whose hierarchy is scheduled or being contracted again in the background
+    private final Set<TravelPreference> recontracting = ConcurrentHashMap.newKeySet();
+
+    // Milliseconds a recontraction waits for more changes, and the duration of the last one in milliseconds
+    private volatile long recontractionDelay = 1000;
+    private volatile long lastRecontraction = 0;
+
+    // Single daemon thread running the recontractions of every assistant one at a time, away from the query pools
+    private static final ScheduledExecutorService RECONTRACTION = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "hierarchy-recontraction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Routes already planned on the current version of the graph
+    private volatile RouteCache routeCache = new RouteCache(1024);
+
+    // Search state of the queries, one reusable context per thread
+    private final ThreadLocal<SearchContext> searchContexts = ThreadLocal.withInitial(SearchContext::new);
+
+    // Search state of the backward half of bidirectional queries, one reusable context per thread
+    private final ThreadLocal<SearchContext> backwardContexts = ThreadLocal.withInitial(SearchContext::new);
+
+    // Sink the metrics of every planTrip query are sent to, null when the queries are not measured
+    private volatile MetricsSink metricsSink = null;
+
+    // Metrics of the current planTrip query, one reusable object per thread
+    private final ThreadLocal<QueryMetrics> queryMetrics = ThreadLocal.withInitial(QueryMetrics::new);
 
     // Add city function which adds a city into the travel assistant and makes it available for travelling
     /**
@@ -23,24 +114,25 @@ public class TravelAssistant {
      * @return True if the city is added else returns false
      * @throws IllegalArgumentException
      */
-    public boolean addCity(String cityName, boolean testRequired, int timeToTest, int nightlyHotelCost )
+    public synchronized boolean addCity(String cityName, boolean testRequired, int timeToTest, int nightlyHotelCost )
             throws IllegalArgumentException{
 
         // validate if bad data exits
         // Throws exception in this case
         cityBadDataExists(cityName,nightlyHotelCost);
 
-        // creating and instance of the city
-        CityVertex newCity = new CityVertex(cityName,testRequired,timeToTest,nightlyHotelCost);
-
-        // if the list of cities are empty add them to the list
-        if (this.cities.isEmpty()){
-            cities.add(newCity);
-            return true;
-        }
-        // if the list of cities is not empty and City dose not exits then add them to the list.
-        else if(!this.cities.isEmpty() && (cityExists(newCity.getCityName()) == -1)){
-            cities.add(newCity);
+        // if the City dose not exits then add it to the store and index its normalized name
+        // a query only looks up the cities of the version it pinned, so a city not yet committed stays unknown to it
+        String key = normalizeCityName(cityName);
+        if(!cityIndex.containsKey(key)){
+            thaw();
+            int index = cities.add(cityName,testRequired,timeToTest,nightlyHotelCost);
+            record(GraphChange.addCity(cities.getCityName(index), testRequired, timeToTest, nightlyHotelCost));
+            remember(() -> {
+                cityIndex.remove(key);
+                cities.removeLast();
+            });
+            cityIndex.put(key, index);
             return true;
         }
         else{
@@ -78,388 +170,850 @@ public class TravelAssistant {
     }
 
     /**
-     * Function that calculates the best possible path between 2 cities based on Dijkstra algorithm
-     * Based on user precedence calculates weight between cities and finds the best path between them
+     * UpdateFlight function changes the time and cost of a known flight path between 2 cities
      * @param startCity
      * @param destinationCity
-     * @param isVaccinated
-     * @param costImportance
-     * @param travelTimeImportance
-     * @param travelHopImportance
-     * @return List of String [best path cities]
+     * @param flightTime
+     * @param flightCost
+     * @return True if the path was updated, False if there is no such flight
      * @throws IllegalArgumentException
      */
-    public List<String> planTrip (String startCity, String destinationCity, boolean isVaccinated, int
-            costImportance, int travelTimeImportance, int travelHopImportance ) throws IllegalArgumentException{
-
-        // Initializing the return string
-        List<String> routeInOrder = new ArrayList<String>();        // main output sting of the path
-
-        // variables to perform operations
-        int nextCity;                       // Stores the next city index
-        int weight;                         // Weight of the city up to that point in the path
-        boolean canTravel;                  // True if a path exits you can use to travel based on the des requirements
-        CityVertex nextCityVertex;          // stores the next city in the path
-
-        // Initialize all the values before finding the best path for the user
-        InitializeDefaultValues();
+    public boolean updateFlight( String startCity, String destinationCity, int flightTime, int flightCost)
+            throws IllegalArgumentException{
+        return updateEdge(startCity,destinationCity,"Flight",flightTime,flightCost);
+    }
 
-        // Data validation
-        int startIndex = cityExists(startCity);
-        int destinationIndex = cityExists(destinationCity);
+    /**
+     * UpdateTrain function changes the time and cost of a known train path between 2 cities
+     * @param startCity
+     * @param destinationCity
+     * @param trainTime
+     * @param trainCost
+     * @return True if the path was updated, False if there is no such train
+     * @throws IllegalArgumentException
+     */
+    public boolean updateTrain( String startCity, String destinationCity, int trainTime, int trainCost)
+            throws IllegalArgumentException{
+        return updateEdge(startCity,destinationCity,"Train",trainTime,trainCost);
+    }
 
-        // if bad input data exists then throw an exception
-        if(startCity == null   || destinationCity == null   ||
-           startCity.isEmpty() || destinationCity.isEmpty() ||
-           costImportance <0   || travelHopImportance <0    ||
-           startIndex == -1 || destinationIndex == -1       || travelTimeImportance <0){
-            throw new IllegalArgumentException("Bad input data");
-        }
+    /**
+     * RemoveFlight function removes a known flight path between 2 cities
+     * @param startCity
+     * @param destinationCity
+     * @return True if the path was removed, False if there is no such flight
+     * @throws IllegalArgumentException
+     */
+    public boolean removeFlight( String startCity, String destinationCity) throws IllegalArgumentException{
+        return removeEdge(startCity,destinationCity,"Flight");
+    }
 
-        // only if both start city and destination city exits
-        if((startIndex >=0 && destinationIndex >=0)) {
+    /**
+     * RemoveTrain function removes a known train path between 2 cities
+     * @param startCity
+     * @param destinationCity
+     * @return True if the path was removed, False if there is no such train
+     * @throws IllegalArgumentException
+     */
+    public boolean removeTrain( String startCity, String destinationCity) throws IllegalArgumentException{
+        return removeEdge(startCity,destinationCity,"Train");
+    }
 
-            // initialize the source node
-            CityVertex source = this.cities.get(startIndex);
-            source.setShortestWeightFound(0);
-            source.setPreviousCity(source.getCityName());
+    /**
+     * AddFlightDeparture function schedules a departure of a known flight path between 2 cities
+     * @param startCity
+     * @param destinationCity
+     * @param departureMinute minute of the timetable the flight leaves, it arrives the flight time later
+     * @return True if the departure is added, False if there is no such flight or the departure is already known
+     * @throws IllegalArgumentException
+     */
+    public boolean addFlightDeparture( String startCity, String destinationCity, int departureMinute)
+            throws IllegalArgumentException{
+        return addDeparture(startCity,destinationCity,"Flight",departureMinute);
+    }
 
-            //initialize
-            CityVertex minimumVertex = null;
+    /**
+     * AddTrainDeparture function schedules a departure of a known train path between 2 cities
+     * @param startCity
+     * @param destinationCity
+     * @param departureMinute minute of the timetable the train leaves, it arrives the train time later
+     * @return True if the departure is added, False if there is no such train or the departure is already known
+     * @throws IllegalArgumentException
+     */
+    public boolean addTrainDeparture( String startCity, String destinationCity, int departureMinute)
+            throws IllegalArgumentException{
+        return addDeparture(startCity,destinationCity,"Train",departureMinute);
+    }
 
-            // calculate the relative weight between edges
-            calculateRelativeEdgeWeight(costImportance, travelTimeImportance, travelHopImportance,isVaccinated);
+    /**
+     * Function that sets the sink the metrics of every planTrip query are sent to
+     * queries are only timed and counted while a sink is set
+     * @param sink sink of the metrics, null to stop measuring the queries
+     */
+    public void setMetricsSink(MetricsSink sink){
+        this.metricsSink = sink;
+    }
 
-            // main logic
-            while (!vistedAllCities()) {
+    /**
+     * Getter function that gets the sink the metrics of the planTrip queries are sent to
+     * @return sink, null when the queries are not measured
+     */
+    public MetricsSink getMetricsSink(){
+        return this.metricsSink;
+    }
 
-                try{
-                    // function that returns a minimum vertex.
-                    minimumVertex = minimumWeightedVertex();
-                    minimumVertex.setVisited(true);
-                }
-                catch (Exception e){
-                    break;
-                }
+    /**
+     * Function that returns the immutable snapshot of the newest committed version that the queries run on
+     * @return compiled snapshot of the travel assistant
+     */
+    public CompiledGraph compile(){
+        return pin().getGraph();
+    }
 
-                // Logic to visit all the nodes from the chosen vertex
-                // and calculate its minimum weight
-                for (int i = 0; i < minimumVertex.getEdges().size(); i++) {
+    /**
+     * Function that pins the newest committed version of the cities and paths for a query
+     * the query reads only the pinned version, so it never waits for a writer nor sees half of an update
+     * the published version is returned as it is unless changes were committed after it,
+     * then the first query to see them builds and publishes the version holding them all
+     * @return pinned version
+     */
+    GraphVersion pin(){
+        GraphVersion version = this.publishedVersion;
+        if(this.committedChange.getVersion() <= version.getVersion()){
+            return version;
+        }
+        return publish();
+    }
 
-                    // get the values of the next city
-                    nextCity = cityExists(minimumVertex.getEdges().get(i).getDestinationCity());
-                    nextCityVertex = this.cities.get(nextCity);
-                    canTravel = canTravelNext(minimumVertex,nextCityVertex,isVaccinated);
+    /**
+     * Function that builds and publishes the version of the committed change
+     * the queries that pin at the same time wait for a single build instead of building it each,
+     * the writers never wait for it, they only append to the log after the committed change
+     * @return published version
+     */
+    private GraphVersion publish(){
+        synchronized(this.publishLock){
+            GraphVersion version = this.publishedVersion.advanceTo(this.committedChange);
+            this.publishedVersion = version;
+            return version;
+        }
+    }
 
-                    // perform operation if we can travel into the city
-                    if(canTravel){
+    /**
+     * Function that starts an update, the changes made until the matching endUpdate are committed together
+     * queries keep seeing the version before the update while it is open
+     */
+    synchronized void beginUpdate(){
+        this.openUpdates++;
+    }
 
-                        // calculate weight
-                        weight = calculateWeight(minimumVertex,minimumVertex.getEdges().get(i));
+    /**
+     * Function that ends an update started by beginUpdate, the outermost one commits its changes
+     */
+    synchronized void endUpdate(){
+        finishUpdate();
+    }
 
-                        if(weight < nextCityVertex.getShortestWeightFound()){
+    /**
+     * Function that ends an update started by beginUpdate without keeping its changes
+     * the outermost update then undoes every change made since it started, queries never see any of them
+     */
+    synchronized void abortUpdate(){
+        this.aborted = true;
+        finishUpdate();
+    }
 
-                            nextCityVertex.setShortestWeightFound(weight);
-                            nextCityVertex.setPreviousCity(minimumVertex.getCityName());
+    /**
+     * Function that ends an update, committing or rolling back its changes once the outermost one ends
+     */
+    private void finishUpdate(){
+        this.openUpdates--;
+        if(this.openUpdates > 0){
+            return;
+        }
+        if(this.aborted){
+            rollback();
+        }
+        commit();
+        this.undoActions.clear();
+        this.aborted = false;
+    }
 
-                            //chosen edge -- make sure that other edges to the same destination are not chosen
-                            for(int j=0; j<minimumVertex.getEdges().size(); j++ ){
-                                if(minimumVertex.getEdges().get(j).getDestinationCity().equalsIgnoreCase(nextCityVertex.getCityName())){
-                                    minimumVertex.getEdges().get(j).setChosen(false);
-                                }
-                            }
-                            minimumVertex.getEdges().get(i).setChosen(true);
-                        }
-                    }
+    /**
+     * Function that undoes the changes of an aborted update, newest first
+     * the change log goes back to the committed change and skips the versions of the dropped changes,
+     * so no route cached for one of them answers a later version
+     */
+    private void rollback(){
+        for(int i = this.undoActions.size() - 1; i >= 0; i--){
+            this.undoActions.get(i).run();
+        }
+        this.lastChange = this.committedChange.skipTo(this.lastChange.getVersion() + 1);
+    }
 
-                }
-            }
+    /**
+     * Function that remembers how to undo a change while an update is open
+     * the caller must hold the lock of the assistant
+     * @param undo action restoring the cities and paths as they were before the change
+     */
+    private void remember(Runnable undo){
+        if(this.openUpdates > 0){
+            this.undoActions.add(undo);
         }
-        else{
-            return null;
+    }
+
+    /**
+     * Function that records a change in the change log, committing it unless an update is open
+     * the caller must hold the lock of the assistant
+     * @param change
+     * @return version of the graph with the change
+     */
+    private long record(GraphChange change){
+        this.lastChange = this.lastChange.append(change);
+        if(this.openUpdates == 0){
+            commit();
         }
+        return this.lastChange.getVersion();
+    }
 
-        // Calculate the Travel path and return the string
-        routeInOrder = travelPath(startIndex,destinationIndex);
+    /**
+     * Function that commits the changes recorded so far
+     * the version holding them is built by the next query, see pin, so a commit costs no copy of the graph
+     * the caller must hold the lock of the assistant
+     */
+    private void commit(){
+        this.committedChange = this.lastChange;
+    }
 
-        return routeInOrder;
+    /**
+     * Function that saves the cities and paths to a binary snapshot file
+     * scheduled departures are not part of the snapshot
+     * @param file
+     * @throws IOException
+     */
+    public void saveSnapshot(Path file) throws IOException{
+        compile().save(file);
+    }
 
+    /**
+     * Function that creates a travel assistant from a binary snapshot file saved by saveSnapshot
+     * the file is copied once into heap arrays and the queries run on them, not on the file
+     * the city and path objects are only built when a city or a path is added
+     * @param file
+     * @return travel assistant holding the cities and paths of the file
+     * @throws IOException
+     * @throws IllegalArgumentException
+     */
+    public static TravelAssistant loadSnapshot(Path file) throws IOException, IllegalArgumentException{
+        CompiledGraph graph = CompiledGraph.load(file);
+        TravelAssistant assistant = new TravelAssistant();
+        for(int i = 0; i < graph.numberOfCities(); i++){
+            assistant.cityIndex.putIfAbsent(normalizeCityName(graph.getCityName(i)), i);
+        }
+        assistant.frozenGraph = graph;
+        assistant.publishedVersion = new GraphVersion(graph, assistant.lastChange);
+        return assistant;
     }
 
     /**
-     * Function that calculates the bets path based on the weight and returns a path string
-     * @param startIndex
-     * @param desIndex
-     * @return List of String of the best path from source to destination
-     */
-    private List<String> travelPath(int startIndex, int desIndex) {
-        List <String> routeInOrder = new ArrayList<String>();
-        List <String> cityPathList = new ArrayList<>();
-        String previousCityName = null;
-        CityVertex city = null;
-        String path = null;
-
-        if(this.cities.get(desIndex).getPreviousCity() != null){
-            city = this.cities.get(desIndex);
-
-            // loop until we reach the source by back tracking it
-            while(!city.getPreviousCity().equalsIgnoreCase(city.getCityName())){
-                // add the city into the list
-                cityPathList.add(city.getCityName());
-                city = this.cities.get(cityExists(city.getPreviousCity()));
+     * Function that fills the cities and paths of the store from a loaded snapshot before the first change to the graph
+     * the edges keep their order, so compiling the cities gives back the same snapshot
+     */
+    private synchronized void thaw(){
+        CompiledGraph graph = this.frozenGraph;
+        if(graph == null){
+            return;
+        }
+        for(int i = 0; i < graph.numberOfCities(); i++){
+            this.cities.add(graph.getCityName(i), graph.isTestRequired(i),
+                    graph.getTimeToTest(i), graph.getNightlyHotelCosts(i));
+        }
+        for(int i = 0; i < graph.numberOfCities(); i++){
+            for(int e = graph.firstEdge(i); e < graph.endEdge(i); e++){
+                this.cities.addEdge(i, graph.getTarget(e), graph.getMode(e), graph.getTimeMinutes(e), graph.getCost(e));
             }
+        }
+        this.frozenGraph = null;
+    }
 
-            cityPathList.add(city.getCityName());
-
-            System.out.println(cityPathList);
-
-            for(int j = cityPathList.size()-1; j>=0; j--){
-                path = "";
-                city = this.cities.get(cityExists(cityPathList.get(j)));
-                if(city.getPreviousCity().equalsIgnoreCase(city.getCityName())){
+    /**
+     * Function that splits the cities and paths into shards of about the same number of cities
+     * the shards hold the current snapshot, cities and paths added later are not part of them
+     * @param numberOfShards number of shards >= 1
+     * @return shards, to be reached through a ShardTransport by a ShardedTravelAssistant
+     * @throws IllegalArgumentException
+     */
+    public Shard[] split(int numberOfShards) throws IllegalArgumentException{
+        CompiledGraph graph = compile();
+        return Shard.split(graph, GraphPartitioner.partition(graph, numberOfShards), numberOfShards);
+    }
 
-                    // get city name from start
-                    path = "start"+" "+city.getCityName();
-                    routeInOrder.add(path);
+    /**
+     * Function that picks the landmarks used by ALT queries and builds their tables
+     * the tables are repaired on the next ALT query after paths change and rebuilt after a city is added
+     * @param numberOfLandmarks number of landmark cities, more landmarks give tighter bounds
+     * @throws IllegalArgumentException
+     */
+    public void prepareLandmarks(int numberOfLandmarks) throws IllegalArgumentException{
+        if(numberOfLandmarks <= 0){
+            throw new IllegalArgumentException("bad data input for number of landmarks, cannot be "+ numberOfLandmarks);
+        }
+        this.numberOfLandmarks = numberOfLandmarks;
+        GraphVersion version = pin();
+        GraphVersion.Derived.publish(this.landmarkTables,
+                new GraphVersion.Derived<>(version, LandmarkTables.build(version.getGraph(), numberOfLandmarks)));
+    }
 
-                    if(j-1 >= 0){
-                        path = getChosenPath(cityPathList.get(j),cityPathList.get(j-1));
-                        routeInOrder.add(path);
-                    }
+    /**
+     * Function that returns the landmark tables of a pinned version, repairing or building them if the graph has changed
+     * the tables are built without any lock and published unless tables of a newer version already are
+     * the paths changed since the published tables are read from the change log
+     * @param version
+     * @return landmark tables of the version, null when tables of a newer version are published
+     */
+    private LandmarkTables landmarks(GraphVersion version){
+        GraphVersion.Derived<LandmarkTables> published = this.landmarkTables.get();
+        CompiledGraph graph = version.getGraph();
+        if(published != null && published.getValue().belongsTo(graph)){
+            return published.getValue();
+        }
 
-                }
-                else {
-                    if(j-1 >= 0){
-                        path = getChosenPath(cityPathList.get(j),cityPathList.get(j-1));
-                        routeInOrder.add(path);
-                    }
-                }
+        // tables repaired for a newer graph are not valid bounds of an older one
+        if(published != null && published.getVersion().getVersion() > version.getVersion()){
+            return null;
+        }
+        LandmarkTables tables = null;
+        if(published != null && published.getValue().numberOfCities() == graph.numberOfCities()){
+            List<int[]> changedEdges = version.changedEdgesSince(published.getVersion(), graph.numberOfCities());
+            if(changedEdges != null){
+                tables = published.getValue().repair(graph, changedEdges);
             }
-
         }
-        else{
-            routeInOrder = null;
+        if(tables == null){
+            tables = LandmarkTables.build(graph, this.numberOfLandmarks);
         }
-
-        return routeInOrder;
+        GraphVersion.Derived.publish(this.landmarkTables, new GraphVersion.Derived<>(version, tables));
+        return tables;
     }
 
     /**
-     * Function that returns Path based on user preference between 2 cities
-     * @param current
-     * @param next
-     * @return chosen path between 2 cities
+     * Function that builds a contraction hierarchy for a travel preference used by many queries
+     * vaccinated planTrip queries in DIJKSTRA mode with this preference are answered from the hierarchy
+     * after the graph changes the hierarchy is contracted again in its old order in the background,
+     * recontraction is not incremental, every city is contracted again at about the cost of this build,
+     * so it waits for more changes first, see setRecontractionDelay, queries use the plain search until it is ready
+     * @param costImportance
+     * @param travelTimeImportance
+     * @param travelHopImportance
+     * @throws IllegalArgumentException
      */
-    private String getChosenPath(String current, String next) {
-
-        String path = "";
-        TravelHopEdge edge;
-        CityVertex nextCity = this.cities.get(cityExists(next));
-        CityVertex currentCity = this.cities.get(cityExists(current));
-
-        for(int i=0; i< currentCity.getEdges().size(); i++ ){
+    public void prepareHierarchy(int costImportance, int travelTimeImportance, int travelHopImportance)
+            throws IllegalArgumentException{
+        if(costImportance <0 || travelTimeImportance <0 || travelHopImportance <0){
+            throw new IllegalArgumentException("Bad input data");
+        }
+        TravelPreference preference = new TravelPreference(costImportance, travelTimeImportance, travelHopImportance);
+        GraphVersion version = pin();
+        GraphVersion.Derived.publish(this.hierarchies, preference,
+                new GraphVersion.Derived<>(version, ContractionHierarchy.build(version.getGraph(), preference)));
+    }
 
-            edge = currentCity.getEdges().get(i);
+    /**
+     * Function that returns the contraction hierarchy of a prepared preference if it was built for a pinned version
+     * a hierarchy of an older version schedules a recontraction in the background instead of delaying the query
+     * at most one recontraction per preference is scheduled, it starts after the recontraction delay or after
+     * as long as the last recontraction took, whichever is longer, and contracts every change made until then
+     * @param version
+     * @param preference
+     * @return contraction hierarchy, null when the preference was not prepared or its hierarchy is not ready
+     */
+    private ContractionHierarchy hierarchy(GraphVersion version, TravelPreference preference){
+        GraphVersion.Derived<ContractionHierarchy> hierarchy = this.hierarchies.get(preference);
+        if(hierarchy == null){
+            return null;
+        }
+        if(hierarchy.getValue().belongsTo(version.getGraph())){
+            return hierarchy.getValue();
+        }
+        if(hierarchy.getVersion().getVersion() < version.getVersion() && this.recontracting.add(preference)){
+            RECONTRACTION.schedule(() -> recontract(preference),
+                    Math.max(this.recontractionDelay, this.lastRecontraction), TimeUnit.MILLISECONDS);
+        }
+        return null;
+    }
 
-            if(edge.getDestinationCity().equalsIgnoreCase(nextCity.getCityName())){
-                if(edge.isChosen()){
-                    if(edge.getModeOfTravel().equalsIgnoreCase("Flight")){
-                        path = "fly"+" "+nextCity.getCityName();
-                    }
-                    else if(edge.getModeOfTravel().equalsIgnoreCase("Train")){
-                        path = "train"+" "+nextCity.getCityName();
-                    }
-                }
+    /**
+     * Function that contracts the hierarchy of a preference again for the newest version
+     * the new hierarchy is published unless a hierarchy of a newer version already is
+     * @param preference
+     */
+    private void recontract(TravelPreference preference){
+        long start = System.nanoTime();
+        try{
+            GraphVersion version = pin();
+            GraphVersion.Derived<ContractionHierarchy> hierarchy = this.hierarchies.get(preference);
+            if(hierarchy.getVersion().getVersion() < version.getVersion() &&
+               !hierarchy.getValue().belongsTo(version.getGraph())){
+                GraphVersion.Derived.publish(this.hierarchies, preference,
+                        new GraphVersion.Derived<>(version, hierarchy.getValue().recontract(version.getGraph())));
             }
         }
-
-        return path;
+        finally{
+            this.lastRecontraction = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            this.recontracting.remove(preference);
+        }
     }
 
     /**
-     * Function that initializes default values across all values of cities and edges
+     * Function that sets how long a recontraction of a prepared hierarchy waits for more changes of the graph
+     * a recontraction also waits at least as long as the last one took, so it never takes more than half of its thread
+     * @param delayMillis milliseconds, 0 to recontract as soon as the thread is free
+     * @throws IllegalArgumentException
      */
-    private void InitializeDefaultValues() {
-
-        //Loop through and set all the cities and its edges
-        for(int k=0; k<this.cities.size(); k++){
-            this.cities.get(k).setPreviousCity(null);
-            this.cities.get(k).setShortestWeightFound(Integer.MAX_VALUE);
-            this.cities.get(k).setVisited(false);
-            this.cities.get(k).setTested(false);
-
-            // initialize all the edges of the cities as well
-            for(int j=0; j<this.cities.get(k).getEdges().size(); j++){
-
-                // Set relative edge between cities
-                TravelHopEdge e = this.cities.get(k).getEdges().get(j);
-                e.setWeight(Integer.MAX_VALUE);
-                e.setChosen(false);
-            }
+    public void setRecontractionDelay(long delayMillis) throws IllegalArgumentException{
+        if(delayMillis < 0){
+            throw new IllegalArgumentException("bad data input for recontraction delay, cannot be "+ delayMillis);
         }
+        this.recontractionDelay = delayMillis;
     }
 
     /**
-     * Function that calculates weights
-     * @param currentCity
-     * @param edge
-     * @return weight up to the city from the previous path
+     * Function that replaces the route cache with an empty cache of another capacity
+     * @param capacity maximum number of routes kept
+     * @throws IllegalArgumentException
      */
-    private int calculateWeight(CityVertex currentCity,TravelHopEdge edge){
+    public void setRouteCacheCapacity(int capacity) throws IllegalArgumentException{
+        this.routeCache = new RouteCache(capacity);
+    }
 
-        int weight = 0;
-        int timeWeight = 0;
+    /**
+     * Getter function that gets the route cache with its hit, miss and eviction counters
+     * @return route cache
+     */
+    public RouteCache getRouteCache(){
+        return this.routeCache;
+    }
 
-        weight = edge.getWeight()+currentCity.getShortestWeightFound();
-        return weight;
+    /**
+     * Function that calculates the best possible path between 2 cities based on Dijkstra algorithm
+     * The search runs over [city, tested] states so that a city can be reached both tested and not tested
+     * Edges are weighted only when the search reaches them, so the cost grows with the explored region
+     * @param startCity
+     * @param destinationCity
+     * @param isVaccinated
+     * @param costImportance
+     * @param travelTimeImportance
+     * @param travelHopImportance
+     * @return Route [best path cities], null when there is no path
+     * @throws IllegalArgumentException
+     */
+    public Route planTrip (String startCity, String destinationCity, boolean isVaccinated, int
+            costImportance, int travelTimeImportance, int travelHopImportance ) throws IllegalArgumentException{
+        return planTrip(startCity, destinationCity, isVaccinated, costImportance, travelTimeImportance,
+                travelHopImportance, SearchMode.DIJKSTRA);
     }
-    
-    // Function that return true if we can travel into the next city
 
     /**
-     * Function that validates true if we can travel into the next city.
-     * @param minimumVertex
-     * @param nextCityVertex
+     * Function that calculates the best possible path between 2 cities with the chosen search mode
+     * A query repeated on the same version of the graph is answered from the route cache
+     * @param startCity
+     * @param destinationCity
      * @param isVaccinated
-     * @return True if we can travers to the next city
+     * @param costImportance
+     * @param travelTimeImportance
+     * @param travelHopImportance
+     * @param mode DIJKSTRA searches from the start city or the prepared hierarchy of a vaccinated traveller,
+     *             BIDIRECTIONAL from both cities, ALT from the start city guided by the landmark tables
+     * @return Route [best path cities], null when there is no path
+     * @throws IllegalArgumentException
      */
-    private boolean canTravelNext(CityVertex minimumVertex,CityVertex nextCityVertex, boolean isVaccinated){
+    public Route planTrip (String startCity, String destinationCity, boolean isVaccinated, int
+            costImportance, int travelTimeImportance, int travelHopImportance, SearchMode mode ) throws IllegalArgumentException{
+
+        // Initializing the return route
+        Route routeInOrder = null;                                    // main output route of the path
+        TravelPreference preference = new TravelPreference(costImportance, travelTimeImportance, travelHopImportance);
+        int[] pathEdges = null;                                       // edges of the best path
+        GraphVersion pinned = pin();                                  // version the route is planned on
+        CompiledGraph graph = pinned.getGraph();
+        long version = pinned.getVersion();
+        RouteCache cache = this.routeCache;
+        MetricsSink sink = this.metricsSink;
+        QueryMetrics metrics = sink != null ? this.queryMetrics.get() : null;
+        if(metrics != null){
+            metrics.begin(mode);
+        }
 
-        // Return value initialization
-        boolean canTravel;
+        // Data validation
+        int startIndex = cityExists(startCity, graph);
+        int destinationIndex = cityExists(destinationCity, graph);
 
-        // Check if we can traverse to the next city
-        if(!isVaccinated && nextCityVertex.isTestRequired()){
+        // if bad input data exists then throw an exception
+        if(startCity == null   || destinationCity == null   ||
+           startCity.isEmpty() || destinationCity.isEmpty() ||
+           costImportance <0   || travelHopImportance <0    ||
+           startIndex == -1 || destinationIndex == -1       || travelTimeImportance <0 || mode == null){
+            throw new IllegalArgumentException("Bad input data");
+        }
 
-            // check if the city requires testing and the user is travelling in the tested path
-            if(minimumVertex.isTested()){
-                canTravel = true;  // can travel
+        // a repeated query is answered from the cache, routes cannot be changed so they are shared
+        RouteCache.Key key = RouteCache.key(startIndex, destinationIndex, isVaccinated, preference, mode);
+        Optional<Route> cachedRoute = cache.get(key, version);
+        if(cachedRoute != null){
+            if(metrics != null){
+                metrics.endPhase(QueryMetrics.VALIDATION);
+                metrics.setOutcome(true, cachedRoute.isPresent());
+                sink.record(metrics);
             }
-            else {
-                // cannot travel when the path requires testing
-                // and the path is not tested
-                canTravel = false;
+            return cachedRoute.orElse(null);
+        }
+        if(metrics != null){
+            metrics.endPhase(QueryMetrics.VALIDATION);
+        }
+
+        // Initialize all the values before finding the best path for the user
+        SearchContext context = this.searchContexts.get();
+        context.begin(graph, startIndex, preference, isVaccinated);
+        ContractionHierarchy hierarchy = null;
+        if(mode == SearchMode.DIJKSTRA && isVaccinated && !this.hierarchies.isEmpty()){
+            hierarchy = hierarchy(pinned, preference);
+        }
+        LandmarkTables tables = mode == SearchMode.ALT && hierarchy == null ? landmarks(pinned) : null;
+        if(tables != null){
+            context.setGoal(tables, destinationIndex);
+        }
+        if(metrics != null){
+            metrics.endPhase(QueryMetrics.PREPARATION);
+        }
+
+        // main logic -- search the best weight of the [city, tested] states up to the destination
+        if(hierarchy != null){
+            pathEdges = hierarchy.query(startIndex, destinationIndex);
+        }
+        else if(mode == SearchMode.BIDIRECTIONAL){
+            SearchContext backward = this.backwardContexts.get();
+            backward.begin(graph, startIndex, preference, isVaccinated);
+            pathEdges = TripSearch.runBidirectional(graph, context, backward, destinationIndex);
+            if(metrics != null){
+                metrics.addWork(backward);
+            }
+        }
+        else{
+            int destinationState = TripSearch.run(graph, context, destinationIndex);
+            if(destinationState != -1){
+                pathEdges = TripSearch.pathEdges(context, destinationState);
             }
         }
-        else {
-            canTravel = true;  // can travel
+        if(metrics != null){
+            metrics.endPhase(QueryMetrics.SEARCH);
+            metrics.addWork(context);
+        }
+
+        // Calculate the Travel path and return the string
+        routeInOrder = travelPath(graph,startIndex,pathEdges);
+        cache.put(key, version, routeInOrder);
+        if(metrics != null){
+            metrics.endPhase(QueryMetrics.RECONSTRUCTION);
+            metrics.setOutcome(false, routeInOrder != null);
+            sink.record(metrics);
         }
 
-        return canTravel;
+        return routeInOrder;
+
     }
 
     /**
-     * Function that finds the minimum weighted city and returns it
-     * @return Returns the minimum weighted city.
+     * Function that calculates the k best loopless paths between 2 cities
+     * the paths are weighed and tested like planTrip, each with its best test placement, so 2 paths
+     * through the same edges count once, the first one is the planTrip path unless that one visits a city twice
+     * @param startCity
+     * @param destinationCity
+     * @param isVaccinated
+     * @param costImportance
+     * @param travelTimeImportance
+     * @param travelHopImportance
+     * @param k maximum number of paths
+     * @return List of routes from the best to the worst, empty when there is no path
+     * @throws IllegalArgumentException
      */
-    private CityVertex minimumWeightedVertex(){
-        int minimumValue = Integer.MAX_VALUE;
-        int minimumIndex = -1;
-
-        for(int i=0; i< this.cities.size(); i++){
+    public List<Route> planTripAlternatives(String startCity, String destinationCity, boolean isVaccinated,
+            int costImportance, int travelTimeImportance, int travelHopImportance, int k) throws IllegalArgumentException{
 
-            if(this.cities.get(i).getShortestWeightFound() < minimumValue && (!this.cities.get(i).isVisited())){
-                minimumValue = this.cities.get(i).getShortestWeightFound();
-                minimumIndex = i;
-            }
+        // Data validation
+        CompiledGraph graph = compile();
+        int startIndex = cityExists(startCity, graph);
+        int destinationIndex = cityExists(destinationCity, graph);
+        if(startCity == null   || destinationCity == null   ||
+           startCity.isEmpty() || destinationCity.isEmpty() ||
+           costImportance <0   || travelHopImportance <0    ||
+           startIndex == -1 || destinationIndex == -1       || travelTimeImportance <0){
+            throw new IllegalArgumentException("Bad input data");
+        }
+        if(k <= 0){
+            throw new IllegalArgumentException("bad data input for k, cannot be "+ k);
         }
 
-        return this.cities.get(minimumIndex);
+        TravelPreference preference = new TravelPreference(costImportance, travelTimeImportance, travelHopImportance);
+        return KShortestPaths.run(graph, this.searchContexts.get(), this.backwardContexts.get(),
+                startIndex, destinationIndex, preference, isVaccinated, k);
     }
 
     /**
-     * Function that finds if there are any unvisited vertices
-     * @return True if we find all the vertices have been visited
+     * Function that finds every route between 2 cities that no other route beats in cost, time and hops at once
+     * a single search replaces one planTrip query per combination of importances
+     * @param startCity
+     * @param destinationCity
+     * @param isVaccinated
+     * @return options of the frontier from the cheapest to the most expensive, empty when there is no path
+     * @throws IllegalArgumentException
      */
-    private boolean vistedAllCities() {
+    public List<RouteOption> planTripOptions(String startCity, String destinationCity, boolean isVaccinated)
+            throws IllegalArgumentException{
+        return planTripOptions(startCity, destinationCity, isVaccinated, 16);
+    }
 
-        // loop through and check if there are any unvisited
-        for(int i=0; i <this.cities.size(); i++) {
+    /**
+     * Function that finds the routes of the cost, time and hops frontier between 2 cities with bounded memory
+     * @param startCity
+     * @param destinationCity
+     * @param isVaccinated
+     * @param labelsPerState maximum number of partial routes kept per [city, tested] state,
+     *                       trade-offs beyond it are not explored
+     * @return options of the frontier from the cheapest to the most expensive, empty when there is no path
+     * @throws IllegalArgumentException
+     */
+    public List<RouteOption> planTripOptions(String startCity, String destinationCity, boolean isVaccinated,
+            int labelsPerState) throws IllegalArgumentException{
 
-            // if single unvisited city exits return false
-            if(!this.cities.get(i).isVisited()){
-                return false;
-            }
+        // Data validation
+        CompiledGraph graph = compile();
+        int startIndex = cityExists(startCity, graph);
+        int destinationIndex = cityExists(destinationCity, graph);
+        if(startCity == null   || destinationCity == null   ||
+           startCity.isEmpty() || destinationCity.isEmpty() ||
+           startIndex == -1    || destinationIndex == -1){
+            throw new IllegalArgumentException("Bad input data");
         }
-        return true;
+        if(labelsPerState <= 0){
+            throw new IllegalArgumentException("bad data input for labels per state, cannot be "+ labelsPerState);
+        }
+
+        return ParetoSearch.run(graph, startIndex, destinationIndex, isVaccinated, labelsPerState);
     }
 
     /**
-     * Function to calculate relative weight of the edges between cities
-     * @param costImportance
-     * @param travelTimeImportance
-     * @param travelHopImportance
+     * Function that finds the journey on scheduled departures that reaches a city the earliest
+     * only departures added with addFlightDeparture and addTrainDeparture are travelled
+     * @param startCity
+     * @param destinationCity
      * @param isVaccinated
+     * @param departureMinute minute of the timetable from which the traveller can leave
+     * @return journey with the earliest arrival, null when the scheduled departures do not reach the city
+     * @throws IllegalArgumentException
      */
-    private void calculateRelativeEdgeWeight(int costImportance, int travelTimeImportance
-            , int travelHopImportance, boolean isVaccinated) {
+    public Journey planEarliestArrival(String startCity, String destinationCity, boolean isVaccinated,
+            int departureMinute) throws IllegalArgumentException{
 
-        // Initialize the weight to 0
-        int relativeWeight = 0;        // Final relative weight including all factors
-        int edgeCost =0;               // is the cost of travel along with hotel cost
+        // Data validation
+        GraphVersion pinned = pin();
+        CompiledGraph graph = pinned.getGraph();
+        int startIndex = cityExists(startCity, graph);
+        int destinationIndex = cityExists(destinationCity, graph);
+        if(startCity == null   || destinationCity == null   ||
+           startCity.isEmpty() || destinationCity.isEmpty() ||
+           startIndex == -1    || destinationIndex == -1){
+            throw new IllegalArgumentException("Bad input data");
+        }
+        if(departureMinute < 0){
+            throw new IllegalArgumentException("bad data input for departure minute, cannot be "+ departureMinute);
+        }
 
-        // logic to calculate the relative weight based on the user preference
-        for(int i=0; i <this.cities.size(); i++){
-            for(int j=0; j<this.cities.get(i).getEdges().size(); j++){
+        return timetable(pinned).earliestArrival(startIndex, destinationIndex, isVaccinated, departureMinute);
+    }
 
-                // get the edge to set weight
-                TravelHopEdge edge = this.cities.get(i).getEdges().get(j);
+    /**
+     * Function that returns the timetable of a pinned version, building it if the graph or a departure has changed
+     * the timetable is built without any lock and published unless a timetable of a newer version already is
+     * @param version
+     * @return timetable
+     */
+    private Timetable timetable(GraphVersion version){
+        GraphVersion.Derived<Timetable> published = this.timetable.get();
+        if(published != null && published.getValue().belongsTo(version)){
+            return published.getValue();
+        }
+        Timetable table = Timetable.build(version);
+        GraphVersion.Derived.publish(this.timetable, new GraphVersion.Derived<>(version, table));
+        return table;
+    }
 
-                //calculate edge cost based on various factors
-                edgeCost = calculateEdgeCost(edge,isVaccinated);
+    /**
+     * Function that calculates the best paths from a city to every city it can reach with a single search
+     * the routes of the returned tree are built only when they are asked for
+     * @param startCity
+     * @param isVaccinated
+     * @param costImportance
+     * @param travelTimeImportance
+     * @param travelHopImportance
+     * @return shortest path tree of the start city
+     * @throws IllegalArgumentException
+     */
+    public ShortestPathTree planTripsFrom(String startCity, boolean isVaccinated, int costImportance,
+            int travelTimeImportance, int travelHopImportance) throws IllegalArgumentException{
 
-                // relative weight for each edge from a city
-                relativeWeight = (costImportance*edgeCost)+
-                                 (travelTimeImportance*edge.getTimeMinutes())+
-                                 (travelHopImportance*1);
-                // set the weight
-                edge.setWeight(relativeWeight);
-            }
+        // Data validation
+        CompiledGraph graph = compile();
+        int startIndex = cityExists(startCity, graph);
+        if(startCity == null || startCity.isEmpty() || startIndex == -1 ||
+           costImportance <0 || travelTimeImportance <0 || travelHopImportance <0){
+            throw new IllegalArgumentException("Bad input data");
         }
 
+        // the tree keeps its own context, so it stays valid after the next query of this thread
+        TravelPreference preference = new TravelPreference(costImportance, travelTimeImportance, travelHopImportance);
+        return searchFrom(graph, new SearchContext(), startIndex, isVaccinated, preference);
     }
 
     /**
-     * Function the calculates the edge cost between based on hotel stay / vaccinated / cost of travel
-     * @param edge
+     * Function that searches every [city, tested] state reachable from a start city
+     * @param graph
+     * @param context context the search is kept in
+     * @param startIndex
      * @param isVaccinated
-     * @return
+     * @param preference
+     * @return shortest path tree over the context
      */
-    private int calculateEdgeCost(TravelHopEdge edge, boolean isVaccinated) {
+    private ShortestPathTree searchFrom(CompiledGraph graph, SearchContext context, int startIndex,
+                                        boolean isVaccinated, TravelPreference preference){
+        context.begin(graph, startIndex, preference, isVaccinated);
+        TripSearch.run(graph, context, -1);
+        return new ShortestPathTree(this, graph, context);
+    }
 
-        int edgeCost = Integer.MAX_VALUE;
-        CityVertex nextCity = this.cities.get(cityExists(edge.getDestinationCity()));
-        CityVertex currentCity = this.cities.get(cityExists(edge.getStartCity()));
+    /**
+     * Function that plans many trips in parallel on the common fork join pool
+     * @param queries
+     * @return List of routes in the order of the queries, null for a query without a path
+     * @throws IllegalArgumentException
+     */
+    public List<Route> planTrips(List<TripQuery> queries) throws IllegalArgumentException{
+        return planTrips(queries, ForkJoinPool.commonPool());
+    }
 
-        // handle the case when it required testing and need to add waiting time into it
-        if(!isVaccinated && nextCity.isTestRequired()){
+    /**
+     * Function that plans many trips in parallel on a fork join pool
+     * queries with the same start city, vaccination and preference are answered from one search
+     * every query is validated before any search is started
+     * @param queries
+     * @param pool pool the searches run on
+     * @return List of routes in the order of the queries, null for a query without a path
+     * @throws IllegalArgumentException
+     */
+    public List<Route> planTrips(List<TripQuery> queries, ForkJoinPool pool) throws IllegalArgumentException{
 
-            // if the current city is same as source then no cost or hotel stay
-            if(currentCity.getShortestWeightFound() == 0){
+        if(queries == null || pool == null){
+            throw new IllegalArgumentException("Bad input data");
+        }
 
-                if (currentCity.getTimeToTest() >= 0){
-                    edgeCost = edge.getCost();
-                    currentCity.setTested(true);
-                }
-            }else if(currentCity.isTested()){
-                edgeCost = edge.getCost();
-                            }
-            else if(!currentCity.isTested()) {
-                if(currentCity.getTimeToTest() >= 0){
-                    edgeCost = (currentCity.getNightlyHotelCosts()*currentCity.getTimeToTest())+edge.getCost();
-                    currentCity.setTested(true);
+        // Data validation and grouping of the queries by start city, vaccination and preference
+        CompiledGraph graph = compile();
+        LinkedHashMap<RouteCache.Key, List<Integer>> groups = new LinkedHashMap<>();
+        for(int i = 0; i < queries.size(); i++){
+            TripQuery query = queries.get(i);
+            if(query == null){
+                throw new IllegalArgumentException("Bad input data");
+            }
+            int startIndex = cityExists(query.getStartCity(), graph);
+            int destinationIndex = cityExists(query.getDestinationCity(), graph);
+            if(query.getStartCity() == null   || query.getDestinationCity() == null   ||
+               query.getStartCity().isEmpty() || query.getDestinationCity().isEmpty() ||
+               query.getCostImportance() <0   || query.getTravelHopImportance() <0    ||
+               startIndex == -1 || destinationIndex == -1 || query.getTravelTimeImportance() <0){
+                throw new IllegalArgumentException("Bad input data");
+            }
+            RouteCache.Key key = RouteCache.key(startIndex, -1, query.isVaccinated(), preferenceOf(query), SearchMode.DIJKSTRA);
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+
+        // main logic -- one task per group, every task writes only the results of its own queries
+        List<Route> results = new ArrayList<>(Collections.<Route>nCopies(queries.size(), null));
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for(List<Integer> group : groups.values()){
+            tasks.add(() -> {
+                planGroup(graph, queries, group, results);
+                return null;
+            });
+        }
+
+        // wait for all the tasks and pass on the first failure
+        for(Future<Void> task : pool.invokeAll(tasks)){
+            try{
+                task.get();
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("batch planning was interrupted", e);
+            }
+            catch(ExecutionException e){
+                if(e.getCause() instanceof RuntimeException){
+                    throw (RuntimeException) e.getCause();
                 }
+                throw new IllegalStateException(e.getCause());
             }
         }
-        else {
-            edgeCost = edge.getCost();
+        return results;
+    }
+
+    /**
+     * Function that plans the queries of a group sharing start city, vaccination and preference
+     * a single query is searched alone so that it stops at its destination
+     * every group is planned on the graph of the batch, so a batch never mixes 2 versions of the graph
+     * @param graph
+     * @param queries
+     * @param group positions of the queries of the group
+     * @param results routes in the order of the queries
+     */
+    private void planGroup(CompiledGraph graph, List<TripQuery> queries, List<Integer> group,
+                           List<Route> results){
+        TripQuery first = queries.get(group.get(0));
+        if(group.size() == 1){
+            int startIndex = cityExists(first.getStartCity(), graph);
+            SearchContext context = this.searchContexts.get();
+            context.begin(graph, startIndex, preferenceOf(first), first.isVaccinated());
+            int destinationState = TripSearch.run(graph, context, cityExists(first.getDestinationCity(), graph));
+            int[] pathEdges = destinationState != -1 ? TripSearch.pathEdges(context, destinationState) : null;
+            results.set(group.get(0), travelPath(graph, startIndex, pathEdges));
+            return;
         }
 
-        if(currentCity.isTested()){
-            nextCity.setTested(true);
+        // the routes are built before the task ends, so the context of the thread can be reused
+        ShortestPathTree tree = searchFrom(graph, this.searchContexts.get(), cityExists(first.getStartCity()),
+                first.isVaccinated(), preferenceOf(first));
+        for(int position : group){
+            results.set(position, tree.routeTo(queries.get(position).getDestinationCity()));
         }
+    }
 
-        return edgeCost;
+    /**
+     * Function that returns the travel preference of a query
+     * @param query
+     * @return travel preference
+     */
+    private static TravelPreference preferenceOf(TripQuery query){
+        return new TravelPreference(query.getCostImportance(), query.getTravelTimeImportance(),
+                query.getTravelHopImportance());
+    }
+
+    /**
+     * Function that turns the best path into a route
+     * the route keeps only the edges, its strings are formatted when they are read
+     * @param graph
+     * @param startIndex
+     * @param pathEdges edges of the best path in order of travel, null when there is no path
+     * @return Route of the best path from source to destination, null when there is no path
+     */
+    Route travelPath(CompiledGraph graph, int startIndex, int[] pathEdges) {
+        return pathEdges != null ? new Route(graph, startIndex, pathEdges) : null;
     }
 
     /**
@@ -484,20 +1038,43 @@ public class TravelAssistant {
     /**
      * Function that checks if a city exits and returns its index
      * @param cityName
-     * @return
+     * @return index of the city, -1 if the city dosent exits
      */
-    private int cityExists(String cityName){
-        // if the city list is not empty then
-        if(!this.cities.isEmpty()){
-            for(int i=0; i< this.cities.size(); i++){
-                //check if there is city of the same name
-                if(this.cities.get(i).getCityName().equalsIgnoreCase(cityName))
-                {
-                    return i;  // returns the index
-                }
-            }
+    int cityExists(String cityName){
+        // a null name can never be a known city
+        if(cityName == null){
+            return -1;
+        }
+        Integer index = cityIndex.get(normalizeCityName(cityName));
+        return index == null ? -1 : index;  // returns -1 if the city dosent exits
+    }
+
+    /**
+     * Function that checks if a city exits in a pinned snapshot and returns its index
+     * @param cityName
+     * @param graph snapshot pinned by the query, cities committed after it are not part of it
+     * @return index of the city, -1 if the city dosent exits in the snapshot
+     */
+    int cityExists(String cityName, CompiledGraph graph){
+        int index = cityExists(cityName);
+        return index < graph.numberOfCities() ? index : -1;
+    }
+
+    /**
+     * Function that normalizes a city name so that lookups are case-insensitive
+     * every code point is folded to the lower case of its upper case, the same folding as equalsIgnoreCase,
+     * so 2 names have the same key exactly when equalsIgnoreCase finds them equal
+     * @param cityName
+     * @return normalized key of the city name
+     */
+    static String normalizeCityName(String cityName){
+        StringBuilder key = new StringBuilder(cityName.length());
+        for(int i = 0; i < cityName.length(); ){
+            int codePoint = cityName.codePointAt(i);
+            key.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint)));
+            i += Character.charCount(codePoint);
         }
-        return -1;  // returns -1 if the city dosent exits
+        return key.toString();
     }
 
     /**
@@ -509,7 +1086,7 @@ public class TravelAssistant {
      * @param Cost
      * @return True if edge is added sucessfully else returns a false
      */
-    private boolean addEdge(String startCity, String destinationCity,String mode, int Time, int Cost){
+    private synchronized boolean addEdge(String startCity, String destinationCity,String mode, int Time, int Cost){
 
         // Variables
         int startIndex = -1;        // stores the source city index
@@ -536,12 +1113,14 @@ public class TravelAssistant {
         if(startIndex >=0 &&  desIndex >=0){
 
             //create a new edge between cities with the Mode/Time/cost
-            TravelHopEdge edge = new TravelHopEdge(startCity,destinationCity,mode,Time,Cost);
-            
-            // Validate if the information is already know to the travel planner
-            if(this.cities.get(startIndex).isValidTravelInfo(edge)){
-                // Add the edge
-                this.cities.get(startIndex).setEdges(edge);
+            // Add the edge if the information is not already know to the travel planner
+            thaw();
+            byte modeOfTravel = mode.equals("Flight") ? CompiledGraph.FLIGHT : CompiledGraph.TRAIN;
+            if(this.cities.addEdge(startIndex, desIndex, modeOfTravel, Time, Cost) >= 0){
+                record(GraphChange.addEdge(startIndex, desIndex, modeOfTravel, Time, Cost));
+                final int start = startIndex;
+                final int destination = desIndex;
+                remember(() -> this.cities.removeEdge(this.cities.findEdge(start, destination, modeOfTravel)));
                 outcome = true;
             }
             else {
@@ -553,6 +1132,131 @@ public class TravelAssistant {
     return outcome;  // send out the outcome of the new path
     }
 
+    /**
+     * Function that changes the time and cost of a known edge
+     * the next version only copies the time and cost of the snapshot, cached routes are only dropped where
+     * the change can affect them and searched again when asked for, landmark tables are repaired
+     * @param startCity
+     * @param destinationCity
+     * @param mode
+     * @param Time
+     * @param Cost
+     * @return True if the edge was updated, False if there is no such edge
+     */
+    private synchronized boolean updateEdge(String startCity, String destinationCity, String mode, int Time, int Cost){
+
+        int edge = knownEdge(startCity, destinationCity, mode);
+
+        // If Time and cost are zero or less
+        if(Time <= 0 || Cost <= 0){
+            throw new IllegalArgumentException("Bad input data FlightTime > 0 and cost > 0");
+        }
+        if(edge < 0){
+            return false;
+        }
+
+        // the undo finds the path again, a rolled back removal may have put it in another slot
+        int startIndex = this.cities.getStartIndex(edge);
+        int desIndex = this.cities.getDestinationIndex(edge);
+        byte modeOfTravel = this.cities.getMode(edge);
+        int oldTime = this.cities.getTimeMinutes(edge);
+        int oldCost = this.cities.getCost(edge);
+        boolean moreExpensive = Time >= oldTime && Cost >= oldCost;
+        this.cities.setTimeAndCost(edge, Time, Cost);
+        remember(() -> this.cities.setTimeAndCost(this.cities.findEdge(startIndex, desIndex, modeOfTravel), oldTime, oldCost));
+
+        // record the change, the queries still reading an older version are not affected
+        long version = record(GraphChange.updateEdge(startIndex, desIndex, modeOfTravel, Time, Cost));
+
+        // a more expensive path only worsens the routes travelling it, a cheaper one may improve any route
+        if(moreExpensive){
+            this.routeCache.invalidate(startIndex, desIndex, modeOfTravel, version);
+        }
+        return true;
+    }
+
+    /**
+     * Function that removes a known edge
+     * @param startCity
+     * @param destinationCity
+     * @param mode
+     * @return True if the edge was removed, False if there is no such edge
+     */
+    private synchronized boolean removeEdge(String startCity, String destinationCity, String mode){
+
+        int edge = knownEdge(startCity, destinationCity, mode);
+        if(edge < 0){
+            return false;
+        }
+
+        int startIndex = this.cities.getStartIndex(edge);
+        int desIndex = this.cities.getDestinationIndex(edge);
+        byte modeOfTravel = this.cities.getMode(edge);
+        int time = this.cities.getTimeMinutes(edge);
+        int cost = this.cities.getCost(edge);
+        int[] departures = this.cities.getDepartures(edge);
+        int position = this.cities.positionOf(edge);
+        this.cities.removeEdge(edge);
+        remember(() -> this.cities.insertEdge(startIndex, desIndex, modeOfTravel, time, cost, departures, position));
+        long version = record(GraphChange.removeEdge(startIndex, desIndex, modeOfTravel));
+
+        // only the routes travelling the path are affected, the landmark tables stay valid lower bounds
+        this.routeCache.invalidate(startIndex, desIndex, modeOfTravel, version);
+        return true;
+    }
+
+    /**
+     * Function that schedules a departure of a known edge
+     * @param startCity
+     * @param destinationCity
+     * @param mode
+     * @param departureMinute
+     * @return True if the departure was added, False if there is no such edge or the departure is already known
+     */
+    private synchronized boolean addDeparture(String startCity, String destinationCity, String mode, int departureMinute){
+
+        int edge = knownEdge(startCity, destinationCity, mode);
+        if(departureMinute < 0){
+            throw new IllegalArgumentException("bad data input for departure minute, cannot be "+ departureMinute);
+        }
+        if(edge < 0 || !this.cities.addDeparture(edge, departureMinute)){
+            return false;
+        }
+        int startIndex = this.cities.getStartIndex(edge);
+        int desIndex = this.cities.getDestinationIndex(edge);
+        byte modeOfTravel = this.cities.getMode(edge);
+        remember(() -> this.cities.removeDeparture(this.cities.findEdge(startIndex, desIndex, modeOfTravel), departureMinute));
+        long version = record(GraphChange.addDeparture(startIndex, desIndex, modeOfTravel, departureMinute));
+
+        // the departures do not change the paths, so planned routes and the snapshot stay valid
+        this.routeCache.keep(version);
+        return true;
+    }
+
+    /**
+     * Function that finds a known edge between 2 cities
+     * @param startCity
+     * @param destinationCity
+     * @param mode
+     * @return slot of the edge in the city store, -1 when there is no such edge
+     */
+    private int knownEdge(String startCity, String destinationCity, String mode){
+
+        int startIndex = cityExists(startCity);             // Stores the index of start city
+        int desIndex   = cityExists(destinationCity);       // Stores the index of destination
+
+        // Check bad data for city if it exits and throw an exception for the same
+        if(startCity == null   || destinationCity == null ||
+           startCity.isEmpty() || destinationCity.isEmpty() ||
+           startIndex == -1    || desIndex == -1){
+            throw new IllegalArgumentException("Bad input data start city and destination city");
+        }
+
+        thaw();
+        return this.cities.findEdge(startIndex, desIndex,
+                mode.equals("Flight") ? CompiledGraph.FLIGHT : CompiledGraph.TRAIN);
+    }
+
     // check for validation
 
     /**
@@ -562,34 +1266,82 @@ public class TravelAssistant {
     public String listOfCities(){
 
         String s= new String();
+        CompiledGraph graph = compile();
 
-        for(int i=0; i < this.cities.size(); i++){
-            s += this.cities.get(i).getCityName()+" -- ";
-            for (int j=0;j<this.cities.get(i).getEdges().size();j++){
-                TravelHopEdge a = this.cities.get(i).getEdges().get(j);
-                System.out.println(a.getStartCity()+"----"+ a.getModeOfTravel()+"----"+ a.getWeight()+"----"+a.getDestinationCity());
+        for(int i=0; i < graph.numberOfCities(); i++){
+            s += graph.getCityName(i)+" -- ";
+            for (int edge = graph.firstEdge(i); edge < graph.endEdge(i); edge++){
+                System.out.println(graph.getCityName(i)+"----"+ modeName(graph,edge)+"----"+ graph.getCost(edge)+"----"+graph.getCityName(graph.getTarget(edge)));
             }
         }
         return s;
     }
 
-    // check for validation
+    // check for validation -- shows the best state of each city in the last query planned by the calling thread
     public String mainGraph(){
 
         String s= new String();
-
-        for(int i=0; i < this.cities.size(); i++){
-            s += this.cities.get(i).getCityName()+" -- "+this.cities.get(i).getShortestWeightFound()+"--via--"+this.cities.get(i).getPreviousCity()+"\n";
-            for (int j=0;j<this.cities.get(i).getEdges().size();j++){
-                TravelHopEdge a = this.cities.get(i).getEdges().get(j);
-                if(a.isChosen()){
-                    s += a.getStartCity()+"----"+ a.getModeOfTravel()+"----"+ a.getWeight()+"----"+a.getDestinationCity()+"--chosen--"+"\n";
+        CompiledGraph graph = compile();
+        SearchContext context = lastSearch(graph);
+
+        for(int i=0; i < graph.numberOfCities(); i++){
+            int state = context != null ? TripSearch.bestState(context,i) : -1;
+            s += graph.getCityName(i)+" -- "+lastShortestWeight(context,state)+"--via--"+previousCityName(graph,context,state)+"\n";
+            for (int edge = graph.firstEdge(i); edge < graph.endEdge(i); edge++){
+                String a = graph.getCityName(i)+"----"+ modeName(graph,edge)+"----"+ graph.getCost(edge)+"----"+graph.getCityName(graph.getTarget(edge));
+                int nextState = context != null ? TripSearch.bestState(context,graph.getTarget(edge)) : -1;
+                if(nextState != -1 && context.getPreviousEdge(nextState) == edge){
+                    s += a+"--chosen--"+"\n";
                 }else{
-                    s += a.getStartCity()+"----"+ a.getModeOfTravel()+"----"+ a.getWeight()+"----"+a.getDestinationCity()+"\n";
+                    s += a+"\n";
                 }
             }
         }
         return s;
     }
 
+    /**
+     * Function that returns the search context of the calling thread if its last query searched the graph
+     * @param graph
+     * @return search context, null when the thread has not searched this graph
+     */
+    private SearchContext lastSearch(CompiledGraph graph){
+        SearchContext context = this.searchContexts.get();
+        return context.belongsTo(graph) ? context : null;
+    }
+
+    /**
+     * Function that returns the name of the mode of travel of an edge
+     * @param graph
+     * @param edge
+     * @return Flight or Train
+     */
+    private String modeName(CompiledGraph graph, int edge){
+        return graph.getMode(edge) == CompiledGraph.FLIGHT ? "Flight" : "Train";
+    }
+
+    /**
+     * Function that returns the shortest weight of a state found in the last query
+     * @param context
+     * @param state
+     * @return shortest weight, Weight.INFINITE if it was not reached
+     */
+    private long lastShortestWeight(SearchContext context, int state){
+        return state != -1 ? context.getShortestWeightFound(state) : Weight.INFINITE;
+    }
+
+    /**
+     * Function that returns the name of the city through which a state was reached in the last query
+     * @param graph
+     * @param context
+     * @param state
+     * @return previous city name, null when the state was not reached
+     */
+    private String previousCityName(CompiledGraph graph, SearchContext context, int state){
+        if(state == -1){
+            return null;
+        }
+        return graph.getCityName(TripSearch.cityOf(context.getPreviousState(state)));
+    }
+
 }
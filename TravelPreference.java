@@ -0,0 +1,86 @@
+//package com.company;
+
+/**
+ Travel preference holds how important cost, travel time and number of hops are to the traveller
+ * the relative weight of a path is calculated from it only when the search reaches the path
+ * weight = costImportance * cost + travelTimeImportance * time + travelHopImportance
+ * weights are saturating longs, see Weight
+ */
+public class TravelPreference {
+
+    // Private variables
+    private final int costImportance;           // importance of the cost of travel
+    private final int travelTimeImportance;     // importance of the time of travel
+    private final int travelHopImportance;      // importance of the number of hops
+
+    // Constructor that Initializes [costImportance, travelTimeImportance, travelHopImportance]
+    public TravelPreference(int costImportance, int travelTimeImportance, int travelHopImportance) {
+        this.costImportance = costImportance;
+        this.travelTimeImportance = travelTimeImportance;
+        this.travelHopImportance = travelHopImportance;
+    }
+
+    /**
+     * Function that calculates the relative weight of a single hop
+     * @param edgeCost cost of travel including hotel stays
+     * @param timeMinutes time of travel
+     * @return relative weight of the hop, MAXIMUM if it does not fit
+     */
+    public long edgeWeight(long edgeCost, int timeMinutes) {
+        return Weight.add(Weight.add(Weight.multiply(costImportance, edgeCost),
+                                     (long) travelTimeImportance * timeMinutes),
+                          travelHopImportance);
+    }
+
+    /**
+     * Getter function that gets the cost importance
+     * @return costImportance
+     */
+    public int getCostImportance() {
+        return costImportance;
+    }
+
+    /**
+     * Getter function that gets the travel time importance
+     * @return travelTimeImportance
+     */
+    public int getTravelTimeImportance() {
+        return travelTimeImportance;
+    }
+
+    /**
+     * Getter function that gets the travel hop importance
+     * @return travelHopImportance
+     */
+    public int getTravelHopImportance() {
+        return travelHopImportance;
+    }
+
+    /**
+     * Function that returns true if both preferences weigh every path the same
+     * @param other
+     * @return True if all the importances are equal
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TravelPreference)) {
+            return false;
+        }
+        TravelPreference preference = (TravelPreference) other;
+        return costImportance == preference.costImportance &&
+               travelTimeImportance == preference.travelTimeImportance &&
+               travelHopImportance == preference.travelHopImportance;
+    }
+
+    /**
+     * Function that returns the hash code of the importances
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return (costImportance * 31 + travelTimeImportance) * 31 + travelHopImportance;
+    }
+}
@@ -0,0 +1,77 @@
+//package com.company;
+
+/**
+ Trip query holds the parameters of a single planTrip call for the batch planner
+ * start city and destination city
+ * if the traveller is vaccinated
+ * importance of cost, travel time and number of hops
+ */
+public class TripQuery {
+
+    // Private variables
+    private final String startCity;             // name of the start city
+    private final String destinationCity;       // name of the destination city
+    private final boolean vaccinated;           // True if the traveller is vaccinated
+    private final int costImportance;           // importance of the cost of travel
+    private final int travelTimeImportance;     // importance of the time of travel
+    private final int travelHopImportance;      // importance of the number of hops
+
+    // Constructor that Initializes all the parameters of the query
+    public TripQuery(String startCity, String destinationCity, boolean vaccinated, int costImportance,
+                     int travelTimeImportance, int travelHopImportance) {
+        this.startCity = startCity;
+        this.destinationCity = destinationCity;
+        this.vaccinated = vaccinated;
+        this.costImportance = costImportance;
+        this.travelTimeImportance = travelTimeImportance;
+        this.travelHopImportance = travelHopImportance;
+    }
+
+    /**
+     * Getter function that gets the start city
+     * @return startCity
+     */
+    public String getStartCity() {
+        return startCity;
+    }
+
+    /**
+     * Getter function that gets the destination city
+     * @return destinationCity
+     */
+    public String getDestinationCity() {
+        return destinationCity;
+    }
+
+    /**
+     * Getter function that gets if the traveller is vaccinated
+     * @return vaccinated
+     */
+    public boolean isVaccinated() {
+        return vaccinated;
+    }
+
+    /**
+     * Getter function that gets the cost importance
+     * @return costImportance
+     */
+    public int getCostImportance() {
+        return costImportance;
+    }
+
+    /**
+     * Getter function that gets the travel time importance
+     * @return travelTimeImportance
+     */
+    public int getTravelTimeImportance() {
+        return travelTimeImportance;
+    }
+
+    /**
+     * Getter function that gets the travel hop importance
+     * @return travelHopImportance
+     */
+    public int getTravelHopImportance() {
+        return travelHopImportance;
+    }
+}
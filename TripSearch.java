@@ -0,0 +1,434 @@
+//package com.company;
+
+/**
+ Trip search is the Dijkstra search that planTrip runs over a compiled graph
+ * either forward until the destination is settled or from both ends until the 2 searches meet
+ * the traveller is either tested or not, so every city has 2 search states
+ * state = city * 2 + (tested ? 1 : 0)
+ * an unvaccinated traveller who is not tested can take the test in a city with time to test >= 0
+ * paying the hotel stay for the days of testing, except in the start city
+ * test required cities can only be entered in the tested state
+ * a vaccinated traveller never needs a test and only uses the not tested states
+ * when the context has a goal the queue is ordered by weight plus the landmark lower bound [A*]
+ */
+public class TripSearch {
+
+    /**
+     * Function that returns the number of search states of a graph
+     * @param graph
+     * @return number of states
+     */
+    public static int numberOfStates(CompiledGraph graph) {
+        return graph.numberOfCities() * 2;
+    }
+
+    /**
+     * Function that returns the search state of a city
+     * @param city
+     * @param tested
+     * @return state
+     */
+    public static int state(int city, boolean tested) {
+        return city * 2 + (tested ? 1 : 0);
+    }
+
+    /**
+     * Function that returns the city of a search state
+     * @param state
+     * @return city
+     */
+    public static int cityOf(int state) {
+        return state >> 1;
+    }
+
+    /**
+     * Function that returns true if the traveller is tested in a search state
+     * @param state
+     * @return tested
+     */
+    public static boolean isTested(int state) {
+        return (state & 1) == 1;
+    }
+
+    /**
+     * Function that searches the best weight of the states reachable from the start city of the context
+     * the search stops as soon as the destination city is settled
+     * with a goal in the context, states are settled in the order of weight plus lower bound
+     * the bounds are consistent, so the destination is still settled with its best weight
+     * @param graph
+     * @param context a context started with begin for this graph
+     * @param destinationCity city to stop at, -1 to search every reachable state
+     * @return settled state of the destination, -1 when it cannot be reached
+     */
+    public static int run(CompiledGraph graph, SearchContext context, int destinationCity) {
+        return runFrom(graph, context, state(context.getStartCity(), false), destinationCity, null);
+    }
+
+    /**
+     * Function that searches the best weight of the states reachable from any state of the start city
+     * the start city of the context still decides where the test is free
+     * states already marked visited are never settled, so their cities are left out of the search
+     * @param graph
+     * @param context a context started with begin for this graph
+     * @param sourceState state the search starts in with weight 0
+     * @param destinationCity city to stop at, -1 to search every reachable state
+     * @param bannedTransitions transitions that cannot be taken out of the source state, see transition, or null
+     * @return settled state of the destination, -1 when it cannot be reached
+     */
+    public static int runFrom(CompiledGraph graph, SearchContext context, int sourceState, int destinationCity,
+                              int[] bannedTransitions) {
+
+        // initialize the source node
+        long potential = context.potential(sourceState);
+        if (potential == -1) {
+            return -1;
+        }
+        context.setShortestWeightFound(sourceState, 0);
+        context.setPreviousState(sourceState, sourceState);
+
+        CityPriorityQueue queue = context.getQueue();
+        queue.insertOrDecrease(sourceState, potential);
+
+        // main logic -- visit the states in the order of their weight until the destination is settled
+        while (!queue.isEmpty()) {
+
+            // take the minimum state out of the queue.
+            int minimumState = queue.removeMinimum();
+            context.setVisited(minimumState, true);
+            context.countSettled();
+
+            // the first settled state of the destination is its best state
+            if (cityOf(minimumState) == destinationCity) {
+                return minimumState;
+            }
+            relaxEdges(graph, context, null, null, minimumState, minimumState == sourceState ? bannedTransitions : null);
+        }
+        return -1;
+    }
+
+    /**
+     * Function that searches the best weight from every state to a destination city over the reverse index
+     * the weight of a state is then the exact weight left to travel from it, the previous state is the next one
+     * @param graph
+     * @param context a context started with begin for this graph and the start city of the forward query
+     * @param destinationCity
+     */
+    public static void runBackward(CompiledGraph graph, SearchContext context, int destinationCity) {
+        beginBackward(context, destinationCity);
+        CityPriorityQueue queue = context.getQueue();
+        while (!queue.isEmpty()) {
+            int minimumState = queue.removeMinimum();
+            context.setVisited(minimumState, true);
+            context.countSettled();
+            relaxReverseEdges(graph, context, null, null, minimumState);
+        }
+    }
+
+    /**
+     * Function that returns the transition into the next state through an edge
+     * @param edge
+     * @param nextState
+     * @return transition
+     */
+    public static int transition(int edge, int nextState) {
+        return edge * 2 + (nextState & 1);
+    }
+
+    /**
+     * Function that searches the best path with a forward search from the start city
+     * and a backward search from the destination city over the reverse index
+     * the searches stop once the sum of their smallest queued weights cannot beat the best meeting
+     * @param graph
+     * @param forward a context started with begin for this graph
+     * @param backward a context started with the same parameters as forward
+     * @param destinationCity
+     * @return edges of the best path in order of travel, null when the destination cannot be reached
+     */
+    public static int[] runBidirectional(CompiledGraph graph, SearchContext forward, SearchContext backward,
+                                         int destinationCity) {
+
+        Meeting meeting = new Meeting();
+        CityPriorityQueue forwardQueue = forward.getQueue();
+        CityPriorityQueue backwardQueue = backward.getQueue();
+
+        // initialize the source node
+        int source = state(forward.getStartCity(), false);
+        forward.setShortestWeightFound(source, 0);
+        forward.setPreviousState(source, source);
+        forwardQueue.insertOrDecrease(source, 0);
+
+        beginBackward(backward, destinationCity);
+        meet(forward, backward, source, meeting);
+
+        // main logic -- grow the side with the smaller weight until the searches cannot improve the meeting
+        while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+
+            long forwardMinimum = forwardQueue.minimumWeight();
+            long backwardMinimum = backwardQueue.minimumWeight();
+            if (Weight.add(forwardMinimum, backwardMinimum) >= meeting.weight) {
+                break;
+            }
+
+            if (forwardMinimum <= backwardMinimum) {
+                int minimumState = forwardQueue.removeMinimum();
+                forward.setVisited(minimumState, true);
+                forward.countSettled();
+                relaxEdges(graph, forward, backward, meeting, minimumState, null);
+            }
+            else {
+                int minimumState = backwardQueue.removeMinimum();
+                backward.setVisited(minimumState, true);
+                backward.countSettled();
+                relaxReverseEdges(graph, backward, forward, meeting, minimumState);
+            }
+        }
+
+        if (meeting.state == -1) {
+            return null;
+        }
+
+        // join the forward path up to the meeting state and the backward path from it
+        int[] head = pathEdges(forward, meeting.state);
+        int[] path = new int[head.length + countEdges(backward, meeting.state)];
+        System.arraycopy(head, 0, path, 0, head.length);
+        int state = meeting.state;
+        for (int i = head.length; i < path.length; i++) {
+            path[i] = backward.getPreviousEdge(state);
+            state = backward.getPreviousState(state);
+        }
+        return path;
+    }
+
+    /**
+     * Function that queues both states of the destination city at weight 0 for a backward search
+     * a vaccinated traveller only uses the not tested states
+     * @param context backward context
+     * @param destinationCity
+     */
+    private static void beginBackward(SearchContext context, int destinationCity) {
+        for (int tested = 0; tested <= (context.isVaccinated() ? 0 : 1); tested++) {
+            int target = state(destinationCity, tested == 1);
+            context.setShortestWeightFound(target, 0);
+            context.setPreviousState(target, target);
+            context.getQueue().insertOrDecrease(target, 0);
+        }
+    }
+
+    /**
+     * Function that relaxes all the edges leaving the city of a state
+     * @param graph
+     * @param context
+     * @param other context of the opposite search, null for a single search
+     * @param meeting best meeting of the 2 searches, null for a single search
+     * @param currentState
+     * @param bannedTransitions transitions that cannot be taken, null when all can
+     */
+    private static void relaxEdges(CompiledGraph graph, SearchContext context, SearchContext other,
+                                   Meeting meeting, int currentState, int[] bannedTransitions) {
+
+        int currentCity = cityOf(currentState);
+        boolean vaccinated = context.isVaccinated();
+        boolean tested = isTested(currentState);
+
+        // the hotel stay while taking the test in this city, -1 when the city cannot test
+        long testCost = -1;
+        if (!vaccinated && !tested) {
+            testCost = testCost(graph, context, currentCity);
+        }
+
+        for (int edge = graph.firstEdge(currentCity); edge < graph.endEdge(currentCity); edge++) {
+
+            int nextCity = graph.getTarget(edge);
+            long edgeCost = graph.getCost(edge);
+
+            // keep the current state if the next city can be entered in it
+            if ((vaccinated || tested || !graph.isTestRequired(nextCity)) &&
+                !isBanned(bannedTransitions, transition(edge, state(nextCity, tested)))) {
+                relax(graph, context, other, meeting, currentState, edge, state(nextCity, tested), edgeCost);
+            }
+
+            // take the test here and continue tested
+            if (testCost >= 0 && !isBanned(bannedTransitions, transition(edge, state(nextCity, true)))) {
+                relax(graph, context, other, meeting, currentState, edge, state(nextCity, true), testCost + edgeCost);
+            }
+        }
+    }
+
+    /**
+     * Function that returns true if a transition is one of the banned transitions
+     * @param bannedTransitions banned transitions, null when none are
+     * @param transition
+     * @return True if the transition cannot be taken
+     */
+    private static boolean isBanned(int[] bannedTransitions, int transition) {
+        if (bannedTransitions != null) {
+            for (int banned : bannedTransitions) {
+                if (banned == transition) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Function that relaxes all the edges entering the city of a state for the backward search
+     * the same transitions as relaxEdges, followed from their end
+     * @param graph
+     * @param context backward context
+     * @param other forward context
+     * @param meeting best meeting of the 2 searches
+     * @param currentState
+     */
+    private static void relaxReverseEdges(CompiledGraph graph, SearchContext context, SearchContext other,
+                                          Meeting meeting, int currentState) {
+
+        int currentCity = cityOf(currentState);
+        boolean vaccinated = context.isVaccinated();
+        boolean tested = isTested(currentState);
+        boolean enterUntested = vaccinated || tested || !graph.isTestRequired(currentCity);
+
+        for (int position = graph.firstReverseEdge(currentCity); position < graph.endReverseEdge(currentCity); position++) {
+
+            int edge = graph.getReverseEdge(position);
+            int previousCity = graph.getSource(edge);
+            long edgeCost = graph.getCost(edge);
+
+            // arrived in the same state as the previous city
+            if (enterUntested) {
+                relax(graph, context, other, meeting, currentState, edge, state(previousCity, tested), edgeCost);
+            }
+
+            // arrived tested after taking the test in the previous city
+            if (!vaccinated && tested) {
+                long testCost = testCost(graph, context, previousCity);
+                if (testCost >= 0) {
+                    relax(graph, context, other, meeting, currentState, edge, state(previousCity, false), testCost + edgeCost);
+                }
+            }
+        }
+    }
+
+    /**
+     * Function that returns the hotel stay while taking the test in a city
+     * @param graph
+     * @param context
+     * @param city
+     * @return cost of the nights of testing, 0 in the start city, -1 when the city cannot test
+     */
+    static long testCost(CompiledGraph graph, SearchContext context, int city) {
+        if (graph.getTimeToTest(city) < 0) {
+            return -1;
+        }
+        return city == context.getStartCity() ? 0 : (long) graph.getNightlyHotelCosts(city) * graph.getTimeToTest(city);
+    }
+
+    /**
+     * Function that relaxes a single transition between states
+     * @param graph
+     * @param context
+     * @param other context of the opposite search, null for a single search
+     * @param meeting best meeting of the 2 searches, null for a single search
+     * @param currentState
+     * @param edge
+     * @param nextState
+     * @param edgeCost cost of the edge including the hotel stay while testing
+     */
+    private static void relax(CompiledGraph graph, SearchContext context, SearchContext other, Meeting meeting,
+                              int currentState, int edge, int nextState, long edgeCost) {
+
+        context.countRelaxed();
+
+        // relative weight of the edge based on the user preference
+        long weight = Weight.add(context.getShortestWeightFound(currentState),
+                context.getPreference().edgeWeight(edgeCost, graph.getTimeMinutes(edge)));
+
+        if (weight < context.getShortestWeightFound(nextState)) {
+            context.setShortestWeightFound(nextState, weight);
+            context.setPreviousState(nextState, currentState);
+            context.setPreviousEdge(nextState, edge);
+            if (!context.isVisited(nextState)) {
+                // states that cannot reach the goal are never queued
+                long potential = context.potential(nextState);
+                if (potential != -1) {
+                    context.getQueue().insertOrDecrease(nextState, Weight.add(weight, potential));
+                }
+            }
+            if (other != null) {
+                meet(context, other, nextState, meeting);
+            }
+        }
+    }
+
+    /**
+     * Function that records a state reached by both searches if it is the best meeting so far
+     * @param context
+     * @param other
+     * @param state
+     * @param meeting
+     */
+    private static void meet(SearchContext context, SearchContext other, int state, Meeting meeting) {
+        long otherWeight = other.getShortestWeightFound(state);
+        if (otherWeight != Weight.INFINITE) {
+            long weight = Weight.add(context.getShortestWeightFound(state), otherWeight);
+            if (weight < meeting.weight) {
+                meeting.weight = weight;
+                meeting.state = state;
+            }
+        }
+    }
+
+    /**
+     * Function that returns the edges of the path to a state in order of travel
+     * @param context
+     * @param state reached state
+     * @return edges from the start city to the state
+     */
+    public static int[] pathEdges(SearchContext context, int state) {
+        int[] path = new int[countEdges(context, state)];
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = context.getPreviousEdge(state);
+            state = context.getPreviousState(state);
+        }
+        return path;
+    }
+
+    /**
+     * Function that counts the edges between a state and the source of its search
+     * @param context
+     * @param state
+     * @return number of edges
+     */
+    private static int countEdges(SearchContext context, int state) {
+        int count = 0;
+        while (context.getPreviousState(state) != state) {
+            state = context.getPreviousState(state);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Function that returns the best reached state of a city
+     * @param context
+     * @param city
+     * @return state with the lower weight, -1 when the city was not reached
+     */
+    public static int bestState(SearchContext context, int city) {
+        int untested = state(city, false);
+        int tested = state(city, true);
+
+        if (context.getShortestWeightFound(tested) < context.getShortestWeightFound(untested)) {
+            return tested;
+        }
+        return context.getPreviousState(untested) != -1 ? untested : -1;
+    }
+
+    /**
+     Meeting holds the best state reached by both searches of a bidirectional search
+     */
+    private static class Meeting {
+        private long weight = Weight.INFINITE;      // weight of the path through the state
+        private int state = -1;                     // state where the searches meet
+    }
+}
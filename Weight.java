@@ -0,0 +1,50 @@
+//package com.company;
+
+/**
+ Weight holds the arithmetic of the relative weights of paths
+ * weights are longs, a hop weighs at most 3 products of 2 ints and a hotel stay, so a single hop always fits
+ * sums and products saturate at MAXIMUM instead of wrapping around into negative weights
+ * a path that saturates is still a path, it ties with every other saturated path
+ * INFINITE is the weight of a state that is not reached, no path ever weighs as much
+ */
+public final class Weight {
+
+    // Weight of a state that is not reached
+    public static final long INFINITE = Long.MAX_VALUE;
+    // Largest weight of a path
+    public static final long MAXIMUM = Long.MAX_VALUE - 1;
+
+    // Constructor that prevents instances, weights are plain longs
+    private Weight() {
+    }
+
+    /**
+     * Function that adds 2 weights
+     * @param a weight >= 0
+     * @param b weight >= 0
+     * @return a + b, MAXIMUM if it does not fit, INFINITE if a or b is INFINITE
+     */
+    public static long add(long a, long b) {
+        if (a > MAXIMUM - b) {
+            return a == INFINITE || b == INFINITE ? INFINITE : MAXIMUM;
+        }
+        return a + b;
+    }
+
+    /**
+     * Function that multiplies a weight by an importance
+     * @param importance importance >= 0
+     * @param value weight >= 0
+     * @return importance * value, MAXIMUM if it does not fit
+     */
+    public static long multiply(long importance, long value) {
+        // 2 values below 2^31 always fit, which skips the division for every plain edge
+        if (((importance | value) >>> 31) == 0) {
+            return importance * value;
+        }
+        if (importance != 0 && value > MAXIMUM / importance) {
+            return MAXIMUM;
+        }
+        return importance * value;
+    }
+}
@@ -0,0 +1,244 @@
+//package com.company;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ Graph generator builds synthetic travel graphs for the benchmarks
+ * RANDOM every city has about 8 paths to random cities
+ * HUB_AND_SPOKE a hundredth of the cities are hubs linked by flights, every other city flies to 2 hubs
+ * and takes the train to the next city of its hub
+ * GRID the cities form a square grid of train lines with a few long flights
+ * the same shape, size and seed always give the same graph
+ * the benchmarks of this directory are JMH benchmarks, compile them together with the travel assistant sources
+ * with jmh-core and jmh-generator-annprocess on the class path and run them with org.openjdk.jmh.Main
+ * e.g. java org.openjdk.jmh.Main PlanTripBenchmark -p cities=10000 -p mode=DIJKSTRA
+ */
+public class GraphGenerator {
+
+    // Shapes of the generated graphs
+    public static final String RANDOM = "RANDOM";
+    public static final String HUB_AND_SPOKE = "HUB_AND_SPOKE";
+    public static final String GRID = "GRID";
+
+    // Private variables
+    private final Random random;
+    private final int numberOfCities;
+    private final boolean[] testRequired;
+    private final int[] timeToTest;
+    private final int[] nightlyHotelCost;
+
+    // Paths, grown as they are generated
+    private int numberOfEdges = 0;
+    private int[] edgeFrom = new int[16];
+    private int[] edgeTo = new int[16];
+    private int[] time = new int[16];
+    private int[] cost = new int[16];
+    private boolean[] flight = new boolean[16];
+
+    // Constructor that Initializes the cities of the graph
+    private GraphGenerator(int numberOfCities, long seed) {
+        this.random = new Random(seed);
+        this.numberOfCities = numberOfCities;
+        this.testRequired = new boolean[numberOfCities];
+        this.timeToTest = new int[numberOfCities];
+        this.nightlyHotelCost = new int[numberOfCities];
+        for (int city = 0; city < numberOfCities; city++) {
+            testRequired[city] = random.nextInt(5) == 0;
+            timeToTest[city] = random.nextInt(4) - 1;
+            nightlyHotelCost[city] = 1 + random.nextInt(200);
+        }
+    }
+
+    /**
+     * Function that generates a graph
+     * @param shape RANDOM, HUB_AND_SPOKE or GRID
+     * @param numberOfCities
+     * @param seed
+     * @return generated graph
+     * @throws IllegalArgumentException
+     */
+    public static GraphGenerator generate(String shape, int numberOfCities, long seed) throws IllegalArgumentException {
+        if (numberOfCities <= 1) {
+            throw new IllegalArgumentException("bad data input for number of cities, cannot be " + numberOfCities);
+        }
+        GraphGenerator generator = new GraphGenerator(numberOfCities, seed);
+        if (RANDOM.equals(shape)) {
+            generator.randomPaths();
+        }
+        else if (HUB_AND_SPOKE.equals(shape)) {
+            generator.hubAndSpokePaths();
+        }
+        else if (GRID.equals(shape)) {
+            generator.gridPaths();
+        }
+        else {
+            throw new IllegalArgumentException("bad data input for shape, cannot be " + shape);
+        }
+        return generator;
+    }
+
+    /**
+     * Function that adds the cities and paths of the graph to a new travel assistant in one update
+     * @return travel assistant holding the graph
+     */
+    public TravelAssistant build() {
+        TravelAssistant assistant = new TravelAssistant();
+        assistant.beginUpdate();
+        add(assistant);
+        assistant.endUpdate();
+        return assistant;
+    }
+
+    /**
+     * Function that adds the cities and paths of the graph to a new travel assistant one call at a time
+     * every call commits on its own, as it does for callers outside the package
+     * @return travel assistant holding the graph
+     */
+    public TravelAssistant buildOneByOne() {
+        TravelAssistant assistant = new TravelAssistant();
+        add(assistant);
+        return assistant;
+    }
+
+    /**
+     * Function that adds the cities and paths of the graph to a travel assistant
+     * @param assistant
+     */
+    private void add(TravelAssistant assistant) {
+        for (int city = 0; city < numberOfCities; city++) {
+            assistant.addCity(cityName(city), testRequired[city], timeToTest[city], nightlyHotelCost[city]);
+        }
+        for (int edge = 0; edge < numberOfEdges; edge++) {
+            if (flight[edge]) {
+                assistant.addFlight(cityName(edgeFrom[edge]), cityName(edgeTo[edge]), time[edge], cost[edge]);
+            }
+            else {
+                assistant.addTrain(cityName(edgeFrom[edge]), cityName(edgeTo[edge]), time[edge], cost[edge]);
+            }
+        }
+    }
+
+    /**
+     * Function that returns the name of a city
+     * @param city
+     * @return city name
+     */
+    public static String cityName(int city) {
+        return "City" + city;
+    }
+
+    /**
+     * Function that returns the number of cities
+     * @return number of cities
+     */
+    public int numberOfCities() {
+        return numberOfCities;
+    }
+
+    /**
+     * Function that returns the number of generated paths, duplicates included
+     * @return number of paths
+     */
+    public int numberOfEdges() {
+        return numberOfEdges;
+    }
+
+    /**
+     * Function that generates about 8 paths from every city to random cities
+     */
+    private void randomPaths() {
+        for (int city = 0; city < numberOfCities; city++) {
+            for (int i = 0; i < 8; i++) {
+                path(city, otherCity(city), random.nextBoolean());
+            }
+        }
+    }
+
+    /**
+     * Function that generates hubs linked by flights and spoke cities around them
+     */
+    private void hubAndSpokePaths() {
+        int hubs = Math.max(2, numberOfCities / 100);
+
+        // every hub flies both ways to 20 other hubs
+        for (int hub = 0; hub < hubs; hub++) {
+            for (int i = 0; i < Math.min(20, hubs - 1); i++) {
+                int other = random.nextInt(hubs);
+                if (other != hub) {
+                    path(hub, other, true);
+                    path(other, hub, true);
+                }
+            }
+        }
+
+        // every spoke flies both ways to its own hub and a random hub, and takes the train to the next spoke
+        for (int city = hubs; city < numberOfCities; city++) {
+            int home = city % hubs;
+            int other = random.nextInt(hubs);
+            path(city, home, true);
+            path(home, city, true);
+            path(city, other, true);
+            path(other, city, true);
+            if (city + hubs < numberOfCities) {
+                path(city, city + hubs, false);
+                path(city + hubs, city, false);
+            }
+        }
+    }
+
+    /**
+     * Function that generates a square grid of train lines with one long flight for every hundred cities
+     */
+    private void gridPaths() {
+        int side = (int) Math.ceil(Math.sqrt(numberOfCities));
+        for (int city = 0; city < numberOfCities; city++) {
+            int right = city + 1;
+            int down = city + side;
+            if (right % side != 0 && right < numberOfCities) {
+                path(city, right, false);
+                path(right, city, false);
+            }
+            if (down < numberOfCities) {
+                path(city, down, false);
+                path(down, city, false);
+            }
+            if (random.nextInt(100) == 0) {
+                path(city, otherCity(city), true);
+            }
+        }
+    }
+
+    /**
+     * Function that returns a random city other than a city
+     * @param city
+     * @return other city
+     */
+    private int otherCity(int city) {
+        int other = random.nextInt(numberOfCities - 1);
+        return other >= city ? other + 1 : other;
+    }
+
+    /**
+     * Function that generates a path with a random time and cost for its mode of travel
+     * @param from
+     * @param to
+     * @param isFlight
+     */
+    private void path(int from, int to, boolean isFlight) {
+        if (numberOfEdges == edgeFrom.length) {
+            int length = edgeFrom.length * 2;
+            edgeFrom = Arrays.copyOf(edgeFrom, length);
+            edgeTo = Arrays.copyOf(edgeTo, length);
+            time = Arrays.copyOf(time, length);
+            cost = Arrays.copyOf(cost, length);
+            flight = Arrays.copyOf(flight, length);
+        }
+        edgeFrom[numberOfEdges] = from;
+        edgeTo[numberOfEdges] = to;
+        time[numberOfEdges] = isFlight ? 60 + random.nextInt(540) : 30 + random.nextInt(270);
+        cost[numberOfEdges] = isFlight ? 50 + random.nextInt(850) : 5 + random.nextInt(195);
+        flight[numberOfEdges] = isFlight;
+        numberOfEdges++;
+    }
+}
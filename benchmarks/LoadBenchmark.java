@@ -0,0 +1,54 @@
+//package com.company;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ Load benchmark measures building a travel assistant with addCity, addFlight and addTrain
+ * followed by the compilation of the snapshot of the first query
+ * load makes the calls in one update, loadOneByOne makes them one at a time like callers outside the package,
+ * both must stay linear in the size of the graph
+ * the graph is generated once per trial, see GraphGenerator
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+
+    @Param({GraphGenerator.RANDOM, GraphGenerator.HUB_AND_SPOKE, GraphGenerator.GRID})
+    public String shape;
+
+    @Param({"1000", "10000", "100000"})
+    public int cities;
+
+    private GraphGenerator generator;
+
+    @Setup
+    public void generate() {
+        generator = GraphGenerator.generate(shape, cities, 42);
+    }
+
+    @Benchmark
+    public CompiledGraph load() {
+        return generator.build().compile();
+    }
+
+    @Benchmark
+    public CompiledGraph loadOneByOne() {
+        return generator.buildOneByOne().compile();
+    }
+}
@@ -0,0 +1,104 @@
+//package com.company;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ Plan trip benchmark measures single planTrip queries between random city pairs
+ * for vaccinated and unvaccinated travellers, every search mode and 4 weightings
+ * COST, TIME and HOPS only care about one importance, BALANCED about all 3
+ * the route cache holds a single route, so every query in planTrip runs a search
+ * planTripRepeated asks the same few pairs again with a full cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PlanTripBenchmark {
+
+    // Number of city pairs the queries cycle through
+    private static final int PAIRS = 1024;
+    private static final int REPEATED_PAIRS = 16;
+
+    @Param({GraphGenerator.RANDOM, GraphGenerator.HUB_AND_SPOKE, GraphGenerator.GRID})
+    public String shape;
+
+    @Param({"1000", "10000", "100000"})
+    public int cities;
+
+    @Param({"true", "false"})
+    public boolean vaccinated;
+
+    @Param({"COST", "TIME", "HOPS", "BALANCED"})
+    public String weighting;
+
+    @Param({"DIJKSTRA", "BIDIRECTIONAL", "ALT"})
+    public SearchMode mode;
+
+    private TravelAssistant searchAssistant;
+    private TravelAssistant cachedAssistant;
+    private String[] starts = new String[PAIRS];
+    private String[] destinations = new String[PAIRS];
+    private int costImportance;
+    private int travelTimeImportance;
+    private int travelHopImportance;
+
+    @Setup
+    public void prepare() {
+        GraphGenerator generator = GraphGenerator.generate(shape, cities, 42);
+        searchAssistant = generator.build();
+        searchAssistant.setRouteCacheCapacity(1);
+        searchAssistant.compile();
+        if (mode == SearchMode.ALT) {
+            searchAssistant.prepareLandmarks(8);
+        }
+        cachedAssistant = generator.build();
+
+        Random random = new Random(7);
+        for (int i = 0; i < PAIRS; i++) {
+            starts[i] = GraphGenerator.cityName(random.nextInt(cities));
+            destinations[i] = GraphGenerator.cityName(random.nextInt(cities));
+        }
+
+        costImportance = weighting.equals("COST") || weighting.equals("BALANCED") ? 1 : 0;
+        travelTimeImportance = weighting.equals("TIME") || weighting.equals("BALANCED") ? 1 : 0;
+        travelHopImportance = weighting.equals("HOPS") ? 1 : weighting.equals("BALANCED") ? 100 : 0;
+    }
+
+    /**
+     Cursor holds the next city pair of a benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next = 0;
+    }
+
+    @Benchmark
+    public List<String> planTrip(Cursor cursor) {
+        int pair = cursor.next++ & (PAIRS - 1);
+        return searchAssistant.planTrip(starts[pair], destinations[pair], vaccinated,
+                costImportance, travelTimeImportance, travelHopImportance, mode);
+    }
+
+    @Benchmark
+    public List<String> planTripRepeated(Cursor cursor) {
+        int pair = cursor.next++ & (REPEATED_PAIRS - 1);
+        return cachedAssistant.planTrip(starts[pair], destinations[pair], vaccinated,
+                costImportance, travelTimeImportance, travelHopImportance, mode);
+    }
+}
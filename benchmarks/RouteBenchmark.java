@@ -0,0 +1,95 @@
+//package com.company;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ Route benchmark measures turning searched paths into routes, without the searches themselves
+ * travelPath formats the edges of a path found by planTrip
+ * routesFromTree builds the route to every city of a shortest path tree
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RouteBenchmark {
+
+    // Number of searched paths the benchmark cycles through
+    private static final int PATHS = 256;
+
+    @Param({GraphGenerator.RANDOM, GraphGenerator.HUB_AND_SPOKE, GraphGenerator.GRID})
+    public String shape;
+
+    @Param({"1000", "10000", "100000"})
+    public int cities;
+
+    private TravelAssistant assistant;
+    private CompiledGraph graph;
+    private int[] starts = new int[PATHS];
+    private int[][] paths = new int[PATHS][];
+    private ShortestPathTree tree;
+    private List<String> treeCities;
+
+    @Setup
+    public void prepare() {
+        GraphGenerator generator = GraphGenerator.generate(shape, cities, 42);
+        assistant = generator.build();
+        graph = assistant.compile();
+
+        // search the paths once, unreachable pairs are searched again
+        Random random = new Random(7);
+        SearchContext context = new SearchContext();
+        TravelPreference preference = new TravelPreference(1, 1, 100);
+        for (int i = 0; i < PATHS; ) {
+            int start = random.nextInt(cities);
+            context.begin(graph, start, preference, false);
+            int state = TripSearch.run(graph, context, random.nextInt(cities));
+            if (state != -1) {
+                starts[i] = start;
+                paths[i++] = TripSearch.pathEdges(context, state);
+            }
+        }
+
+        tree = assistant.planTripsFrom(GraphGenerator.cityName(0), false, 1, 1, 100);
+        treeCities = new ArrayList<String>(tree.reachableCities());
+    }
+
+    /**
+     Cursor holds the next path of a benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next = 0;
+    }
+
+    @Benchmark
+    public List<String> travelPath(Cursor cursor) {
+        int path = cursor.next++ & (PATHS - 1);
+        return assistant.travelPath(graph, starts[path], paths[path]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void routesFromTree(Blackhole blackhole) {
+        for (String city : treeCities) {
+            blackhole.consume(tree.routeTo(city));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+//package com.company;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ BidirectionalSearchTest compares BIDIRECTIONAL planTrip queries with Bellman-Ford on random graphs
+ * the route returned must weigh as much as the best route over every [city, tested] state
+ * vaccinated and unvaccinated travellers, unreachable cities and start == destination are all covered
+ */
+public class BidirectionalSearchTest {
+
+    private static final int SEEDS = 10;
+    private static final int QUERIES = 300;
+
+    @Test
+    public void routesMatchBellmanFord() {
+        for (int seed = 1; seed <= SEEDS; seed++) {
+            Random random = new Random(seed);
+            RandomGraph graph = RandomGraph.build(random, 60, 240);
+            for (int query = 0; query < QUERIES; query++) {
+                int start = random.nextInt(graph.numberOfCities());
+                int destination = random.nextInt(graph.numberOfCities());
+                boolean vaccinated = random.nextBoolean();
+                TravelPreference preference = new TravelPreference(random.nextInt(5), random.nextInt(5),
+                        random.nextInt(5) * 10);
+                Route route = graph.getAssistant().planTrip(RandomGraph.name(start), RandomGraph.name(destination),
+                        vaccinated, preference.getCostImportance(), preference.getTravelTimeImportance(),
+                        preference.getTravelHopImportance(), SearchMode.BIDIRECTIONAL);
+                assertEquals(graph.bestWeight(start, destination, vaccinated, preference),
+                        graph.weigh(start, route, vaccinated, preference),
+                        "seed " + seed + " query " + query + " " + start + " -> " + destination + " " + route);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+//package com.company;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ CityNameTest checks that the name index finds a city exactly when equalsIgnoreCase matches its name
+ * the names mix ASCII, accented and dotted letters, the final and the other sigma, and letters outside the BMP
+ */
+public class CityNameTest {
+
+    // Letters whose upper and lower cases do not map back to each other one to one
+    private static final String[] LETTERS = {"a", "A", "i", "I", "\u0130", "\u0131", "\u00df", "\u1e9e", "\u03c3",
+            "\u03c2", "\u03a3", "\u00e9", "\u00c9", "k", "\u212a", "\ud801\udc00", "\ud801\udc28", "-", " "};
+
+    @Test
+    public void keysMatchEqualsIgnoreCase() {
+        Random random = new Random(1);
+        for (int i = 0; i < 200000; i++) {
+            String first = randomName(random);
+            String second = randomName(random);
+            assertEquals(first.equalsIgnoreCase(second),
+                    TravelAssistant.normalizeCityName(first).equals(TravelAssistant.normalizeCityName(second)),
+                    first + " / " + second);
+        }
+    }
+
+    @Test
+    public void dottedCapitalFindsTheCity() {
+        TravelAssistant assistant = new TravelAssistant();
+        assertTrue(assistant.addCity("\u0130stanbul", false, 0, 10));
+        assertTrue(assistant.addCity("Ankara", false, 0, 10));
+        assertFalse(assistant.addCity("istanbul", false, 0, 10));
+        assertTrue(assistant.addFlight("ankara", "ISTANBUL", 60, 100));
+        Route route = assistant.planTrip("ANKARA", "istanbul", true, 1, 1, 1);
+        assertNotNull(route);
+        assertEquals("\u0130stanbul", route.getDestinationCity());
+    }
+
+    /**
+     * Function that builds a short random name of the letters
+     * @param random
+     * @return name
+     */
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 1 + random.nextInt(3);
+        for (int i = 0; i < length; i++) {
+            name.append(LETTERS[random.nextInt(LETTERS.length)]);
+        }
+        return name.toString();
+    }
+}
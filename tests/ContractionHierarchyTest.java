@@ -0,0 +1,59 @@
+//package com.company;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ ContractionHierarchyTest compares vaccinated DIJKSTRA planTrip queries with prepared hierarchies with Bellman-Ford
+ * the queries of the prepared preferences are answered from the hierarchies, which are prepared again after
+ * paths are added, updated and removed, so the shortcuts of every round are checked on the graph they belong to
+ */
+public class ContractionHierarchyTest {
+
+    private static final int SEEDS = 6;
+    private static final int ROUNDS = 5;
+    private static final int QUERIES = 100;
+
+    // Preferences the hierarchies are prepared for
+    private static final TravelPreference[] PREFERENCES = {new TravelPreference(1, 2, 10),
+            new TravelPreference(0, 1, 0), new TravelPreference(3, 0, 1)};
+
+    @Test
+    public void routesMatchBellmanFord() {
+        for (int seed = 1; seed <= SEEDS; seed++) {
+            Random random = new Random(seed);
+            RandomGraph graph = RandomGraph.build(random, 60, 240);
+            for (int round = 0; round < ROUNDS; round++) {
+                for (TravelPreference preference : PREFERENCES) {
+                    graph.getAssistant().prepareHierarchy(preference.getCostImportance(),
+                            preference.getTravelTimeImportance(), preference.getTravelHopImportance());
+                }
+                for (int query = 0; query < QUERIES; query++) {
+                    int start = random.nextInt(graph.numberOfCities());
+                    int destination = random.nextInt(graph.numberOfCities());
+                    TravelPreference preference = PREFERENCES[random.nextInt(PREFERENCES.length)];
+                    Route route = graph.getAssistant().planTrip(RandomGraph.name(start), RandomGraph.name(destination),
+                            true, preference.getCostImportance(), preference.getTravelTimeImportance(),
+                            preference.getTravelHopImportance(), SearchMode.DIJKSTRA);
+                    assertEquals(graph.bestWeight(start, destination, true, preference),
+                            graph.weigh(start, route, true, preference),
+                            "seed " + seed + " round " + round + " query " + query + " " + route);
+                }
+                for (int i = 0; i < 5; i++) {
+                    List<Integer> path = graph.randomPath(random);
+                    if (random.nextBoolean()) {
+                        graph.removePath(path);
+                    }
+                    else {
+                        graph.updatePath(path, 1 + random.nextInt(300), 1 + random.nextInt(500));
+                    }
+                    graph.addPath(random);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+//package com.company;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ EarliestArrivalTest compares planEarliestArrival with Bellman-Ford over the scheduled departures of random graphs
+ * the journey must arrive as early as the best one and travel only scheduled departures, each after the last arrival
+ * cities, paths and departures are added, and paths updated and removed, between the queries
+ */
+public class EarliestArrivalTest {
+
+    private static final int SEEDS = 5;
+    private static final int STEPS = 3000;
+
+    @Test
+    public void journeysMatchBellmanFord() {
+        for (int seed = 1; seed <= SEEDS; seed++) {
+            Random random = new Random(seed);
+            RandomGraph graph = RandomGraph.build(random, 30, 0);
+            for (int step = 0; step < STEPS; step++) {
+                List<Integer> path = graph.randomPath(random);
+                int operation = random.nextInt(12);
+                if (operation == 0 && graph.numberOfCities() < 40) {
+                    graph.addCity(random);
+                }
+                else if (operation <= 3 || path == null) {
+                    graph.addPath(random);
+                }
+                else if (operation == 4) {
+                    graph.removePath(path);
+                }
+                else if (operation == 5) {
+                    graph.updatePath(path, 1 + random.nextInt(300), 1 + random.nextInt(500));
+                }
+                else if (operation <= 8) {
+                    graph.addDeparture(path, random.nextInt(3 * 1440));
+                }
+                else {
+                    check(random, graph, "seed " + seed + " step " + step);
+                }
+            }
+        }
+    }
+
+    /**
+     * Function that checks one random query against the brute force
+     * @param random
+     * @param graph
+     * @param query description of the query for the failure messages
+     */
+    private static void check(Random random, RandomGraph graph, String query) {
+        int start = random.nextInt(graph.numberOfCities());
+        int destination = random.nextInt(graph.numberOfCities());
+        boolean vaccinated = random.nextBoolean();
+        int departureMinute = random.nextInt(1440);
+        Journey journey = graph.getAssistant().planEarliestArrival(RandomGraph.name(start),
+                RandomGraph.name(destination), vaccinated, departureMinute);
+        assertEquals(graph.earliestArrival(start, destination, vaccinated, departureMinute),
+                journey == null ? Long.MAX_VALUE : journey.getArrivalMinute(), query + " " + journey);
+        if (journey != null) {
+            graph.checkJourney(start, destination, departureMinute, journey);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+//package com.company;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ KShortestPathsTest compares planTripAlternatives with every loopless route of small random graphs
+ * the routes are listed by a depth first search and weighed with their best test placement
+ * the k returned routes must weigh the same as the k lightest listed routes, in the same order
+ * no returned route may visit a city twice or come twice
+ */
+public class KShortestPathsTest {
+
+    // Small dense graphs, where routes that test in another city or come back to a city are common
+    private static final int[][] GRAPHS = {{6, 20}, {7, 40}, {8, 30}, {10, 25}};
+    private static final int SEEDS = 40;
+    private static final int QUERIES = 100;
+
+    // Graph of the current seed
+    private TravelAssistant assistant;
+    private boolean[] testRequired;
+    private int[] timeToTest;
+    private int[] nightlyHotelCosts;
+    private List<List<int[]>> edges;            // [destination, time, cost, 1 for a flight] leaving each city
+
+    @Test
+    public void routesMatchBruteForce() {
+        for (int[] graph : GRAPHS) {
+            for (int seed = 1; seed <= SEEDS; seed++) {
+                Random random = new Random(seed);
+                build(random, graph[0], graph[1]);
+                for (int query = 0; query < QUERIES; query++) {
+                    check(random, graph[0], "seed " + seed + " graph " + graph[0] + "/" + graph[1] + " query " + query);
+                }
+            }
+        }
+    }
+
+    /**
+     * Function that builds a random graph
+     * @param random
+     * @param numberOfCities
+     * @param numberOfEdges number of paths tried, duplicates and loops are skipped
+     */
+    private void build(Random random, int numberOfCities, int numberOfEdges) {
+        assistant = new TravelAssistant();
+        testRequired = new boolean[numberOfCities];
+        timeToTest = new int[numberOfCities];
+        nightlyHotelCosts = new int[numberOfCities];
+        edges = new ArrayList<>();
+        for (int i = 0; i < numberOfCities; i++) {
+            testRequired[i] = random.nextInt(4) == 0;
+            timeToTest[i] = random.nextInt(4) - 1;
+            nightlyHotelCosts[i] = 1 + random.nextInt(50);
+            assistant.addCity("C" + i, testRequired[i], timeToTest[i], nightlyHotelCosts[i]);
+            edges.add(new ArrayList<>());
+        }
+        for (int i = 0; i < numberOfEdges; i++) {
+            int start = random.nextInt(numberOfCities);
+            int destination = random.nextInt(numberOfCities);
+            if (start == destination) {
+                continue;
+            }
+            int time = 1 + random.nextInt(300);
+            int cost = 1 + random.nextInt(500);
+            boolean flight = random.nextBoolean();
+            boolean added = flight ? assistant.addFlight("C" + start, "C" + destination, time, cost) :
+                                     assistant.addTrain("C" + start, "C" + destination, time, cost);
+            if (added) {
+                edges.get(start).add(new int[]{destination, time, cost, flight ? 1 : 0});
+            }
+        }
+    }
+
+    /**
+     * Function that checks one random query against the brute force
+     * @param random
+     * @param numberOfCities
+     * @param query description of the query for the failure messages
+     */
+    private void check(Random random, int numberOfCities, String query) {
+        int start = random.nextInt(numberOfCities);
+        int destination = random.nextInt(numberOfCities);
+        boolean vaccinated = random.nextBoolean();
+        TravelPreference preference = new TravelPreference(random.nextInt(5), random.nextInt(5), random.nextInt(5) * 10);
+        int k = 1 + random.nextInt(8);
+
+        List<Route> routes = assistant.planTripAlternatives("C" + start, "C" + destination, vaccinated,
+                preference.getCostImportance(), preference.getTravelTimeImportance(),
+                preference.getTravelHopImportance(), k);
+
+        List<Long> expected = new ArrayList<>();
+        List<int[]> path = new ArrayList<>();
+        boolean[] visited = new boolean[numberOfCities];
+        visited[start] = true;
+        listRoutes(start, start, destination, vaccinated, preference, path, visited, expected);
+        Collections.sort(expected);
+
+        assertEquals(Math.min(k, expected.size()), routes.size(), query);
+        Set<List<String>> returned = new HashSet<>();
+        for (int i = 0; i < routes.size(); i++) {
+            Route route = routes.get(i);
+            assertTrue(returned.add(new ArrayList<>(route)), query + " route " + i + " comes twice");
+            Set<String> cities = new HashSet<>();
+            for (int position = 0; position < route.size(); position++) {
+                assertTrue(cities.add(route.getCityName(position)), query + " route " + i + " visits a city twice");
+            }
+            assertEquals(expected.get(i).longValue(), weigh(start, route, vaccinated, preference), query + " route " + i);
+        }
+    }
+
+    /**
+     * Function that lists the weight of every loopless route from a city to the destination
+     * @param start start city of the query, where the test is free
+     * @param city current city
+     * @param destination
+     * @param vaccinated
+     * @param preference
+     * @param path edges travelled so far
+     * @param visited cities travelled so far
+     * @param weights weights of the routes found
+     */
+    private void listRoutes(int start, int city, int destination, boolean vaccinated, TravelPreference preference,
+                            List<int[]> path, boolean[] visited, List<Long> weights) {
+        if (city == destination) {
+            long weight = weigh(start, path, vaccinated, preference);
+            if (weight != Weight.INFINITE) {
+                weights.add(weight);
+            }
+            return;
+        }
+        for (int[] edge : edges.get(city)) {
+            if (!visited[edge[0]]) {
+                visited[edge[0]] = true;
+                path.add(new int[]{city, edge[0], edge[1], edge[2]});
+                listRoutes(start, edge[0], destination, vaccinated, preference, path, visited, weights);
+                path.remove(path.size() - 1);
+                visited[edge[0]] = false;
+            }
+        }
+    }
+
+    /**
+     * Function that weighs a returned route with its best test placement
+     * @param start
+     * @param route
+     * @param vaccinated
+     * @param preference
+     * @return weight of the route
+     */
+    private long weigh(int start, Route route, boolean vaccinated, TravelPreference preference) {
+        List<int[]> path = new ArrayList<>();
+        for (int hop = 1; hop < route.size(); hop++) {
+            int city = Integer.parseInt(route.getCityName(hop - 1).substring(1));
+            int next = Integer.parseInt(route.getCityName(hop).substring(1));
+            int flight = route.get(hop).startsWith("fly") ? 1 : 0;
+            for (int[] edge : edges.get(city)) {
+                if (edge[0] == next && edge[3] == flight) {
+                    path.add(new int[]{city, next, edge[1], edge[2]});
+                }
+            }
+        }
+        assertEquals(route.size() - 1, path.size(), "route travels a path that is not in the graph");
+        return weigh(start, path, vaccinated, preference);
+    }
+
+    /**
+     * Function that weighs a route with its best test placement
+     * an unvaccinated traveller tests at most once, leaving a city that can test, before entering a city requiring it
+     * @param start
+     * @param path [start, destination, time, cost] of every edge
+     * @param vaccinated
+     * @param preference
+     * @return weight of the best test placement, Weight.INFINITE when no placement is allowed
+     */
+    private long weigh(int start, List<int[]> path, boolean vaccinated, TravelPreference preference) {
+        long untested = 0;
+        long tested = Weight.INFINITE;
+        for (int[] edge : path) {
+            long weight = preference.edgeWeight(edge[3], edge[2]);
+            long nextTested = tested == Weight.INFINITE ? Weight.INFINITE : tested + weight;
+            if (!vaccinated && untested != Weight.INFINITE && timeToTest[edge[0]] >= 0) {
+                long hotel = edge[0] == start ? 0 : (long) nightlyHotelCosts[edge[0]] * timeToTest[edge[0]];
+                nextTested = Math.min(nextTested, untested + preference.edgeWeight(edge[3] + hotel, edge[2]));
+            }
+            if (untested != Weight.INFINITE && (vaccinated || !testRequired[edge[1]])) {
+                untested += weight;
+            }
+            else {
+                untested = Weight.INFINITE;
+            }
+            tested = nextTested;
+        }
+        return Math.min(untested, tested);
+    }
+}
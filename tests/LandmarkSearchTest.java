@@ -0,0 +1,67 @@
+//package com.company;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ LandmarkSearchTest compares ALT planTrip queries with Bellman-Ford on random graphs
+ * the landmark bounds must never cut off the best route, before and after paths are added, updated and removed,
+ * which makes the next ALT query repair or rebuild the tables
+ */
+public class LandmarkSearchTest {
+
+    private static final int SEEDS = 6;
+    private static final int ROUNDS = 10;
+    private static final int QUERIES = 60;
+
+    @Test
+    public void routesMatchBellmanFord() {
+        for (int seed = 1; seed <= SEEDS; seed++) {
+            Random random = new Random(seed);
+            RandomGraph graph = RandomGraph.build(random, 60, 240);
+            graph.getAssistant().prepareLandmarks(1 + random.nextInt(8));
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int query = 0; query < QUERIES; query++) {
+                    int start = random.nextInt(graph.numberOfCities());
+                    int destination = random.nextInt(graph.numberOfCities());
+                    boolean vaccinated = random.nextBoolean();
+                    TravelPreference preference = new TravelPreference(random.nextInt(5), random.nextInt(5),
+                            random.nextInt(5) * 10);
+                    Route route = graph.getAssistant().planTrip(RandomGraph.name(start), RandomGraph.name(destination),
+                            vaccinated, preference.getCostImportance(), preference.getTravelTimeImportance(),
+                            preference.getTravelHopImportance(), SearchMode.ALT);
+                    assertEquals(graph.bestWeight(start, destination, vaccinated, preference),
+                            graph.weigh(start, route, vaccinated, preference),
+                            "seed " + seed + " round " + round + " query " + query + " " + route);
+                }
+                change(random, graph);
+            }
+        }
+    }
+
+    /**
+     * Function that adds, updates and removes a few random paths
+     * @param random
+     * @param graph
+     */
+    private static void change(Random random, RandomGraph graph) {
+        for (int i = 0; i < 5; i++) {
+            List<Integer> path = graph.randomPath(random);
+            switch (random.nextInt(4)) {
+                case 0:
+                    graph.addPath(random);
+                    break;
+                case 1:
+                    graph.removePath(path);
+                    break;
+                default:
+                    graph.updatePath(path, 1 + random.nextInt(300), 1 + random.nextInt(500));
+                    break;
+            }
+        }
+    }
+}
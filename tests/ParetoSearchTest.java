@@ -0,0 +1,60 @@
+//package com.company;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ ParetoSearchTest compares the options of planTripOptions with Bellman-Ford on random graphs
+ * no option may beat another in cost, time and hops at once
+ * for any importances the best option must weigh as much as the best route, so the frontier misses no trade-off
+ * the route of every option must really cost, take and hop as much as the option says, or less
+ */
+public class ParetoSearchTest {
+
+    private static final int SEEDS = 8;
+    private static final int QUERIES = 60;
+
+    @Test
+    public void optionsMatchBellmanFord() {
+        for (int seed = 1; seed <= SEEDS; seed++) {
+            Random random = new Random(seed);
+            RandomGraph graph = RandomGraph.build(random, 30, 120);
+            for (int query = 0; query < QUERIES; query++) {
+                int start = random.nextInt(graph.numberOfCities());
+                int destination = random.nextInt(graph.numberOfCities());
+                boolean vaccinated = random.nextBoolean();
+                String description = "seed " + seed + " query " + query + " " + start + " -> " + destination;
+                List<RouteOption> options = graph.getAssistant().planTripOptions(RandomGraph.name(start),
+                        RandomGraph.name(destination), vaccinated, Integer.MAX_VALUE);
+
+                for (RouteOption first : options) {
+                    for (RouteOption second : options) {
+                        assertFalse(first != second && first.getCost() <= second.getCost() &&
+                                first.getTimeMinutes() <= second.getTimeMinutes() && first.getHops() <= second.getHops(),
+                                description + " " + first + " dominates " + second);
+                    }
+                }
+                for (int i = 0; i < 6; i++) {
+                    TravelPreference preference = new TravelPreference(random.nextInt(5), random.nextInt(5),
+                            random.nextInt(5) * 10);
+                    long best = Weight.INFINITE;
+                    for (RouteOption option : options) {
+                        long weight = preference.getCostImportance() * option.getCost() +
+                                preference.getTravelTimeImportance() * option.getTimeMinutes() +
+                                (long) preference.getTravelHopImportance() * option.getHops();
+                        assertTrue(graph.weigh(start, option.getRoute(), vaccinated, preference) <= weight,
+                                description + " " + option + " weighs more than it says");
+                        best = Math.min(best, weight);
+                    }
+                    assertEquals(graph.bestWeight(start, destination, vaccinated, preference), best, description);
+                }
+            }
+        }
+    }
+}
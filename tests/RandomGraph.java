@@ -0,0 +1,380 @@
+//package com.company;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ RandomGraph is a random graph of cities "C0", "C1", ... added to a travel assistant, with a plain copy of it
+ * every change goes through the assistant and is mirrored in the copy only when the assistant accepts it
+ * the copy answers the queries the slow way, with Bellman-Ford over every [city, tested] state,
+ * so the tests can check the fast searches of the assistant against it
+ * an unvaccinated traveller tests at most once, leaving a city that can test, before entering a city requiring it
+ */
+public class RandomGraph {
+
+    // Travel assistant holding the graph
+    private final TravelAssistant assistant;
+
+    // Cities of the copy, indexed like their names
+    private boolean[] testRequired = new boolean[0];
+    private int[] timeToTest = new int[0];
+    private int[] nightlyHotelCosts = new int[0];
+    private int numberOfCities = 0;
+
+    // Paths of the copy by [start, destination, 1 for a flight], with {time, cost} and their departures
+    private final Map<List<Integer>, int[]> paths = new LinkedHashMap<>();
+    private final Map<List<Integer>, TreeSet<Integer>> departures = new LinkedHashMap<>();
+
+    // Constructor that Initializes an empty graph on a new assistant
+    public RandomGraph() {
+        this(new TravelAssistant());
+    }
+
+    // Constructor that Initializes an empty graph on an assistant
+    public RandomGraph(TravelAssistant assistant) {
+        this.assistant = assistant;
+    }
+
+    /**
+     * Function that builds a random graph on a new assistant
+     * @param random
+     * @param numberOfCities
+     * @param numberOfPaths number of paths tried, duplicates and loops are skipped
+     * @return graph
+     */
+    public static RandomGraph build(Random random, int numberOfCities, int numberOfPaths) {
+        RandomGraph graph = new RandomGraph();
+        for (int i = 0; i < numberOfCities; i++) {
+            graph.addCity(random);
+        }
+        for (int i = 0; i < numberOfPaths; i++) {
+            graph.addPath(random);
+        }
+        return graph;
+    }
+
+    /**
+     * Function that returns the name of a city
+     * @param city
+     * @return name
+     */
+    public static String name(int city) {
+        return "C" + city;
+    }
+
+    /**
+     * Getter function that gets the assistant holding the graph
+     * @return travel assistant
+     */
+    public TravelAssistant getAssistant() {
+        return assistant;
+    }
+
+    /**
+     * Getter function that gets the number of cities
+     * @return number of cities
+     */
+    public int numberOfCities() {
+        return numberOfCities;
+    }
+
+    /**
+     * Function that adds a city with a random test rule and hotel cost
+     * @param random
+     * @return index of the city
+     */
+    public int addCity(Random random) {
+        boolean required = random.nextInt(4) == 0;
+        int days = random.nextInt(4) - 1;
+        int hotel = 1 + random.nextInt(50);
+        assistant.addCity(name(numberOfCities), required, days, hotel);
+        testRequired = Arrays.copyOf(testRequired, numberOfCities + 1);
+        timeToTest = Arrays.copyOf(timeToTest, numberOfCities + 1);
+        nightlyHotelCosts = Arrays.copyOf(nightlyHotelCosts, numberOfCities + 1);
+        testRequired[numberOfCities] = required;
+        timeToTest[numberOfCities] = days;
+        nightlyHotelCosts[numberOfCities] = hotel;
+        return numberOfCities++;
+    }
+
+    /**
+     * Function that adds a path between 2 random cities with a random time and cost
+     * @param random
+     * @return True if the path was added, False for a loop or a known path
+     */
+    public boolean addPath(Random random) {
+        int start = random.nextInt(numberOfCities);
+        int destination = random.nextInt(numberOfCities);
+        boolean flight = random.nextBoolean();
+        int time = 1 + random.nextInt(300);
+        int cost = 1 + random.nextInt(500);
+        return start != destination && addPath(start, destination, flight, time, cost);
+    }
+
+    /**
+     * Function that adds a path
+     * @param start
+     * @param destination
+     * @param flight True for a flight, False for a train
+     * @param time
+     * @param cost
+     * @return True if the assistant added the path
+     */
+    public boolean addPath(int start, int destination, boolean flight, int time, int cost) {
+        boolean added = flight ? assistant.addFlight(name(start), name(destination), time, cost) :
+                                 assistant.addTrain(name(start), name(destination), time, cost);
+        if (added) {
+            paths.put(key(start, destination, flight), new int[]{time, cost});
+            departures.put(key(start, destination, flight), new TreeSet<>());
+        }
+        return added;
+    }
+
+    /**
+     * Function that changes the time and cost of a known path
+     * @param path [start, destination, 1 for a flight]
+     * @param time
+     * @param cost
+     * @return True if the assistant updated the path
+     */
+    public boolean updatePath(List<Integer> path, int time, int cost) {
+        boolean updated = path.get(2) == 1 ?
+                assistant.updateFlight(name(path.get(0)), name(path.get(1)), time, cost) :
+                assistant.updateTrain(name(path.get(0)), name(path.get(1)), time, cost);
+        if (updated) {
+            paths.put(path, new int[]{time, cost});
+        }
+        return updated;
+    }
+
+    /**
+     * Function that removes a known path with its departures
+     * @param path [start, destination, 1 for a flight]
+     * @return True if the assistant removed the path
+     */
+    public boolean removePath(List<Integer> path) {
+        boolean removed = path.get(2) == 1 ?
+                assistant.removeFlight(name(path.get(0)), name(path.get(1))) :
+                assistant.removeTrain(name(path.get(0)), name(path.get(1)));
+        if (removed) {
+            paths.remove(path);
+            departures.remove(path);
+        }
+        return removed;
+    }
+
+    /**
+     * Function that schedules a departure of a known path
+     * @param path [start, destination, 1 for a flight]
+     * @param departureMinute
+     * @return True if the assistant added the departure
+     */
+    public boolean addDeparture(List<Integer> path, int departureMinute) {
+        boolean added = path.get(2) == 1 ?
+                assistant.addFlightDeparture(name(path.get(0)), name(path.get(1)), departureMinute) :
+                assistant.addTrainDeparture(name(path.get(0)), name(path.get(1)), departureMinute);
+        if (added) {
+            departures.get(path).add(departureMinute);
+        }
+        return added;
+    }
+
+    /**
+     * Function that picks a known path
+     * @param random
+     * @return [start, destination, 1 for a flight], null when there is no path
+     */
+    public List<Integer> randomPath(Random random) {
+        if (paths.isEmpty()) {
+            return null;
+        }
+        return new ArrayList<>(paths.keySet()).get(random.nextInt(paths.size()));
+    }
+
+    /**
+     * Getter function that gets the time and cost of a known path
+     * @param path [start, destination, 1 for a flight]
+     * @return {time, cost}
+     */
+    public int[] getPath(List<Integer> path) {
+        return paths.get(path);
+    }
+
+    /**
+     * Function that finds the weight of the best route with Bellman-Ford over every [city, tested] state
+     * @param start
+     * @param destination
+     * @param vaccinated
+     * @param preference
+     * @return weight of the best route, Weight.INFINITE when there is none
+     */
+    public long bestWeight(int start, int destination, boolean vaccinated, TravelPreference preference) {
+        long[] weights = new long[2 * numberOfCities];
+        Arrays.fill(weights, Weight.INFINITE);
+        weights[2 * start] = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<List<Integer>, int[]> path : paths.entrySet()) {
+                int city = path.getKey().get(0);
+                int next = path.getKey().get(1);
+                for (int tested = 0; tested < 2; tested++) {
+                    long[] reached = hop(start, city, next, path.getValue(), vaccinated, preference,
+                            weights[2 * city + tested], tested == 1);
+                    for (int state = 0; state < 2; state++) {
+                        if (reached[state] < weights[2 * next + state]) {
+                            weights[2 * next + state] = reached[state];
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        }
+        return Math.min(weights[2 * destination], weights[2 * destination + 1]);
+    }
+
+    /**
+     * Function that weighs a route of the assistant with its best test placement
+     * @param start city the route must start from
+     * @param route
+     * @param vaccinated
+     * @param preference
+     * @return weight of the route, Weight.INFINITE for a null route
+     */
+    public long weigh(int start, List<String> route, boolean vaccinated, TravelPreference preference) {
+        if (route == null) {
+            return Weight.INFINITE;
+        }
+        assertEquals("start " + name(start), route.get(0), "route starts in another city");
+        long untested = 0;
+        long tested = Weight.INFINITE;
+        int city = start;
+        for (int hop = 1; hop < route.size(); hop++) {
+            String[] parts = route.get(hop).split(" ");
+            int next = Integer.parseInt(parts[1].substring(1));
+            int[] path = paths.get(key(city, next, parts[0].equals("fly")));
+            assertNotNull(path, "route travels a path that is not in the graph: " + route);
+            long[] fromUntested = hop(start, city, next, path, vaccinated, preference, untested, false);
+            long[] fromTested = hop(start, city, next, path, vaccinated, preference, tested, true);
+            untested = fromUntested[0];
+            tested = Math.min(fromUntested[1], fromTested[1]);
+            city = next;
+        }
+        return Math.min(untested, tested);
+    }
+
+    /**
+     * Function that finds the earliest arrival on the scheduled departures with Bellman-Ford over every
+     * [city, tested] state, a test takes its days from the moment the traveller is in the city
+     * @param start
+     * @param destination
+     * @param vaccinated
+     * @param departureMinute minute from which the traveller can leave
+     * @return earliest arrival minute, Long.MAX_VALUE when the departures do not reach the city
+     */
+    public long earliestArrival(int start, int destination, boolean vaccinated, int departureMinute) {
+        long[] arrivals = new long[2 * numberOfCities];
+        Arrays.fill(arrivals, Long.MAX_VALUE);
+        arrivals[2 * start] = departureMinute;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int city = 0; city < numberOfCities; city++) {
+                if (!vaccinated && arrivals[2 * city] != Long.MAX_VALUE && timeToTest[city] >= 0 &&
+                    arrivals[2 * city] + timeToTest[city] * 1440L < arrivals[2 * city + 1]) {
+                    arrivals[2 * city + 1] = arrivals[2 * city] + timeToTest[city] * 1440L;
+                    changed = true;
+                }
+            }
+            for (Map.Entry<List<Integer>, TreeSet<Integer>> path : departures.entrySet()) {
+                int city = path.getKey().get(0);
+                int next = path.getKey().get(1);
+                int time = paths.get(path.getKey())[0];
+                for (int departure : path.getValue()) {
+                    for (int tested = 0; tested < 2; tested++) {
+                        boolean allowed = vaccinated || tested == 1 || !testRequired[next];
+                        long arrival = (long) departure + time;
+                        if (allowed && arrivals[2 * city + tested] <= departure && arrival < arrivals[2 * next + tested]) {
+                            arrivals[2 * next + tested] = arrival;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        }
+        return Math.min(arrivals[2 * destination], arrivals[2 * destination + 1]);
+    }
+
+    /**
+     * Function that checks the hops of a journey against the paths and departures of the copy
+     * @param start
+     * @param destination
+     * @param departureMinute minute from which the traveller can leave
+     * @param journey
+     */
+    public void checkJourney(int start, int destination, int departureMinute, Journey journey) {
+        Route route = journey.getRoute();
+        assertEquals(name(start), route.getStartCity(), "journey starts in another city");
+        assertEquals(name(destination), route.getDestinationCity(), "journey ends in another city");
+        long ready = departureMinute;
+        for (int hop = 0; hop < route.numberOfHops(); hop++) {
+            String[] parts = route.get(hop + 1).split(" ");
+            int city = Integer.parseInt(route.getCityName(hop).substring(1));
+            int next = Integer.parseInt(parts[1].substring(1));
+            List<Integer> path = key(city, next, parts[0].equals("fly"));
+            assertNotNull(paths.get(path), "journey travels a path that is not in the graph: " + journey);
+            int departure = journey.getDepartureMinute(hop);
+            assertEquals(true, departures.get(path).contains(departure) && departure >= ready,
+                    "journey leaves without a departure: " + journey);
+            assertEquals(departure + paths.get(path)[0], journey.getArrivalMinute(hop), "journey arrives late: " + journey);
+            ready = journey.getArrivalMinute(hop);
+        }
+    }
+
+    /**
+     * Function that returns the weights of the [untested, tested] states after a hop from a state
+     * @param start start city of the query, where the test is free
+     * @param city
+     * @param next
+     * @param path {time, cost}
+     * @param vaccinated
+     * @param preference
+     * @param weight weight of the state the hop leaves, Weight.INFINITE when it is not reached
+     * @param tested True if the state the hop leaves is tested
+     * @return weights of the [untested, tested] states of the next city, Weight.INFINITE when not reached
+     */
+    private long[] hop(int start, int city, int next, int[] path, boolean vaccinated, TravelPreference preference,
+                       long weight, boolean tested) {
+        long[] reached = {Weight.INFINITE, Weight.INFINITE};
+        if (weight == Weight.INFINITE) {
+            return reached;
+        }
+        if (vaccinated || tested || !testRequired[next]) {
+            reached[tested ? 1 : 0] = Weight.add(weight, preference.edgeWeight(path[1], path[0]));
+        }
+        if (!vaccinated && !tested && timeToTest[city] >= 0) {
+            long hotel = city == start ? 0 : (long) nightlyHotelCosts[city] * timeToTest[city];
+            reached[1] = Math.min(reached[1], Weight.add(weight, preference.edgeWeight(path[1] + hotel, path[0])));
+        }
+        return reached;
+    }
+
+    /**
+     * Function that returns the key of a path
+     * @param start
+     * @param destination
+     * @param flight
+     * @return [start, destination, 1 for a flight]
+     */
+    private static List<Integer> key(int start, int destination, boolean flight) {
+        return Arrays.asList(start, destination, flight ? 1 : 0);
+    }
+}
@@ -0,0 +1,74 @@
+//package com.company;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ RouteCacheTest repeats a fixed pool of queries between changes of a random graph and compares them with Bellman-Ford
+ * paths are added, made cheaper, made more expensive and removed, so every way the cache is kept, partly dropped
+ * or emptied is exercised, a cached route that outlives a change that beats or breaks it fails the test
+ */
+public class RouteCacheTest {
+
+    private static final int SEEDS = 4;
+    private static final int ROUNDS = 40;
+
+    @Test
+    public void cachedRoutesMatchBellmanFord() {
+        for (int seed = 1; seed <= SEEDS; seed++) {
+            Random random = new Random(seed);
+            RandomGraph graph = RandomGraph.build(random, 60, 300);
+            TravelAssistant assistant = graph.getAssistant();
+            int[][] queries = new int[40][];
+            for (int i = 0; i < queries.length; i++) {
+                queries[i] = new int[]{random.nextInt(60), random.nextInt(60), random.nextInt(3) == 0 ? 0 : 1,
+                        random.nextInt(3), random.nextInt(3), random.nextInt(3) * 10};
+            }
+
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int[] query : queries) {
+                    boolean vaccinated = query[2] == 1;
+                    TravelPreference preference = new TravelPreference(query[3], query[4], query[5]);
+                    for (SearchMode mode : SearchMode.values()) {
+                        Route route = assistant.planTrip(RandomGraph.name(query[0]), RandomGraph.name(query[1]),
+                                vaccinated, query[3], query[4], query[5], mode);
+                        assertEquals(graph.bestWeight(query[0], query[1], vaccinated, preference),
+                                graph.weigh(query[0], route, vaccinated, preference),
+                                "seed " + seed + " round " + round + " " + mode + " " + route);
+                    }
+                }
+                change(random, graph);
+            }
+            assertTrue(assistant.getRouteCache().getHits() > 0, "the queries never hit the cache");
+        }
+    }
+
+    /**
+     * Function that adds a path, or makes a path cheaper, more expensive or removes it
+     * @param random
+     * @param graph
+     */
+    private static void change(Random random, RandomGraph graph) {
+        List<Integer> path = graph.randomPath(random);
+        int[] old = graph.getPath(path);
+        switch (random.nextInt(4)) {
+            case 0:
+                graph.addPath(random);
+                break;
+            case 1:
+                assertTrue(graph.removePath(path));
+                break;
+            case 2:
+                assertTrue(graph.updatePath(path, old[0] + 1 + random.nextInt(100), old[1] + random.nextInt(100)));
+                break;
+            default:
+                assertTrue(graph.updatePath(path, 1 + random.nextInt(old[0]), 1 + random.nextInt(old[1])));
+                break;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+//package com.company;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ ShardedTravelAssistantTest splits random graphs into 1 to 5 shards and compares the sharded routes
+ * with the routes of the single assistant and with Bellman-Ford
+ * every query is asked for a vaccinated and an unvaccinated traveller, and from every city to itself
+ */
+public class ShardedTravelAssistantTest {
+
+    private static final int GRAPHS = 60;
+    private static final int QUERIES = 30;
+
+    @Test
+    public void shardedRoutesMatchSingleAssistant() {
+        Random random = new Random(1);
+        for (int iteration = 0; iteration < GRAPHS; iteration++) {
+            int numberOfCities = 2 + random.nextInt(30);
+            RandomGraph graph = RandomGraph.build(random, numberOfCities, random.nextInt(4 * numberOfCities));
+            int numberOfShards = 1 + random.nextInt(Math.min(numberOfCities, 5));
+            ShardedTravelAssistant sharded = new ShardedTravelAssistant(
+                    new InProcessShardTransport(graph.getAssistant().split(numberOfShards)));
+
+            for (int query = 0; query < QUERIES; query++) {
+                int start = random.nextInt(numberOfCities);
+                int destination = query < numberOfCities / 4 ? start : random.nextInt(numberOfCities);
+                TravelPreference preference = new TravelPreference(random.nextInt(4), random.nextInt(4), random.nextInt(4));
+                for (boolean vaccinated : new boolean[]{true, false}) {
+                    String description = "graph " + iteration + " shards " + numberOfShards + " query " + query +
+                            " " + start + " -> " + destination + " vaccinated " + vaccinated;
+                    Route expected = graph.getAssistant().planTrip(RandomGraph.name(start), RandomGraph.name(destination),
+                            vaccinated, preference.getCostImportance(), preference.getTravelTimeImportance(),
+                            preference.getTravelHopImportance());
+                    Route route = sharded.planTrip(RandomGraph.name(start), RandomGraph.name(destination), vaccinated,
+                            preference.getCostImportance(), preference.getTravelTimeImportance(),
+                            preference.getTravelHopImportance());
+                    long weight = graph.weigh(start, route, vaccinated, preference);
+                    assertEquals(graph.weigh(start, expected, vaccinated, preference), weight, description + " " + route);
+                    assertEquals(graph.bestWeight(start, destination, vaccinated, preference), weight, description);
+                }
+            }
+        }
+    }
+}
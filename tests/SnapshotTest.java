@@ -0,0 +1,109 @@
+//package com.company;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ SnapshotTest saves a random graph, loads it back and checks that both assistants plan the same routes
+ * both are then changed the same way, so the first change of the loaded one fills its city store from the snapshot,
+ * the routes must still be the same after every round of changes
+ * the city names are not ASCII and are looked up in another case than they were added with
+ */
+public class SnapshotTest {
+
+    private static final int CITIES = 200;
+    private static final int ROUNDS = 3;
+    private static final int QUERIES = 300;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void loadedSnapshotPlansTheSameRoutes() throws IOException {
+        Random random = new Random(7);
+        TravelAssistant saved = new TravelAssistant();
+        for (int i = 0; i < CITIES; i++) {
+            saved.addCity(name(i), random.nextInt(4) == 0, random.nextInt(4) - 1, 1 + random.nextInt(50));
+        }
+        for (int i = 0; i < 4 * CITIES; i++) {
+            addPath(random, saved, null);
+        }
+        Path file = directory.resolve("graph.bin");
+        saved.saveSnapshot(file);
+        TravelAssistant loaded = TravelAssistant.loadSnapshot(file);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int query = 0; query < QUERIES; query++) {
+                int start = random.nextInt(CITIES);
+                int destination = random.nextInt(CITIES);
+                boolean vaccinated = random.nextBoolean();
+                int cost = random.nextInt(3);
+                int time = random.nextInt(3);
+                int hops = random.nextInt(3);
+                assertEquals(saved.planTrip(name(start), name(destination), vaccinated, cost, time, hops),
+                        loaded.planTrip(name(start).toUpperCase(Locale.ROOT), name(destination), vaccinated, cost, time, hops),
+                        "round " + round + " query " + query);
+            }
+            for (int i = 0; i < 50; i++) {
+                addPath(random, saved, loaded);
+                int start = random.nextInt(CITIES);
+                int destination = random.nextInt(CITIES);
+                if (random.nextBoolean()) {
+                    assertEquals(saved.removeFlight(name(start), name(destination)),
+                            loaded.removeFlight(name(start), name(destination)));
+                }
+                else {
+                    int time = 1 + random.nextInt(300);
+                    int cost = 1 + random.nextInt(500);
+                    assertEquals(saved.updateTrain(name(start), name(destination), time, cost),
+                            loaded.updateTrain(name(start), name(destination), time, cost));
+                }
+            }
+            assertEquals(saved.addCity("New" + round, false, 1, 5), loaded.addCity("NEW" + round, false, 1, 5));
+        }
+    }
+
+    /**
+     * Function that adds the same random path to 1 or 2 assistants
+     * @param random
+     * @param first
+     * @param second null to add the path only to the first assistant
+     */
+    private static void addPath(Random random, TravelAssistant first, TravelAssistant second) {
+        int start = random.nextInt(CITIES);
+        int destination = random.nextInt(CITIES);
+        if (start == destination) {
+            return;
+        }
+        int time = 1 + random.nextInt(300);
+        int cost = 1 + random.nextInt(500);
+        if (random.nextBoolean()) {
+            boolean added = first.addFlight(name(start), name(destination), time, cost);
+            if (second != null) {
+                assertEquals(added, second.addFlight(name(start), name(destination), time, cost));
+            }
+        }
+        else {
+            boolean added = first.addTrain(name(start), name(destination), time, cost);
+            if (second != null) {
+                assertEquals(added, second.addTrain(name(start), name(destination), time, cost));
+            }
+        }
+    }
+
+    /**
+     * Function that returns the name of a city
+     * @param city
+     * @return name
+     */
+    private static String name(int city) {
+        return "C\u00e9\u0131" + city;
+    }
+}